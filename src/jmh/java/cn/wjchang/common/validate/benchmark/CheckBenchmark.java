@@ -0,0 +1,77 @@
+package cn.wjchang.common.validate.benchmark;
+
+import cn.wjchang.common.validate.check.Check;
+import cn.wjchang.common.validate.check.CompiledCheck;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个验证方法在通过、不通过、边界值下的吞吐量
+ * check 为每次解析表达式的调用，compiled 为预编译后的调用
+ * <p>
+ * java -jar target/benchmarks.jar CheckBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckBenchmark {
+
+    /**
+     * 不指定值时 JMH 使用全部枚举
+     */
+    @Param
+    public Check check;
+
+    private CheckInputs inputs;
+    private CompiledCheck compiled;
+
+    @Setup
+    public void setup() {
+        inputs = CheckInputs.of(check);
+        compiled = check.compile(inputs.express);
+    }
+
+    @Benchmark
+    public Boolean valid() {
+        return check.check(inputs.valid, inputs.express);
+    }
+
+    @Benchmark
+    public Boolean invalid() {
+        return check.check(inputs.invalid, inputs.express);
+    }
+
+    @Benchmark
+    public Boolean boundary() {
+        return check.check(inputs.boundary, inputs.express);
+    }
+
+    @Benchmark
+    public boolean compiledValid() {
+        return compiled.test(inputs.valid);
+    }
+
+    @Benchmark
+    public boolean compiledInvalid() {
+        return compiled.test(inputs.invalid);
+    }
+
+    @Benchmark
+    public boolean compiledBoundary() {
+        return compiled.test(inputs.boundary);
+    }
+}
@@ -0,0 +1,161 @@
+package cn.wjchang.common.validate.benchmark;
+
+import cn.wjchang.common.validate.check.Check;
+import cn.wjchang.common.validate.check.CheckRegistry;
+import cn.wjchang.common.validate.check.CustomCheck;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * 基准测试的输入数据
+ * 每个验证方法一组：通过的值、不通过的值、边界值，以及使用的表达式
+ */
+final class CheckInputs {
+
+    /**
+     * Check.Custom 使用的自定义验证方法：值以表达式中冒号之后的前缀开头
+     */
+    private static final String CUSTOM_NAME = "benchmark-sku";
+
+    static {
+        if (CheckRegistry.get(CUSTOM_NAME) == null) {
+            CheckRegistry.register(CustomCheck.builder(CUSTOM_NAME)
+                    .code(99001)
+                    .function((value, express) -> value instanceof String && ((String) value).startsWith(express))
+                    .compiler(express -> (value, ignored) -> value instanceof String
+                            && ((String) value).startsWith(express))
+                    .build());
+        }
+    }
+
+    final Object valid;
+    final Object invalid;
+    final Object boundary;
+    final String express;
+
+    private CheckInputs(Object valid, Object invalid, Object boundary, String express) {
+        this.valid = valid;
+        this.invalid = invalid;
+        this.boundary = boundary;
+        this.express = express;
+    }
+
+    private static CheckInputs of(Object valid, Object invalid, Object boundary) {
+        return new CheckInputs(valid, invalid, boundary, null);
+    }
+
+    private static CheckInputs of(Object valid, Object invalid, Object boundary, String express) {
+        return new CheckInputs(valid, invalid, boundary, express);
+    }
+
+    static CheckInputs of(Check check) {
+        switch (check) {
+            case Null:
+                return of(null, "x", "");
+            case NotNull:
+                return of("x", null, "");
+            case Empty:
+                return of("", "x", "   ");
+            case NotEmpty:
+                return of("x", "", " a");
+            case True:
+                return of("true", "false", "TRUE");
+            case False:
+                return of("false", "true", "FALSE");
+            case Date:
+                return of("2024-05-01", "2024-13-01", "2024-02-29", "yyyy-MM-dd");
+            case DateTime:
+                return of("2024-05-01 10:00:00", "2024-05-01", "2024-12-31 23:59:59");
+            case TimeMillSeconds:
+                return of("1700000000000", "170000", "9999999999999");
+            case Past:
+                return of("2000-01-01 00:00:00", "2999-01-01 00:00:00", "1970-01-01 00:00:00");
+            case Future:
+                return of("2999-01-01 00:00:00", "2000-01-01 00:00:00", "9999-12-31 23:59:59");
+            case Today:
+                return of(LocalDate.now(), LocalDate.now().minusDays(1), LocalDate.now().plusDays(1));
+            case Number:
+                return of("123.45", "12a", "0");
+            case Chinese:
+                return of("中文", "abc", "中");
+            case General:
+                return of("abc_123", "abc-123", "_");
+            case GeneralWithChinese:
+                return of("中文abc_1", "中文-1", "_");
+            case IN:
+                return of(5, 11, 10, "1,10");
+            case NotIn:
+                return of(11, 5, 1, "1,10");
+            case Length:
+                return of("hello", "hello world!", "helloworld", "1,10");
+            case Enum:
+                return of("女", "x", "男", "男,女");
+            case GT:
+                return of(11, 9, 10, "10");
+            case LT:
+                return of(9, 11, 10, "10");
+            case GTE:
+                return of(11, 9, 10, "10");
+            case LTE:
+                return of(9, 11, 10, "10");
+            case NEQ:
+                return of(9, 10, 11, "10");
+            case EQ:
+                return of(10, 9, 10L, "10");
+            case Pattern:
+                return of("abc123", "123abc", "a1", "^[a-z]+\\d+$");
+            case Currency:
+                return of("12.50", "12.5.0", "0");
+            case CreditCode:
+                return of("91350100M000100Y43", "91350100M000100Y4", "91350100M000100YI3");
+            case CitizenId:
+                return of("110101199003074477", "11010119900307447", "11010119900307447X");
+            case Email:
+                return of("user.name@example.com", "user@@example.com", "a1@b.cn");
+            case Mobile:
+                return of("13800138000", "12800138000", "+8613800138000");
+            case Url:
+                return of("https://example.com/a?b=c", "htp:/bad", "ftp://a");
+            case ISBN:
+                return of("978-7-111-54742-6", "978-7-111", "7111547426");
+            case BankNumber:
+                return of("4111111111111111", "4111111111111112", "4111111111111111111");
+            case ChinesePostCode:
+                return of("100080", "010080", "999999");
+            case PlateNumber:
+                return of("京A12345", "A12345", "粤B1234学");
+            case UUID:
+                return of("f47ac10b-58cc-4372-a567-0e02b2c3d479", "not-a-uuid", "f47ac10b58cc4372a5670e02b2c3d479");
+            case Ipv4:
+                return of("192.168.1.1", "256.1.1.1", "255.255.255.255");
+            case Ipv6:
+                return of("2001:db8::8a2e:370:7334", "2001:db8:::1", "::ffff:192.168.1.1");
+            case Mac:
+                return of("00:1A:2B:3C:4D:5E", "00:1A:2B:3C:4D", "0-1-2-3-4-5");
+            case Custom:
+                return of("SKU-00123", "ABC-00123", "SKU-", CUSTOM_NAME + ":SKU-");
+            default:
+                throw new IllegalStateException("no benchmark inputs for " + check);
+        }
+    }
+
+    /**
+     * 典型的下单接口参数，循环取用组成指定长度的验证链
+     */
+    static final Object[][] ORDER_FIELDS = {
+            {Check.NotEmpty, "SO20240501000123", null},
+            {Check.Length, "SO20240501000123", "10,32"},
+            {Check.IN, 3, "1,100"},
+            {Check.GT, new BigDecimal("199.90"), "0"},
+            {Check.Mobile, "13800138000", null},
+            {Check.Email, "buyer@example.com", null},
+            {Check.Enum, "PAID", "NEW,PAID,SHIPPED,CLOSED"},
+            {Check.DateTime, "2024-05-01 10:00:00", null},
+            {Check.Ipv4, "192.168.1.1", null},
+            {Check.UUID, "f47ac10b-58cc-4372-a567-0e02b2c3d479", null},
+            {Check.Pattern, "SKU-00123", "^SKU-\\d{5}$"},
+            {Check.NotNull, Arrays.asList("a", "b"), null},
+    };
+}
@@ -0,0 +1,59 @@
+package cn.wjchang.common.validate.benchmark;
+
+import cn.wjchang.common.validate.check.Check;
+import cn.wjchang.common.validate.check.FormatClassifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FormatClassifier.classify 单次扫描和逐个调用 FORMATS 中的 Check.check 的对比
+ * <p>
+ * java -jar target/benchmarks.jar FormatClassifierBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatClassifierBenchmark {
+
+    @Param({"buyer@example.com", "13800138000", "https://example.com/a?b=c", "f47ac10b-58cc-4372-a567-0e02b2c3d479",
+            "192.168.1.1", "2001:db8::8a2e:370:7334", "00:1A:2B:3C:4D:5E", "11010519491231002X", "plain text"})
+    public String value;
+
+    private Check[] formats;
+
+    @Setup
+    public void setup() {
+        formats = FormatClassifier.FORMATS.toArray(new Check[0]);
+    }
+
+    @Benchmark
+    public EnumSet<Check> classify() {
+        return FormatClassifier.classify(value);
+    }
+
+    @Benchmark
+    public EnumSet<Check> checkEach() {
+        EnumSet<Check> result = EnumSet.noneOf(Check.class);
+        for (Check check : formats) {
+            if (check.check(value, null)) {
+                result.add(check);
+            }
+        }
+        return result;
+    }
+}
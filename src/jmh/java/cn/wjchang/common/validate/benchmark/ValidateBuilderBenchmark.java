@@ -0,0 +1,101 @@
+package cn.wjchang.common.validate.benchmark;
+
+import cn.wjchang.common.validate.ValidateBuilder;
+import cn.wjchang.common.validate.ValidationPlan;
+import cn.wjchang.common.validate.check.Check;
+import cn.wjchang.common.validate.check.CompiledCheck;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 完整的 ValidateBuilder.build().vali(...).doCheck().isPassed() 验证链
+ * 验证链由典型的下单接口参数循环组成，长度由 size 指定
+ * <p>
+ * java -jar target/benchmarks.jar ValidateBuilderBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidateBuilderBenchmark {
+
+    @Param({"5", "10", "30"})
+    public int size;
+
+    private Check[] checks;
+    private Object[] values;
+    private String[] expresses;
+    private CompiledCheck[] compiled;
+    private ValidationPlan plan;
+
+    @Setup
+    public void setup() {
+        checks = new Check[size];
+        values = new Object[size];
+        expresses = new String[size];
+        compiled = new CompiledCheck[size];
+        ValidationPlan.Builder builder = ValidationPlan.builder();
+        for (int i = 0; i < size; i++) {
+            Object[] field = CheckInputs.ORDER_FIELDS[i % CheckInputs.ORDER_FIELDS.length];
+            checks[i] = (Check) field[0];
+            values[i] = field[1];
+            expresses[i] = (String) field[2];
+            compiled[i] = checks[i].compile(expresses[i]);
+            builder.rule(checks[i], expresses[i]);
+        }
+        plan = builder.compile();
+    }
+
+    @Benchmark
+    public Boolean builderChain() {
+        ValidateBuilder builder = ValidateBuilder.build();
+        for (int i = 0; i < size; i++) {
+            builder.vali(checks[i], values[i], expresses[i], null);
+        }
+        return builder.doCheck().isPassed();
+    }
+
+    @Benchmark
+    public String builderChainFailedMsgs() {
+        ValidateBuilder builder = ValidateBuilder.build();
+        for (int i = 0; i < size; i++) {
+            builder.vali(checks[i], i == 0 ? null : values[i], expresses[i], null);
+        }
+        return builder.doCheck().getFailedMsgs();
+    }
+
+    /**
+     * 线程复用的 ValidateBuilder + 预编译的方法，-prof gc 下验证链本身不分配内存，分配的只有 Email 的 Matcher
+     */
+    @Benchmark
+    public Boolean localChainCompiled() {
+        ValidateBuilder builder = ValidateBuilder.local();
+        for (int i = 0; i < size; i++) {
+            builder.vali(compiled[i], values[i], null);
+        }
+        return builder.doCheck().isPassed();
+    }
+
+    @Benchmark
+    public Boolean planCheck() {
+        return plan.check(values).isPassed();
+    }
+
+    @Benchmark
+    public boolean planTest() {
+        return plan.test(values);
+    }
+}
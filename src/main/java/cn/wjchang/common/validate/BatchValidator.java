@@ -0,0 +1,362 @@
+package cn.wjchang.common.validate;
+
+import cn.wjchang.common.validate.check.Check;
+import cn.wjchang.common.validate.check.CompiledCheck;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 按列批量验证
+ * 同一个验证方法和表达式验证一列数据，表达式只编译一次；返回不通过的下标（BitSet），不创建 ValidateChain 和 Boolean
+ * <p>
+ * parallelFailures 把数据按段拆分到 ForkJoinPool 中并行验证，结果和顺序验证完全一致
+ *
+ * <pre>
+ * BitSet failed = BatchValidator.failures(Check.Mobile, null, mobiles);
+ * for (int i = failed.nextSetBit(0); i &gt;= 0; i = failed.nextSetBit(i + 1)) {
+ *     ...
+ * }
+ * </pre>
+ */
+public final class BatchValidator {
+
+    /**
+     * 并行验证时每段的最小条数，必须是64的倍数，保证每段写入的 long 互不重叠
+     */
+    public static final int SEGMENT_SIZE = 1 << 13;
+
+    private BatchValidator() {
+    }
+
+    public static BitSet failures(Check check, String express, Object[] values) {
+        return failures(check.compile(express), values);
+    }
+
+    public static BitSet failures(Check check, String express, CharSequence[] values) {
+        return failures(check.compile(express), values);
+    }
+
+    public static BitSet failures(Check check, String express, Collection<?> values) {
+        return failures(check.compile(express), values);
+    }
+
+    public static BitSet failures(Check check, String express, long[] values) {
+        return failures(check.compile(express), values);
+    }
+
+    public static BitSet failures(Check check, String express, int[] values) {
+        return failures(check.compile(express), values);
+    }
+
+    public static BitSet failures(Check check, String express, double[] values) {
+        return failures(check.compile(express), values);
+    }
+
+    public static BitSet failures(CompiledCheck check, Object[] values) {
+        return failures(check, values, 0, values.length);
+    }
+
+    public static BitSet failures(CompiledCheck check, CharSequence[] values) {
+        return failures(check, values, 0, values.length);
+    }
+
+    public static BitSet failures(CompiledCheck check, long[] values) {
+        return failures(check, values, 0, values.length);
+    }
+
+    public static BitSet failures(CompiledCheck check, int[] values) {
+        return failures(check, values, 0, values.length);
+    }
+
+    public static BitSet failures(CompiledCheck check, double[] values) {
+        return failures(check, values, 0, values.length);
+    }
+
+    /**
+     * 按迭代顺序编号；List 实现了 RandomAccess 时按下标读取
+     */
+    public static BitSet failures(CompiledCheck check, Collection<?> values) {
+        Objects.requireNonNull(check, "check");
+        if (values instanceof List && values instanceof RandomAccess) {
+            List<?> list = (List<?>) values;
+            return run(new ListSegment(check, list), list.size(), null);
+        }
+        BitSet failed = new BitSet(values.size());
+        Iterator<?> it = values.iterator();
+        for (int i = 0; it.hasNext(); i++) {
+            if (!check.test(it.next())) {
+                failed.set(i);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * 验证 [from, to) 区间，BitSet 中的下标为数组下标
+     */
+    public static BitSet failures(CompiledCheck check, Object[] values, int from, int to) {
+        checkRange(values.length, from, to);
+        return run(new ObjectSegment(check, values), from, to, null);
+    }
+
+    public static BitSet failures(CompiledCheck check, CharSequence[] values, int from, int to) {
+        checkRange(values.length, from, to);
+        return run(new CharsSegment(check, values), from, to, null);
+    }
+
+    public static BitSet failures(CompiledCheck check, long[] values, int from, int to) {
+        checkRange(values.length, from, to);
+        return run(new LongSegment(check, values), from, to, null);
+    }
+
+    public static BitSet failures(CompiledCheck check, int[] values, int from, int to) {
+        checkRange(values.length, from, to);
+        return run(new IntSegment(check, values), from, to, null);
+    }
+
+    public static BitSet failures(CompiledCheck check, double[] values, int from, int to) {
+        checkRange(values.length, from, to);
+        return run(new DoubleSegment(check, values), from, to, null);
+    }
+
+    /**
+     * 在 ForkJoinPool.commonPool() 中并行验证
+     */
+    public static BitSet parallelFailures(CompiledCheck check, Object[] values) {
+        return parallelFailures(check, values, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 在指定的 ForkJoinPool 中并行验证，验证方法需要是线程安全的（内置的 Check 都是）
+     */
+    public static BitSet parallelFailures(CompiledCheck check, Object[] values, ForkJoinPool pool) {
+        return run(new ObjectSegment(check, values), values.length, pool);
+    }
+
+    public static BitSet parallelFailures(CompiledCheck check, CharSequence[] values) {
+        return parallelFailures(check, values, ForkJoinPool.commonPool());
+    }
+
+    public static BitSet parallelFailures(CompiledCheck check, CharSequence[] values, ForkJoinPool pool) {
+        return run(new CharsSegment(check, values), values.length, pool);
+    }
+
+    public static BitSet parallelFailures(CompiledCheck check, long[] values) {
+        return parallelFailures(check, values, ForkJoinPool.commonPool());
+    }
+
+    public static BitSet parallelFailures(CompiledCheck check, long[] values, ForkJoinPool pool) {
+        return run(new LongSegment(check, values), values.length, pool);
+    }
+
+    public static BitSet parallelFailures(CompiledCheck check, int[] values) {
+        return parallelFailures(check, values, ForkJoinPool.commonPool());
+    }
+
+    public static BitSet parallelFailures(CompiledCheck check, int[] values, ForkJoinPool pool) {
+        return run(new IntSegment(check, values), values.length, pool);
+    }
+
+    public static BitSet parallelFailures(CompiledCheck check, double[] values) {
+        return parallelFailures(check, values, ForkJoinPool.commonPool());
+    }
+
+    public static BitSet parallelFailures(CompiledCheck check, double[] values, ForkJoinPool pool) {
+        return run(new DoubleSegment(check, values), values.length, pool);
+    }
+
+    public static BitSet parallelFailures(CompiledCheck check, List<?> values) {
+        return parallelFailures(check, values, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 没有实现 RandomAccess 的 List 先复制为数组
+     */
+    public static BitSet parallelFailures(CompiledCheck check, List<?> values, ForkJoinPool pool) {
+        if (values instanceof RandomAccess) {
+            return run(new ListSegment(check, values), values.size(), pool);
+        }
+        return parallelFailures(check, values.toArray(), pool);
+    }
+
+    private static BitSet run(Segment segment, int length, ForkJoinPool pool) {
+        return run(segment, 0, length, pool);
+    }
+
+    /**
+     * pool 为 null 或者数据不超过一段时在当前线程验证
+     */
+    private static BitSet run(Segment segment, int from, int to, ForkJoinPool pool) {
+        Objects.requireNonNull(segment.check, "check");
+        long[] words = new long[(to + 63) >>> 6];
+        if (pool == null || to - from <= SEGMENT_SIZE) {
+            segment.fill(from, to, words);
+        } else {
+            pool.invoke(new SegmentTask(segment, from, to, words));
+        }
+        return BitSet.valueOf(words);
+    }
+
+    private static void checkRange(int length, int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", length: " + length);
+        }
+    }
+
+    /**
+     * 拆分到不超过 SEGMENT_SIZE，拆分点对齐到64，各段写入不同的 long
+     */
+    private static final class SegmentTask extends RecursiveAction {
+
+        private final Segment segment;
+        private final int from;
+        private final int to;
+        private final long[] words;
+
+        SegmentTask(Segment segment, int from, int to, long[] words) {
+            this.segment = segment;
+            this.from = from;
+            this.to = to;
+            this.words = words;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEGMENT_SIZE) {
+                segment.fill(from, to, words);
+                return;
+            }
+            int mid = ((from + (to - from) / 2) + 63) & ~63;
+            invokeAll(new SegmentTask(segment, from, mid, words), new SegmentTask(segment, mid, to, words));
+        }
+    }
+
+    /**
+     * 按数据类型的验证循环，不通过的下标写入 words
+     */
+    private abstract static class Segment {
+
+        final CompiledCheck check;
+
+        Segment(CompiledCheck check) {
+            this.check = check;
+        }
+
+        abstract void fill(int from, int to, long[] words);
+    }
+
+    private static final class ObjectSegment extends Segment {
+        private final Object[] values;
+
+        ObjectSegment(CompiledCheck check, Object[] values) {
+            super(check);
+            this.values = values;
+        }
+
+        @Override
+        void fill(int from, int to, long[] words) {
+            for (int i = from; i < to; i++) {
+                if (!check.test(values[i])) {
+                    words[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    private static final class CharsSegment extends Segment {
+        private final CharSequence[] values;
+
+        CharsSegment(CompiledCheck check, CharSequence[] values) {
+            super(check);
+            this.values = values;
+        }
+
+        @Override
+        void fill(int from, int to, long[] words) {
+            for (int i = from; i < to; i++) {
+                if (!check.testChars(values[i])) {
+                    words[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    private static final class ListSegment extends Segment {
+        private final List<?> values;
+
+        ListSegment(CompiledCheck check, List<?> values) {
+            super(check);
+            this.values = values;
+        }
+
+        @Override
+        void fill(int from, int to, long[] words) {
+            for (int i = from; i < to; i++) {
+                if (!check.test(values.get(i))) {
+                    words[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    private static final class LongSegment extends Segment {
+        private final long[] values;
+
+        LongSegment(CompiledCheck check, long[] values) {
+            super(check);
+            this.values = values;
+        }
+
+        @Override
+        void fill(int from, int to, long[] words) {
+            for (int i = from; i < to; i++) {
+                if (!check.testLong(values[i])) {
+                    words[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    private static final class IntSegment extends Segment {
+        private final int[] values;
+
+        IntSegment(CompiledCheck check, int[] values) {
+            super(check);
+            this.values = values;
+        }
+
+        @Override
+        void fill(int from, int to, long[] words) {
+            for (int i = from; i < to; i++) {
+                if (!check.testLong(values[i])) {
+                    words[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    private static final class DoubleSegment extends Segment {
+        private final double[] values;
+
+        DoubleSegment(CompiledCheck check, double[] values) {
+            super(check);
+            this.values = values;
+        }
+
+        @Override
+        void fill(int from, int to, long[] words) {
+            for (int i = from; i < to; i++) {
+                if (!check.testDouble(values[i])) {
+                    words[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+}
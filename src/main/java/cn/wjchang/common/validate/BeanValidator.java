@@ -0,0 +1,257 @@
+package cn.wjchang.common.validate;
+
+import cn.wjchang.common.validate.annotation.Vali;
+import cn.wjchang.common.validate.check.CompiledCheck;
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 按 {@link Vali} 注解验证对象
+ * 每个类只扫描一次（包括父类的字段和方法），规则预编译；字段优先使用 public getter 读取，
+ * 本库可见的类的 public getter 通过 LambdaMetafactory 生成直接调用，其它情况使用 MethodHandle，验证时不使用反射
+ *
+ * <pre>
+ * BeanValidator.validate(order).ifNotPassedThrowException();
+ *
+ * if (!BeanValidator.of(Order.class).test(order)) {
+ *     ...
+ * }
+ * </pre>
+ */
+public final class BeanValidator {
+
+    private static final ClassValue<BeanValidator> CACHE = new ClassValue<BeanValidator>() {
+        @Override
+        protected BeanValidator computeValue(Class<?> type) {
+            return new BeanValidator(type);
+        }
+    };
+
+    private final Class<?> type;
+
+    private final Rule[] rules;
+
+    private BeanValidator(Class<?> type) {
+        this.type = type;
+        List<Rule> rules = new ArrayList<>();
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.add(0, c);
+        }
+        for (Class<?> c : hierarchy) {
+            for (Field field : c.getDeclaredFields()) {
+                Vali[] valis = field.getAnnotationsByType(Vali.class);
+                if (valis.length > 0 && !Modifier.isStatic(field.getModifiers())) {
+                    add(field.getName(), getter(field), valis, rules);
+                }
+            }
+            for (Method method : c.getDeclaredMethods()) {
+                Vali[] valis = method.getAnnotationsByType(Vali.class);
+                if (valis.length > 0 && !method.isBridge()) {
+                    if (method.getParameterCount() != 0 || method.getReturnType() == void.class
+                            || Modifier.isStatic(method.getModifiers())) {
+                        throw new ParamsCheckException("@Vali method must be an instance getter: " + method);
+                    }
+                    add(method.getName(), getter(method), valis, rules);
+                }
+            }
+        }
+        this.rules = rules.toArray(new Rule[0]);
+    }
+
+    private static void add(String name, Function<Object, Object> getter, Vali[] valis, List<Rule> rules) {
+        for (Vali vali : valis) {
+            rules.add(new Rule(name, getter, vali.value().compile(vali.express().isEmpty() ? null : vali.express()),
+                    vali.msg().isEmpty() ? null : vali.msg()));
+        }
+    }
+
+    /**
+     * 类的验证器，每个类只创建一次
+     */
+    public static BeanValidator of(Class<?> type) {
+        return CACHE.get(Objects.requireNonNull(type, "type"));
+    }
+
+    /**
+     * 验证全部规则，返回已经执行过doCheck的ValidateBuilder
+     */
+    public static ValidateBuilder validate(Object bean) {
+        Objects.requireNonNull(bean, "bean");
+        return of(bean.getClass()).check(bean);
+    }
+
+    /**
+     * 规则的条数
+     */
+    public int size() {
+        return rules.length;
+    }
+
+    /**
+     * 每条规则对应的字段名或方法名
+     */
+    public List<String> getNames() {
+        List<String> names = new ArrayList<>(rules.length);
+        for (Rule rule : rules) {
+            names.add(rule.name);
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    public List<CompiledCheck> getChecks() {
+        List<CompiledCheck> checks = new ArrayList<>(rules.length);
+        for (Rule rule : rules) {
+            checks.add(rule.check);
+        }
+        return Collections.unmodifiableList(checks);
+    }
+
+    /**
+     * 只判断是否通过，遇到第一个不通过的规则就返回
+     */
+    public boolean test(Object bean) {
+        checkBean(bean);
+        for (Rule rule : rules) {
+            if (!rule.check.test(rule.getter.apply(bean))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 验证全部规则，返回已经执行过doCheck的ValidateBuilder
+     */
+    public ValidateBuilder check(Object bean) {
+        checkBean(bean);
+        ValidateBuilder builder = ValidateBuilder.build();
+        for (Rule rule : rules) {
+            builder.vali(rule.check, rule.getter.apply(bean), rule.msg);
+        }
+        return builder.doCheck();
+    }
+
+    private void checkBean(Object bean) {
+        if (!type.isInstance(bean)) {
+            throw new ParamsCheckException("bean must be an instance of " + type.getName() + ", but was "
+                    + (bean == null ? null : bean.getClass().getName()));
+        }
+        if (rules.length == 0) {
+            throw new ParamsCheckException("no @Vali rules found on " + type.getName());
+        }
+    }
+
+    /**
+     * 有同名的 public getter 时使用 getter，否则直接读取字段
+     */
+    private static Function<Object, Object> getter(Field field) {
+        String suffix = Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+        for (String prefix : new String[]{"get", "is"}) {
+            try {
+                Method method = field.getDeclaringClass().getMethod(prefix + suffix);
+                if (method.getReturnType() == field.getType() && !Modifier.isStatic(method.getModifiers())) {
+                    return getter(method);
+                }
+            } catch (NoSuchMethodException e) {
+                // 没有这个 getter
+            }
+        }
+        try {
+            field.setAccessible(true);
+            return invoker(MethodHandles.lookup().unreflectGetter(field), field.getName());
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new ParamsCheckException("can not access field " + field, e);
+        }
+    }
+
+    /**
+     * LambdaMetafactory 生成的类属于本库的类加载器，只有 bean 的类和返回值类型对本库可见时才使用，
+     * 否则（例如 bean 由子类加载器加载）使用 MethodHandle，避免链接失败或长期持有 bean 的类加载器
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(Method method) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        if (Modifier.isPublic(method.getModifiers()) && Modifier.isPublic(method.getDeclaringClass().getModifiers())
+                && visible(method.getDeclaringClass()) && visible(method.getReturnType())) {
+            try {
+                MethodHandle handle = lookup.unreflect(method);
+                CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class), handle,
+                        MethodType.methodType(method.getReturnType(), method.getDeclaringClass()));
+                return (Function<Object, Object>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                // 类不可见等情况，使用 MethodHandle
+            }
+        }
+        try {
+            method.setAccessible(true);
+            return invoker(lookup.unreflect(method), method.getName());
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new ParamsCheckException("can not access method " + method, e);
+        }
+    }
+
+    private static boolean visible(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(type.getName(), false, BeanValidator.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static Function<Object, Object> invoker(MethodHandle handle, String name) {
+        MethodHandle getter = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return bean -> {
+            try {
+                return getter.invokeExact(bean);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new ParamsCheckException("failed to read " + name, e);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "BeanValidator(" + type.getName() + ", " + rules.length + " rules)";
+    }
+
+    /**
+     * 一条 @Vali 规则：字段名或方法名、读取值的函数、预编译的验证方法和提示信息
+     */
+    private static final class Rule {
+
+        final String name;
+        final Function<Object, Object> getter;
+        final CompiledCheck check;
+        final String msg;
+
+        Rule(String name, Function<Object, Object> getter, CompiledCheck check, String msg) {
+            this.name = name;
+            this.getter = getter;
+            this.check = check;
+            this.msg = msg;
+        }
+    }
+}
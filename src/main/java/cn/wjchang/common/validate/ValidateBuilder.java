@@ -1,20 +1,41 @@
 package cn.wjchang.common.validate;
 
 import cn.wjchang.common.validate.check.Check;
+import cn.wjchang.common.validate.check.CheckCost;
+import cn.wjchang.common.validate.check.CheckRegistry;
+import cn.wjchang.common.validate.check.CompiledCheck;
+import cn.wjchang.common.validate.check.CustomCheck;
 import cn.wjchang.common.validate.exception.ParamsCheckException;
 import cn.wjchang.common.validate.exception.ParamsInValidException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 public class ValidateBuilder {
 
+    /**
+     * 每个线程复用的 ValidateBuilder，见 {@link #local()}
+     */
+    private static final ThreadLocal<ValidateBuilder> LOCAL = ThreadLocal.withInitial(() -> new ValidateBuilder(true));
+
+    /**
+     * 新建的 ValidateBuilder 默认是否抛出不带堆栈的异常
+     */
+    private static volatile boolean stacklessDefault;
+
     /**
      * 请使用build方法构造
      */
     private ValidateBuilder() {
+        this(false);
+    }
+
+    private ValidateBuilder(boolean reusable) {
+        this.reusable = reusable;
+        this.slots = reusable ? new ValidateChain[16] : null;
     }
 
     /**
@@ -22,6 +43,70 @@ public class ValidateBuilder {
      */
     private final List<ValidateChain> chains = new ArrayList<ValidateChain>();
 
+    /**
+     * 验证模式
+     */
+    public enum Mode {
+        /**
+         * 验证全部规则（默认）
+         */
+        ALL,
+        /**
+         * 遇到第一个不通过的规则就停止，之后的规则不验证，结果为null
+         */
+        FAIL_FAST,
+        /**
+         * doCheck 时不验证；isPassed 只验证到第一个不通过的规则，获取失败信息、条数或者验证链时验证剩余规则
+         */
+        LAZY
+    }
+
+    private Mode mode = Mode.ALL;
+
+    /**
+     * 是否调用过doCheck
+     */
+    private boolean checked;
+
+    /**
+     * 已经按顺序验证过的规则条数
+     */
+    private int evaluated;
+
+    /**
+     * 已验证规则中不通过的条数、通过的条数
+     */
+    private int failedCount;
+    private int passedCount;
+
+    /**
+     * 不通过的规则下标，按位保存，doCheck 时清空后复用
+     */
+    private long[] failedWords = new long[1];
+
+    /**
+     * 是否复用 ValidateChain：clear 后保留在 slots 中，下次 vali 时按位置取出
+     */
+    private final boolean reusable;
+    private ValidateChain[] slots;
+
+    /**
+     * ifNotPassedThrowException 默认的异常是否不带堆栈
+     */
+    private boolean stackless = stacklessDefault;
+
+    /**
+     * 是否按开销类别验证，见 {@link #costOrdered()}
+     */
+    private boolean costOrdered;
+
+    /**
+     * 按开销排列的规则下标，前 ordered 项有效；evaluated 之前的部分已经验证，不再调整
+     */
+    private int[] order;
+    private byte[] ranks;
+    private int ordered;
+
     /**
      * 实体类
      */
@@ -32,6 +117,7 @@ public class ValidateBuilder {
         private String express;
         private Boolean result;
         private String msg;
+        private CompiledCheck compiled;
 
         public Check getCheck() {
             return check;
@@ -72,6 +158,14 @@ public class ValidateBuilder {
         public void setMsg(String msg) {
             this.msg = msg;
         }
+
+        public CompiledCheck getCompiled() {
+            return compiled;
+        }
+
+        public void setCompiled(CompiledCheck compiled) {
+            this.compiled = compiled;
+        }
     }
 
     /**
@@ -82,15 +176,41 @@ public class ValidateBuilder {
      * @return
      */
     public ValidateBuilder vali(Check check, Object value, String express, String msg) {
-        ValidateChain validateChain = new ValidateChain();
+        ValidateChain validateChain = newChain();
         validateChain.setCheck(check);
         validateChain.setValue(value);
         validateChain.setExpress(express);
-        validateChain.setMsg(msg == null || Objects.equals(msg, "") ? check.msg : msg);
+        validateChain.setMsg(msg == null || Objects.equals(msg, "") ? defaultMsg(check, express) : msg);
         chains.add(validateChain);
         return this;
     }
 
+    private static String defaultMsg(Check check, String express) {
+        if (check == Check.Custom) {
+            CustomCheck custom = CheckRegistry.lookup(express);
+            if (custom != null) {
+                return custom.getMsg();
+            }
+        }
+        return check.msg;
+    }
+
+    private ValidateChain newChain() {
+        if (!reusable) {
+            return new ValidateChain();
+        }
+        int index = chains.size();
+        if (index == slots.length) {
+            slots = Arrays.copyOf(slots, index << 1);
+        }
+        ValidateChain chain = slots[index];
+        if (chain == null) {
+            chain = new ValidateChain();
+            slots[index] = chain;
+        }
+        return chain;
+    }
+
     public ValidateBuilder vali(Check check, Object value, String msg) {
         return vali(check, value, null, msg);
     }
@@ -103,21 +223,162 @@ public class ValidateBuilder {
         return vali(check, value, express, null);
     }
 
+    /**
+     * @param compiled 预编译的验证方法 {@link Check#compile(String)}、{@link CustomCheck#compile(String)}
+     * @param value    验证的值
+     * @param msg      提示信息 没有默认取 compiled.getMsg()
+     * @return
+     */
+    public ValidateBuilder vali(CompiledCheck compiled, Object value, String msg) {
+        vali(compiled.getCheck(), value, compiled.getExpress(),
+                msg == null || Objects.equals(msg, "") ? compiled.getMsg() : msg);
+        chains.get(chains.size() - 1).setCompiled(compiled);
+        return this;
+    }
+
+    public ValidateBuilder vali(CompiledCheck compiled, Object value) {
+        return vali(compiled, value, null);
+    }
+
+    /**
+     * 自定义验证方法，不要求已经注册；每次调用都会编译表达式，频繁使用时请保存 check.compile(express) 的结果
+     *
+     * @param check   自定义验证方法
+     * @param value   验证的值
+     * @param express 传给自定义验证方法的表达式 非必填
+     * @param msg     提示信息 没有默认取 CustomCheck 的提示信息
+     * @return
+     */
+    public ValidateBuilder vali(CustomCheck check, Object value, String express, String msg) {
+        return vali(check.compile(express), value, msg);
+    }
+
+    public ValidateBuilder vali(CustomCheck check, Object value, String msg) {
+        return vali(check, value, null, msg);
+    }
+
+    public ValidateBuilder vali(CustomCheck check, Object value) {
+        return vali(check, value, null, null);
+    }
+
     /**
      * 真正检查的方法
+     * ALL 验证全部；FAIL_FAST 遇到第一个不通过的规则就停止；LAZY 不立即验证，获取结果时才验证
      *
      * @return ValidateBuilder
      */
     public ValidateBuilder doCheck() {
-        for (ValidateChain conn : chains) {
-            Boolean result = conn.getCheck().check(conn.value, conn.express);
-            conn.setResult(result);
+        checked = true;
+        resetResults();
+        // 按下标遍历，不创建 Iterator
+        for (int i = 0, size = chains.size(); i < size; i++) {
+            chains.get(i).setResult(null);
+        }
+        if (mode == Mode.ALL) {
+            evaluate(false);
+        } else if (mode == Mode.FAIL_FAST) {
+            evaluate(true);
         }
         return this;
     }
 
+    /**
+     * 按顺序验证还没有验证的规则；costOrdered 时按开销类别的顺序
+     *
+     * @param untilFailed 遇到不通过的规则时停止
+     */
+    private void evaluate(boolean untilFailed) {
+        int size = chains.size();
+        if (costOrdered && ordered < size) {
+            orderByCost(size);
+        }
+        while (evaluated < size) {
+            int index = costOrdered ? order[evaluated] : evaluated;
+            evaluated++;
+            ValidateChain conn = chains.get(index);
+            boolean result = conn.compiled != null
+                    ? conn.compiled.test(conn.value)
+                    : conn.getCheck().check(conn.value, conn.express);
+            conn.setResult(result);
+            if (result) {
+                passedCount++;
+            } else {
+                failedCount++;
+                if (index >>> 6 >= failedWords.length) {
+                    // doCheck 之后又添加了规则（LAZY 模式）
+                    failedWords = Arrays.copyOf(failedWords, Math.max((index >>> 6) + 1, failedWords.length << 1));
+                }
+                failedWords[index >>> 6] |= 1L << index;
+                if (untilFailed) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 把新添加的规则插入 order 中还没有验证的部分，同一开销类别保持添加顺序
+     */
+    private void orderByCost(int size) {
+        if (order == null || order.length < size) {
+            int length = Math.max(size, order == null ? 16 : order.length << 1);
+            order = order == null ? new int[length] : Arrays.copyOf(order, length);
+            ranks = ranks == null ? new byte[length] : Arrays.copyOf(ranks, length);
+        }
+        for (int i = ordered; i < size; i++) {
+            byte rank = (byte) costOf(chains.get(i)).ordinal();
+            ranks[i] = rank;
+            int j = i;
+            while (j > evaluated && ranks[order[j - 1]] > rank) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = i;
+        }
+        ordered = size;
+    }
+
+    private static CheckCost costOf(ValidateChain chain) {
+        if (chain.compiled != null) {
+            return chain.compiled.getCost();
+        }
+        if (chain.check == Check.Custom) {
+            CustomCheck custom = CheckRegistry.lookup(chain.express);
+            if (custom != null) {
+                return custom.getCost();
+            }
+        }
+        return chain.check.cost();
+    }
+
+    /**
+     * 清空结果，按规则条数准备 failedWords
+     */
+    private void resetResults() {
+        int words = (chains.size() + 63) >>> 6;
+        if (words > failedWords.length) {
+            failedWords = new long[words];
+        } else {
+            Arrays.fill(failedWords, 0L);
+        }
+        evaluated = 0;
+        failedCount = 0;
+        passedCount = 0;
+        ordered = 0;
+    }
+
+    /**
+     * LAZY 模式下需要全部结果时，验证剩余的规则
+     */
+    private void evaluateAllIfLazy() {
+        if (mode == Mode.LAZY && checked) {
+            evaluate(false);
+        }
+    }
+
     /**
      * 此次验证是否通过
+     * LAZY 模式下只验证到第一个不通过的规则
      *
      * @return Boolean
      */
@@ -125,8 +386,10 @@ public class ValidateBuilder {
         if (chains == null || chains.isEmpty()) {
             throw new ParamsCheckException("chains can not be empty, please call methods  'vali' and 'doCheck' first");
         }
-        List<ValidateChain> fields = chains.stream().filter(e -> Boolean.FALSE.equals(e.getResult())).collect(Collectors.toList());
-        return fields.size() <= 0;
+        if (mode == Mode.LAZY && checked && failedCount == 0) {
+            evaluate(true);
+        }
+        return failedCount == 0;
     }
 
     /**
@@ -145,19 +408,32 @@ public class ValidateBuilder {
      * @return ValidateBuilder
      */
     public ValidateBuilder ifNotPassedThrowException(RuntimeException e) {
-        Boolean passed = isPassed();
-        if (e == null) {
-            e = new ParamsInValidException(getFailedMsgs());
+        if (isPassed()) {
+            return this;
         }
-        if (!passed) {
+        if (e != null) {
             throw e;
         }
-        return this;
+        String msgs = getFailedMsgs();
+        throw stackless ? ParamsInValidException.stackless(msgs) : new ParamsInValidException(msgs);
+    }
+
+    /**
+     * 不通过时才调用 supplier 创建异常并抛出
+     *
+     * @return ValidateBuilder
+     */
+    public ValidateBuilder ifNotPassedThrow(Supplier<? extends RuntimeException> supplier) {
+        if (isPassed()) {
+            return this;
+        }
+        throw supplier.get();
     }
 
     /**
      * 获取失败的消息
      * 没有失败消息返回null
+     * FAIL_FAST 模式下只有第一个不通过的规则
      *
      * @return String
      */
@@ -165,11 +441,30 @@ public class ValidateBuilder {
         if (chains == null || chains.isEmpty()) {
             return null;
         }
-        String failedMsgs = chains.stream().filter(e -> Boolean.FALSE.equals(e.getResult()))
-                .map(e ->  e.getMsg() + ":" + e.getValue() + " " + (e.getExpress() == null ? "" : e.getExpress()))
-                .collect(Collectors.joining(","));
+        evaluateAllIfLazy();
+        if (failedCount == 0) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = nextFailed(0); i >= 0; i = nextFailed(i + 1)) {
+            ValidateChain e = chains.get(i);
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            ValidateResult.appendMessage(sb, e.getMsg(), e.getValue(), e.getExpress());
+        }
+        return sb.toString();
+    }
 
-        return "".equals(failedMsgs) ? null : failedMsgs;
+    /**
+     * 结构化的验证结果：不通过的下标、验证方法、错误码，提示信息在需要时才拼接
+     * LAZY 模式下验证剩余的规则；FAIL_FAST 模式下只有第一个不通过的规则
+     *
+     * @return ValidateResult
+     */
+    public ValidateResult getResult() {
+        evaluateAllIfLazy();
+        return ValidateResult.of(chains.size(), failedWords, failedCount, chains);
     }
 
     /**
@@ -179,29 +474,189 @@ public class ValidateBuilder {
         if (chains == null || chains.isEmpty()) {
             return 0;
         }
-        return chains.stream()
-                .filter(e -> Boolean.FALSE.equals(e.getResult()))
-                .collect(Collectors.toList())
-                .size();
+        evaluateAllIfLazy();
+        return failedCount;
+    }
+
+    /**
+     * 获取失败的规则下标，按添加顺序
+     */
+    public int[] getFailedIndexes() {
+        evaluateAllIfLazy();
+        int[] indexes = new int[failedCount];
+        int n = 0;
+        for (int i = nextFailed(0); i >= 0; i = nextFailed(i + 1)) {
+            indexes[n++] = i;
+        }
+        return indexes;
+    }
+
+    /**
+     * from 及之后第一个不通过的规则下标，没有时返回 -1
+     */
+    private int nextFailed(int from) {
+        int u = from >>> 6;
+        if (u >= failedWords.length) {
+            return -1;
+        }
+        long word = failedWords[u] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (u << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++u == failedWords.length) {
+                return -1;
+            }
+            word = failedWords[u];
+        }
     }
 
     /**
      * 获取成功的条数
+     * FAIL_FAST 模式下只统计已经验证并通过的规则
      */
     public int getSuccessCounts() {
+        if (mode == Mode.FAIL_FAST) {
+            return passedCount;
+        }
         return chains.size() - getFailedCounts();
     }
 
     public List<ValidateChain> getChains() {
+        evaluateAllIfLazy();
         return chains;
     }
 
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * 设置验证模式，默认 ALL
+     */
+    public ValidateBuilder mode(Mode mode) {
+        this.mode = Objects.requireNonNull(mode, "mode");
+        return this;
+    }
+
+    /**
+     * 遇到第一个不通过的规则就停止验证
+     */
+    public ValidateBuilder failFast() {
+        return mode(Mode.FAIL_FAST);
+    }
+
+    /**
+     * doCheck 时不验证，获取结果时才验证
+     */
+    public ValidateBuilder lazy() {
+        return mode(Mode.LAZY);
+    }
+
+    /**
+     * 按开销类别验证：CHEAP 的规则先验证，REGEX、IO 的规则后验证，同一类别保持添加顺序
+     * FAIL_FAST、LAZY 模式下遇到不通过的规则时，开销高的规则不再验证；结果中的下标仍然按添加顺序
+     * 请在 doCheck 之前设置
+     */
+    public ValidateBuilder costOrdered() {
+        return costOrdered(true);
+    }
+
+    public ValidateBuilder costOrdered(boolean costOrdered) {
+        this.costOrdered = costOrdered;
+        this.ordered = 0;
+        return this;
+    }
+
+    public boolean isCostOrdered() {
+        return costOrdered;
+    }
+
     public static ValidateBuilder build() {
         return new ValidateBuilder();
     }
 
+    /**
+     * 当前线程复用的 ValidateBuilder，已经 clear 并恢复为 ALL 模式
+     * 规则和结果保存在复用的 ValidateChain 和数组中，使用预编译的方法验证通过时不创建对象
+     * （Email 等使用 java.util.regex 的验证方法除外，每次匹配创建 Matcher）
+     * 同一线程再次调用 local() 时上一次返回的对象被重置，不要跨请求保存它或者它的 getChains()
+     * 参数值和提示信息会一直保留到同一线程下一次调用 local()，线程池中的线程可能长期持有请求数据，
+     * 用完后请在 finally 中调用 release()
+     *
+     * <pre>
+     * ValidateBuilder builder = ValidateBuilder.local();
+     * try {
+     *     builder.vali(Check.NotNull, orderNo).doCheck().ifNotPassedThrowException();
+     * } finally {
+     *     builder.release();
+     * }
+     * </pre>
+     *
+     * @return ValidateBuilder
+     */
+    public static ValidateBuilder local() {
+        ValidateBuilder builder = LOCAL.get();
+        builder.clear();
+        builder.mode = Mode.ALL;
+        builder.costOrdered = false;
+        builder.stackless = stacklessDefault;
+        return builder;
+    }
+
+    /**
+     * ifNotPassedThrowException 默认抛出的 ParamsInValidException 是否不带堆栈
+     * 请求大量被拒绝时，填充堆栈是主要开销；只影响之后新建的 ValidateBuilder，默认false
+     */
+    public static void setStacklessException(boolean stackless) {
+        stacklessDefault = stackless;
+    }
+
+    public static boolean isStacklessException() {
+        return stacklessDefault;
+    }
+
+    /**
+     * 此 ValidateBuilder 默认抛出的异常是否不带堆栈
+     */
+    public ValidateBuilder stackless(boolean stackless) {
+        this.stackless = stackless;
+        return this;
+    }
+
+    /**
+     * 可以复用的 ValidateBuilder，clear 后 ValidateChain 留给下一次 vali 使用
+     * 适合调用方自行池化；非线程安全
+     *
+     * @return ValidateBuilder
+     */
+    public static ValidateBuilder reusable() {
+        return new ValidateBuilder(true);
+    }
+
+    /**
+     * 验证结束后释放对参数值、提示信息和结果的引用，和 clear 相同；之后可以继续使用
+     */
+    public void release() {
+        clear();
+    }
+
     public ValidateBuilder clear() {
+        if (reusable) {
+            // 释放对参数值的引用，ValidateChain 本身留给下一次使用
+            for (int i = 0, size = chains.size(); i < size; i++) {
+                ValidateChain chain = chains.get(i);
+                chain.check = null;
+                chain.value = null;
+                chain.express = null;
+                chain.result = null;
+                chain.msg = null;
+                chain.compiled = null;
+            }
+        }
         chains.clear();
+        checked = false;
+        resetResults();
         return this;
     }
 }
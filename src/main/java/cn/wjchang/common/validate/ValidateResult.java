@@ -0,0 +1,242 @@
+package cn.wjchang.common.validate;
+
+import cn.wjchang.common.validate.check.Check;
+import cn.wjchang.common.validate.check.CheckRegistry;
+import cn.wjchang.common.validate.check.CustomCheck;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 结构化的验证结果
+ * 不通过的规则按位保存，每条不通过的规则保留验证方法、错误码、值和表达式；
+ * 提示信息只在调用 getMessage / getFailedMsgs 时拼接
+ * 不可变，和产生它的 ValidateBuilder 无关，builder 复用或 clear 后仍然有效
+ *
+ * <pre>
+ * ValidateResult result = builder.doCheck().getResult();
+ * for (ValidateResult.Failure failure : result.getFailures()) {
+ *     errors.add(new ApiError(failure.getCode(), failure.getIndex()));
+ * }
+ * </pre>
+ */
+public final class ValidateResult {
+
+    private static final long[] NO_WORDS = new long[0];
+    private static final Failure[] NO_FAILURES = new Failure[0];
+
+    private final int size;
+    private final long[] failedWords;
+
+    /**
+     * 按下标顺序
+     */
+    private final Failure[] failures;
+
+    ValidateResult(int size, long[] failedWords, Failure[] failures) {
+        this.size = size;
+        this.failedWords = failures.length == 0 ? NO_WORDS : failedWords;
+        this.failures = failures.length == 0 ? NO_FAILURES : failures;
+    }
+
+    /**
+     * 全部通过
+     */
+    static ValidateResult passed(int size) {
+        return new ValidateResult(size, NO_WORDS, NO_FAILURES);
+    }
+
+    /**
+     * 根据 words 中的不通过下标创建，words 会被复制
+     */
+    static ValidateResult of(int size, long[] words, int failedCount, List<ValidateBuilder.ValidateChain> chains) {
+        if (failedCount == 0) {
+            return passed(size);
+        }
+        Failure[] failures = new Failure[failedCount];
+        int n = 0;
+        for (int u = 0; u < words.length && n < failedCount; u++) {
+            for (long word = words[u]; word != 0; word &= word - 1) {
+                int index = (u << 6) + Long.numberOfTrailingZeros(word);
+                ValidateBuilder.ValidateChain chain = chains.get(index);
+                failures[n++] = new Failure(index, chain.getCheck(), codeOf(chain), chain.getValue(),
+                        chain.getExpress(), chain.getMsg());
+            }
+        }
+        return new ValidateResult(size, Arrays.copyOf(words, (size + 63) >>> 6), failures);
+    }
+
+    /**
+     * 规则的错误码，Check.Custom 取注册的 CustomCheck 的错误码
+     */
+    private static int codeOf(ValidateBuilder.ValidateChain chain) {
+        if (chain.getCompiled() != null) {
+            return chain.getCompiled().getCode();
+        }
+        if (chain.getCheck() == Check.Custom) {
+            CustomCheck custom = CheckRegistry.lookup(chain.getExpress());
+            if (custom != null) {
+                return custom.getCode();
+            }
+        }
+        return chain.getCheck().code;
+    }
+
+    /**
+     * 是否全部通过
+     */
+    public boolean isPassed() {
+        return failures.length == 0;
+    }
+
+    /**
+     * 规则的条数
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getFailedCount() {
+        return failures.length;
+    }
+
+    /**
+     * 下标对应的规则是否不通过；FAIL_FAST 模式下没有验证的规则返回 false
+     */
+    public boolean isFailed(int index) {
+        int u = index >>> 6;
+        return index >= 0 && u < failedWords.length && (failedWords[u] & (1L << index)) != 0;
+    }
+
+    /**
+     * 不通过的规则下标，按添加顺序
+     */
+    public int[] getFailedIndexes() {
+        int[] indexes = new int[failures.length];
+        for (int i = 0; i < failures.length; i++) {
+            indexes[i] = failures[i].index;
+        }
+        return indexes;
+    }
+
+    /**
+     * 不通过的规则的错误码，和 getFailedIndexes 一一对应
+     */
+    public int[] getFailedCodes() {
+        int[] codes = new int[failures.length];
+        for (int i = 0; i < failures.length; i++) {
+            codes[i] = failures[i].code;
+        }
+        return codes;
+    }
+
+    public BitSet toBitSet() {
+        return BitSet.valueOf(failedWords);
+    }
+
+    public List<Failure> getFailures() {
+        return Collections.unmodifiableList(Arrays.asList(failures));
+    }
+
+    /**
+     * 和 ValidateBuilder.getFailedMsgs 的格式相同，全部通过时返回 null
+     */
+    public String getFailedMsgs() {
+        if (failures.length == 0) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Failure failure : failures) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            failure.appendTo(sb);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 一条不通过的提示信息：msg:value express
+     */
+    static StringBuilder appendMessage(StringBuilder sb, String msg, Object value, String express) {
+        return sb.append(msg).append(':').append(value).append(' ').append(express == null ? "" : express);
+    }
+
+    @Override
+    public String toString() {
+        return "ValidateResult(size=" + size + ", failed=" + Arrays.toString(getFailedIndexes()) + ")";
+    }
+
+    /**
+     * 一条不通过的规则
+     */
+    public static final class Failure {
+
+        private final int index;
+        private final Check check;
+        private final int code;
+        private final Object value;
+        private final String express;
+        private final String msg;
+
+        Failure(int index, Check check, int code, Object value, String express, String msg) {
+            this.index = index;
+            this.check = check;
+            this.code = code;
+            this.value = value;
+            this.express = express;
+            this.msg = msg;
+        }
+
+        /**
+         * 规则的下标，按添加顺序，从0开始
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public Check getCheck() {
+            return check;
+        }
+
+        /**
+         * 错误码 {@link Check#code}，Check.Custom 为 CustomCheck 的错误码
+         */
+        public int getCode() {
+            return code;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public String getExpress() {
+            return express;
+        }
+
+        /**
+         * 提示信息，没有设置时为枚举方法的提示信息
+         */
+        public String getMsg() {
+            return msg;
+        }
+
+        /**
+         * msg:value express，和 getFailedMsgs 中的一项相同
+         */
+        public String getMessage() {
+            return appendTo(new StringBuilder()).toString();
+        }
+
+        StringBuilder appendTo(StringBuilder sb) {
+            return appendMessage(sb, msg, value, express);
+        }
+
+        @Override
+        public String toString() {
+            return index + " " + check + "(" + code + ") " + getMessage();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package cn.wjchang.common.validate;
+
+import cn.wjchang.common.validate.check.Check;
+import cn.wjchang.common.validate.check.CheckCost;
+import cn.wjchang.common.validate.check.CompiledCheck;
+import cn.wjchang.common.validate.check.CustomCheck;
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 预编译的验证计划
+ * 规则（验证方法 + 表达式 + 提示信息）只编译一次，之后对每组参数值重复使用，验证时不再解析表达式
+ * 不可变，线程安全，可以作为静态常量使用
+ *
+ * <pre>
+ * private static final ValidationPlan ORDER = ValidationPlan.builder()
+ *         .rule(Check.NotEmpty, null, "订单号不能为空")
+ *         .rule(Check.IN, "1,100", "数量必须在1到100之间")
+ *         .compile();
+ *
+ * ORDER.check(orderNo, quantity).ifNotPassedThrowException();
+ * </pre>
+ */
+public final class ValidationPlan {
+
+    private final CompiledCheck[] checks;
+    private final String[] msgs;
+
+    /**
+     * test 的验证顺序：按开销类别稳定排序，开销低的规则先验证
+     */
+    private final int[] costOrder;
+
+    private ValidationPlan(List<CompiledCheck> checks, List<String> msgs) {
+        this.checks = checks.toArray(new CompiledCheck[0]);
+        this.msgs = msgs.toArray(new String[0]);
+        this.costOrder = costOrder(this.checks);
+    }
+
+    private static int[] costOrder(CompiledCheck[] checks) {
+        int[] order = new int[checks.length];
+        int n = 0;
+        for (CheckCost cost : CheckCost.values()) {
+            for (int i = 0; i < checks.length; i++) {
+                if (checks[i].getCost() == cost) {
+                    order[n++] = i;
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * 规则的条数
+     */
+    public int size() {
+        return checks.length;
+    }
+
+    /**
+     * 预编译的规则
+     */
+    public List<CompiledCheck> getChecks() {
+        return Collections.unmodifiableList(Arrays.asList(checks));
+    }
+
+    /**
+     * 只判断是否通过，不保存每条规则的结果
+     * 按开销类别验证，CHEAP 的规则先验证，遇到不通过的规则就返回
+     *
+     * @param values 参数值 顺序和规则一一对应
+     * @return true or false
+     */
+    public boolean test(Object... values) {
+        checkSize(values);
+        for (int i : costOrder) {
+            if (!checks[i].test(values[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 验证全部规则，返回已经执行过doCheck的ValidateBuilder
+     *
+     * @param values 参数值 顺序和规则一一对应
+     * @return ValidateBuilder
+     */
+    public ValidateBuilder check(Object... values) {
+        checkSize(values);
+        ValidateBuilder builder = ValidateBuilder.build();
+        for (int i = 0; i < checks.length; i++) {
+            builder.vali(checks[i], values[i], msgs[i]);
+        }
+        return builder.doCheck();
+    }
+
+    /**
+     * 验证全部规则，返回结构化的结果，不创建 ValidateBuilder；全部通过时不创建提示信息和下标数组
+     *
+     * @param values 参数值 顺序和规则一一对应
+     * @return ValidateResult
+     */
+    public ValidateResult result(Object... values) {
+        checkSize(values);
+        long[] words = null;
+        int failed = 0;
+        for (int i = 0; i < checks.length; i++) {
+            if (!checks[i].test(values[i])) {
+                if (words == null) {
+                    words = new long[(checks.length + 63) >>> 6];
+                }
+                words[i >>> 6] |= 1L << i;
+                failed++;
+            }
+        }
+        if (failed == 0) {
+            return ValidateResult.passed(checks.length);
+        }
+        ValidateResult.Failure[] failures = new ValidateResult.Failure[failed];
+        int n = 0;
+        for (int i = 0; i < checks.length && n < failed; i++) {
+            if ((words[i >>> 6] & (1L << i)) != 0) {
+                CompiledCheck check = checks[i];
+                String msg = msgs[i] == null || msgs[i].isEmpty() ? check.getMsg() : msgs[i];
+                failures[n++] = new ValidateResult.Failure(i, check.getCheck(), check.getCode(), values[i],
+                        check.getExpress(), msg);
+            }
+        }
+        return new ValidateResult(checks.length, words, failures);
+    }
+
+    private void checkSize(Object[] values) {
+        if (values == null || values.length != checks.length) {
+            throw new ParamsCheckException("values size must be " + checks.length
+                    + ", but was " + (values == null ? 0 : values.length));
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 验证计划的构造类，非线程安全
+     */
+    public static final class Builder {
+
+        private final List<CompiledCheck> checks = new ArrayList<>();
+        private final List<String> msgs = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * @param check   验证的枚举方法
+         * @param express 表达式 非必填 和枚举方法相关
+         * @param msg     提示信息 没有默认取枚举方法的提示信息
+         * @return Builder
+         */
+        public Builder rule(Check check, String express, String msg) {
+            Objects.requireNonNull(check, "check");
+            checks.add(check.compile(express));
+            msgs.add(msg);
+            return this;
+        }
+
+        public Builder rule(Check check, String express) {
+            return rule(check, express, null);
+        }
+
+        public Builder rule(Check check) {
+            return rule(check, null, null);
+        }
+
+        /**
+         * @param check   自定义验证方法，不要求已经注册
+         * @param express 传给自定义验证方法的表达式 非必填
+         * @param msg     提示信息 没有默认取 CustomCheck 的提示信息
+         * @return Builder
+         */
+        public Builder rule(CustomCheck check, String express, String msg) {
+            Objects.requireNonNull(check, "check");
+            checks.add(check.compile(express));
+            msgs.add(msg);
+            return this;
+        }
+
+        public Builder rule(CustomCheck check, String express) {
+            return rule(check, express, null);
+        }
+
+        public ValidationPlan compile() {
+            if (checks.isEmpty()) {
+                throw new ParamsCheckException("rules can not be empty, please call method 'rule' first");
+            }
+            return new ValidationPlan(checks, msgs);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package cn.wjchang.common.validate.annotation;
+
+import cn.wjchang.common.validate.check.Check;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 字段或 getter 上的验证规则，和 ValidateBuilder.vali(check, value, express, msg) 一一对应
+ * 同一个字段可以重复标注，按标注的顺序验证
+ *
+ * <pre>
+ * public class Order {
+ *     &#64;Vali(value = Check.NotEmpty, msg = "订单号不能为空")
+ *     private String orderNo;
+ *
+ *     &#64;Vali(value = Check.IN, express = "1,100", msg = "数量必须在1到100之间")
+ *     private Integer quantity;
+ * }
+ *
+ * BeanValidator.validate(order).ifNotPassedThrowException();
+ * </pre>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Repeatable(Vali.List.class)
+public @interface Vali {
+
+    /**
+     * 验证的枚举方法
+     */
+    Check value();
+
+    /**
+     * 表达式 非必填 和枚举方法相关
+     */
+    String express() default "";
+
+    /**
+     * 提示信息 没有默认取枚举方法的提示信息
+     */
+    String msg() default "";
+
+    /**
+     * 同一个字段上的多个规则
+     */
+    @Documented
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.FIELD, ElementType.METHOD})
+    @interface List {
+        Vali[] value();
+    }
+}
@@ -0,0 +1,750 @@
+package cn.wjchang.common.validate.check;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 由一个或多个正则（java.util.regex 语法中正则语言的子集）构造的 DFA 状态转移表
+ * 多个正则合并为一个 DFA，一次扫描得到全部匹配的正则，结果按位表示，第 i 位对应第 i 个正则
+ * 只按 char 匹配，输入包含代理字符时由调用方回退到 java.util.regex
+ */
+final class Automaton {
+
+    /**
+     * 展开量词后的 NFA 状态数上限
+     */
+    static final int MAX_NFA_STATES = 4096;
+
+    /**
+     * 合并的正则最多个数，受结果位数限制
+     */
+    static final int MAX_PATTERNS = 31;
+
+    /**
+     * 输入包含代理字符，run 的结果不可用
+     */
+    static final int SURROGATE = -1;
+
+    /**
+     * 死状态，没有出边，所有转移都回到自身
+     */
+    private static final int DEAD = 0;
+
+    /**
+     * 字符类（输入字母表划分）的个数
+     */
+    private final int classes;
+
+    /**
+     * ASCII 字符对应的字符类
+     */
+    private final int[] ascii;
+
+    /**
+     * 每个字符类的第一个字符，升序，bounds[0] == 0
+     */
+    private final int[] bounds;
+
+    /**
+     * state * classes + class -> state
+     */
+    private final int[] table;
+
+    /**
+     * 每个状态匹配的正则，按位表示
+     */
+    private final int[] accept;
+    private final int start;
+
+    private Automaton(int[] bounds, int[] table, int[] accept, int start) {
+        this.classes = bounds.length;
+        this.bounds = bounds;
+        this.table = table;
+        this.accept = accept;
+        this.start = start;
+        this.ascii = new int[128];
+        for (int c = 0; c < 128; c++) {
+            ascii[c] = search(c);
+        }
+    }
+
+    /**
+     * 构造 DFA，正则包含不支持的构造或者状态数超过 maxStates 时返回 null
+     * 正则的语法需要先用 Pattern.compile 检查
+     */
+    static Automaton compile(String[] regexes, int maxStates) {
+        if (regexes.length == 0 || regexes.length > MAX_PATTERNS) {
+            throw new IllegalArgumentException("1 to " + MAX_PATTERNS + " patterns expected, but was " + regexes.length);
+        }
+        try {
+            Nfa nfa = new Nfa();
+            int start = -1;
+            for (int i = regexes.length - 1; i >= 0; i--) {
+                int s = nfa.build(new Parser(regexes[i]).parse(), nfa.match(i));
+                start = start < 0 ? s : nfa.add(null, s, start);
+            }
+            nfa.start = start;
+            return nfa.toDfa(maxStates);
+        } catch (Unsupported e) {
+            return null;
+        }
+    }
+
+    /**
+     * 扫描整个输入，返回匹配整个输入的正则（按位），输入包含代理字符时返回 SURROGATE
+     */
+    int run(CharSequence input) {
+        int state = start;
+        for (int i = 0, n = input.length(); i < n; i++) {
+            char c = input.charAt(i);
+            if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                return SURROGATE;
+            }
+            state = table[state * classes + (c < 128 ? ascii[c] : search(c))];
+            if (state == DEAD) {
+                return 0;
+            }
+        }
+        return accept[state];
+    }
+
+    /**
+     * DFA 状态数，包括死状态
+     */
+    int stateCount() {
+        return accept.length;
+    }
+
+    private int search(int c) {
+        int lo = 0;
+        int hi = bounds.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (bounds[mid] <= c) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * 正则包含不支持的构造，或者状态数超过上限
+     */
+    private static final class Unsupported extends RuntimeException {
+
+        private static final Unsupported INSTANCE = new Unsupported();
+
+        private Unsupported() {
+            super("unsupported", null, false, false);
+        }
+    }
+
+    /**
+     * 字符集合，按 [lo0, hi0, lo1, hi1, ...] 保存的有序不相交闭区间
+     */
+    private static final class Ranges {
+
+        static final int[] DIGIT = {'0', '9'};
+        static final int[] WORD = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+        static final int[] SPACE = {'\t', '\r', ' ', ' '};
+        static final int[] DOT = negate(new int[]{'\n', '\n', '\r', '\r', 0x85, 0x85, 0x2028, 0x2029});
+
+        private Ranges() {
+        }
+
+        static int[] of(int c) {
+            return new int[]{c, c};
+        }
+
+        static int[] union(int[] a, int[] b) {
+            int[] all = Arrays.copyOf(a, a.length + b.length);
+            System.arraycopy(b, 0, all, a.length, b.length);
+            return normalize(all);
+        }
+
+        static int[] normalize(int[] ranges) {
+            int n = ranges.length / 2;
+            long[] pairs = new long[n];
+            for (int i = 0; i < n; i++) {
+                pairs[i] = ((long) ranges[2 * i] << 32) | ranges[2 * i + 1];
+            }
+            Arrays.sort(pairs);
+            int[] out = new int[ranges.length];
+            int size = 0;
+            for (long pair : pairs) {
+                int lo = (int) (pair >>> 32);
+                int hi = (int) pair;
+                if (size > 0 && lo <= out[size - 1] + 1) {
+                    out[size - 1] = Math.max(out[size - 1], hi);
+                } else {
+                    out[size++] = lo;
+                    out[size++] = hi;
+                }
+            }
+            return Arrays.copyOf(out, size);
+        }
+
+        static int[] negate(int[] ranges) {
+            int[] out = new int[ranges.length + 2];
+            int size = 0;
+            int next = 0;
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (ranges[i] > next) {
+                    out[size++] = next;
+                    out[size++] = ranges[i] - 1;
+                }
+                next = ranges[i + 1] + 1;
+            }
+            if (next <= Character.MAX_VALUE) {
+                out[size++] = next;
+                out[size++] = Character.MAX_VALUE;
+            }
+            return Arrays.copyOf(out, size);
+        }
+
+        static boolean contains(int[] ranges, int c) {
+            for (int i = 0; i < ranges.length && ranges[i] <= c; i += 2) {
+                if (c <= ranges[i + 1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 语法树节点
+     */
+    private static final class Node {
+
+        static final int SET = 0;
+        static final int CONCAT = 1;
+        static final int ALT = 2;
+        static final int REPEAT = 3;
+
+        final int kind;
+        final int[] ranges;
+        final List<Node> children;
+        final int min;
+
+        /**
+         * -1 表示不限
+         */
+        final int max;
+
+        private Node(int kind, int[] ranges, List<Node> children, int min, int max) {
+            this.kind = kind;
+            this.ranges = ranges;
+            this.children = children;
+            this.min = min;
+            this.max = max;
+        }
+
+        static Node set(int[] ranges) {
+            return new Node(SET, ranges, null, 0, 0);
+        }
+
+        static Node concat(List<Node> children) {
+            return children.size() == 1 ? children.get(0) : new Node(CONCAT, null, children, 0, 0);
+        }
+
+        static Node alt(List<Node> children) {
+            return children.size() == 1 ? children.get(0) : new Node(ALT, null, children, 0, 0);
+        }
+
+        static Node repeat(Node child, int min, int max) {
+            List<Node> children = new ArrayList<>(1);
+            children.add(child);
+            return new Node(REPEAT, null, children, min, max);
+        }
+    }
+
+    /**
+     * 解析 java.util.regex 语法的子集，调用方需要先用 Pattern.compile 检查语法，遇到不支持或有歧义的写法时放弃
+     */
+    private static final class Parser {
+
+        private final String regex;
+        private int pos;
+        private final int end;
+
+        Parser(String regex) {
+            int from = 0;
+            int to = regex.length();
+            if (to > 0 && regex.charAt(0) == '^') {
+                from = 1;
+            }
+            // 结尾的 $ 前面有偶数个反斜杠时是锚点
+            if (to > from && regex.charAt(to - 1) == '$') {
+                int slashes = 0;
+                for (int i = to - 2; i >= from && regex.charAt(i) == '\\'; i--) {
+                    slashes++;
+                }
+                if ((slashes & 1) == 0) {
+                    to--;
+                }
+            }
+            this.regex = regex;
+            this.pos = from;
+            this.end = to;
+        }
+
+        Node parse() {
+            Node node = alternation();
+            if (pos != end) {
+                throw Unsupported.INSTANCE;
+            }
+            return node;
+        }
+
+        private Node alternation() {
+            List<Node> branches = new ArrayList<>();
+            branches.add(concatenation());
+            while (pos < end && regex.charAt(pos) == '|') {
+                pos++;
+                branches.add(concatenation());
+            }
+            return Node.alt(branches);
+        }
+
+        private Node concatenation() {
+            List<Node> items = new ArrayList<>();
+            while (pos < end && regex.charAt(pos) != '|' && regex.charAt(pos) != ')') {
+                items.add(repetition());
+            }
+            return Node.concat(items);
+        }
+
+        private Node repetition() {
+            Node atom = atom();
+            if (pos >= end) {
+                return atom;
+            }
+            int min;
+            int max;
+            char c = regex.charAt(pos);
+            if (c == '*') {
+                min = 0;
+                max = -1;
+                pos++;
+            } else if (c == '+') {
+                min = 1;
+                max = -1;
+                pos++;
+            } else if (c == '?') {
+                min = 0;
+                max = 1;
+                pos++;
+            } else if (c == '{') {
+                pos++;
+                min = number();
+                max = min;
+                if (pos < end && regex.charAt(pos) == ',') {
+                    pos++;
+                    max = pos < end && regex.charAt(pos) == '}' ? -1 : number();
+                }
+                if (pos >= end || regex.charAt(pos) != '}' || (max != -1 && max < min)) {
+                    throw Unsupported.INSTANCE;
+                }
+                pos++;
+            } else {
+                return atom;
+            }
+            if (pos < end && regex.charAt(pos) == '?') {
+                // 非贪婪只影响匹配的位置，不影响整个输入是否匹配
+                pos++;
+            }
+            if (pos < end && "*+?{".indexOf(regex.charAt(pos)) >= 0) {
+                // 占有量词会改变匹配结果，连续量词的含义不直观，都不支持
+                throw Unsupported.INSTANCE;
+            }
+            return Node.repeat(atom, min, max);
+        }
+
+        private int number() {
+            int from = pos;
+            int value = 0;
+            while (pos < end && regex.charAt(pos) >= '0' && regex.charAt(pos) <= '9') {
+                value = value * 10 + (regex.charAt(pos++) - '0');
+                if (value > MAX_NFA_STATES) {
+                    throw Unsupported.INSTANCE;
+                }
+            }
+            if (pos == from) {
+                throw Unsupported.INSTANCE;
+            }
+            return value;
+        }
+
+        private Node atom() {
+            char c = regex.charAt(pos++);
+            switch (c) {
+                case '(':
+                    if (pos < end && regex.charAt(pos) == '?') {
+                        group();
+                    }
+                    Node node = alternation();
+                    if (pos >= end || regex.charAt(pos) != ')') {
+                        throw Unsupported.INSTANCE;
+                    }
+                    pos++;
+                    return node;
+                case '[':
+                    return Node.set(charClass());
+                case '.':
+                    return Node.set(Ranges.DOT);
+                case '\\':
+                    return Node.set(escape());
+                case '^':
+                case '$':
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    throw Unsupported.INSTANCE;
+                default:
+                    return Node.set(Ranges.of(literal(c)));
+            }
+        }
+
+        /**
+         * (?: 和 (?&lt;name&gt; 只是分组，其它 (? 构造都不支持
+         */
+        private void group() {
+            pos++;
+            if (pos < end && regex.charAt(pos) == ':') {
+                pos++;
+                return;
+            }
+            if (pos + 1 < end && regex.charAt(pos) == '<' && Character.isLetter(regex.charAt(pos + 1))) {
+                int close = regex.indexOf('>', pos);
+                if (close > 0 && close < end) {
+                    pos = close + 1;
+                    return;
+                }
+            }
+            throw Unsupported.INSTANCE;
+        }
+
+        private int[] charClass() {
+            boolean negate = false;
+            if (pos < end && regex.charAt(pos) == '^') {
+                negate = true;
+                pos++;
+            }
+            if (pos < end && regex.charAt(pos) == ']') {
+                throw Unsupported.INSTANCE;
+            }
+            int[] ranges = new int[0];
+            boolean first = true;
+            while (true) {
+                if (pos >= end) {
+                    throw Unsupported.INSTANCE;
+                }
+                char c = regex.charAt(pos++);
+                if (c == ']') {
+                    break;
+                }
+                if (c == '[' || (c == '&' && pos < end && regex.charAt(pos) == '&')) {
+                    throw Unsupported.INSTANCE;
+                }
+                if (c == '-' && !first && (pos >= end || regex.charAt(pos) != ']')) {
+                    throw Unsupported.INSTANCE;
+                }
+                first = false;
+                int[] item = c == '\\' ? escape() : Ranges.of(literal(c));
+                if (item.length == 2 && item[0] == item[1]
+                        && pos + 1 < end && regex.charAt(pos) == '-' && regex.charAt(pos + 1) != ']') {
+                    pos++;
+                    char h = regex.charAt(pos++);
+                    if (h == '[') {
+                        throw Unsupported.INSTANCE;
+                    }
+                    int[] high = h == '\\' ? escape() : Ranges.of(literal(h));
+                    if (high.length != 2 || high[0] != high[1] || high[0] < item[0]) {
+                        throw Unsupported.INSTANCE;
+                    }
+                    item = new int[]{item[0], high[0]};
+                }
+                ranges = Ranges.union(ranges, item);
+            }
+            return negate ? Ranges.negate(ranges) : ranges;
+        }
+
+        /**
+         * 反斜杠之后的部分，返回字符集合
+         */
+        private int[] escape() {
+            if (pos >= end) {
+                throw Unsupported.INSTANCE;
+            }
+            char c = regex.charAt(pos++);
+            switch (c) {
+                case 'd':
+                    return Ranges.DIGIT;
+                case 'D':
+                    return Ranges.negate(Ranges.DIGIT);
+                case 'w':
+                    return Ranges.WORD;
+                case 'W':
+                    return Ranges.negate(Ranges.WORD);
+                case 's':
+                    return Ranges.SPACE;
+                case 'S':
+                    return Ranges.negate(Ranges.SPACE);
+                case 't':
+                    return Ranges.of('\t');
+                case 'n':
+                    return Ranges.of('\n');
+                case 'r':
+                    return Ranges.of('\r');
+                case 'f':
+                    return Ranges.of('\f');
+                case 'x':
+                    return Ranges.of(literal((char) hex(2)));
+                case 'u':
+                    return Ranges.of(literal((char) hex(4)));
+                default:
+                    if (c < 128 && Character.isLetterOrDigit(c)) {
+                        // 其它字母、数字的转义有特殊含义（\b、\p、反向引用等）
+                        throw Unsupported.INSTANCE;
+                    }
+                    return Ranges.of(literal(c));
+            }
+        }
+
+        private int hex(int digits) {
+            if (pos + digits > end) {
+                throw Unsupported.INSTANCE;
+            }
+            int value = 0;
+            for (int i = 0; i < digits; i++) {
+                int d = Character.digit(regex.charAt(pos++), 16);
+                if (d < 0) {
+                    throw Unsupported.INSTANCE;
+                }
+                value = value * 16 + d;
+            }
+            return value;
+        }
+
+        private static char literal(char c) {
+            if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                throw Unsupported.INSTANCE;
+            }
+            return c;
+        }
+    }
+
+    /**
+     * Thompson NFA：每个状态或者读一个字符集合，或者是最多两条出边的空转移；
+     * 第 i 个正则的匹配状态是没有字符集合、out 为 -2 - i 的状态
+     */
+    private static final class Nfa {
+
+        /**
+         * 状态读取的字符集合，null 表示空转移或匹配状态
+         */
+        final List<int[]> sets = new ArrayList<>();
+        int[] out = new int[64];
+        int[] out2 = new int[64];
+        int start;
+
+        int match(int index) {
+            return add(null, -2 - index, -1);
+        }
+
+        private int add(int[] set, int next, int next2) {
+            int id = sets.size();
+            if (id >= MAX_NFA_STATES) {
+                throw Unsupported.INSTANCE;
+            }
+            if (id == out.length) {
+                out = Arrays.copyOf(out, id * 2);
+                out2 = Arrays.copyOf(out2, id * 2);
+            }
+            sets.add(set);
+            out[id] = next;
+            out2[id] = next2;
+            return id;
+        }
+
+        /**
+         * 从后向前构造，返回匹配 node 之后转到 next 的起始状态
+         */
+        int build(Node node, int next) {
+            switch (node.kind) {
+                case Node.SET:
+                    return add(node.ranges, next, -1);
+                case Node.CONCAT:
+                    for (int i = node.children.size() - 1; i >= 0; i--) {
+                        next = build(node.children.get(i), next);
+                    }
+                    return next;
+                case Node.ALT:
+                    int s = build(node.children.get(node.children.size() - 1), next);
+                    for (int i = node.children.size() - 2; i >= 0; i--) {
+                        s = add(null, build(node.children.get(i), next), s);
+                    }
+                    return s;
+                default:
+                    Node child = node.children.get(0);
+                    int tail = next;
+                    if (node.max == -1) {
+                        int loop = add(null, -1, next);
+                        // build 可能扩容 out，先计算再赋值
+                        int body = build(child, loop);
+                        out[loop] = body;
+                        tail = loop;
+                    } else {
+                        for (int i = node.min; i < node.max; i++) {
+                            tail = add(null, build(child, tail), next);
+                        }
+                    }
+                    for (int i = 0; i < node.min; i++) {
+                        tail = build(child, tail);
+                    }
+                    return tail;
+            }
+        }
+
+        /**
+         * 子集构造
+         */
+        Automaton toDfa(int maxStates) {
+            TreeSet<Integer> points = new TreeSet<>();
+            points.add(0);
+            for (int[] set : sets) {
+                if (set != null) {
+                    for (int i = 0; i < set.length; i += 2) {
+                        points.add(set[i]);
+                        if (set[i + 1] < Character.MAX_VALUE) {
+                            points.add(set[i + 1] + 1);
+                        }
+                    }
+                }
+            }
+            int[] bounds = new int[points.size()];
+            int k = 0;
+            for (int point : points) {
+                bounds[k++] = point;
+            }
+
+            int[] mark = new int[sets.size()];
+            // 种子最多 n 个，每个空转移状态最多压入两次
+            int[] stack = new int[sets.size() * 3];
+            Map<Key, Integer> ids = new HashMap<>();
+            List<int[]> states = new ArrayList<>();
+            List<Integer> accepts = new ArrayList<>();
+            int[] dead = new int[0];
+            ids.put(new Key(dead, 0), DEAD);
+            states.add(dead);
+            accepts.add(0);
+
+            int[] seeds = {start};
+            Key first = closure(seeds, 1, mark, 1, stack);
+            ids.put(first, 1);
+            states.add(first.states);
+            accepts.add(first.accept);
+
+            int[] table = new int[16 * k];
+            int[] targets = new int[sets.size()];
+            int generation = 1;
+            for (int d = 1; d < states.size(); d++) {
+                if ((d + 1) * k > table.length) {
+                    table = Arrays.copyOf(table, Math.max(table.length * 2, (d + 1) * k));
+                }
+                int[] current = states.get(d);
+                for (int c = 0; c < k; c++) {
+                    int n = 0;
+                    for (int s : current) {
+                        if (Ranges.contains(sets.get(s), bounds[c])) {
+                            targets[n++] = out[s];
+                        }
+                    }
+                    Key key = closure(targets, n, mark, ++generation, stack);
+                    Integer id = ids.get(key);
+                    if (id == null) {
+                        id = states.size();
+                        if (id >= maxStates) {
+                            throw Unsupported.INSTANCE;
+                        }
+                        ids.put(key, id);
+                        states.add(key.states);
+                        accepts.add(key.accept);
+                    }
+                    table[d * k + c] = id;
+                }
+            }
+            int[] accept = new int[states.size()];
+            for (int i = 0; i < accept.length; i++) {
+                accept[i] = accepts.get(i);
+            }
+            return new Automaton(bounds, Arrays.copyOf(table, states.size() * k), accept, 1);
+        }
+
+        /**
+         * 空转移闭包，只保留读字符的状态，排序后和匹配的正则一起作为 DFA 状态的 key
+         */
+        private Key closure(int[] seeds, int count, int[] mark, int generation, int[] stack) {
+            int[] result = new int[sets.size()];
+            int size = 0;
+            int accept = 0;
+            int top = 0;
+            for (int i = 0; i < count; i++) {
+                stack[top++] = seeds[i];
+            }
+            while (top > 0) {
+                int s = stack[--top];
+                if (s < 0 || mark[s] == generation) {
+                    continue;
+                }
+                mark[s] = generation;
+                if (sets.get(s) != null) {
+                    result[size++] = s;
+                } else if (out[s] <= -2) {
+                    accept |= 1 << (-2 - out[s]);
+                } else {
+                    stack[top++] = out[s];
+                    stack[top++] = out2[s];
+                }
+            }
+            int[] states = Arrays.copyOf(result, size);
+            Arrays.sort(states);
+            return new Key(states, accept);
+        }
+    }
+
+    private static final class Key {
+
+        final int[] states;
+        final int accept;
+        private final int hash;
+
+        Key(int[] states, int accept) {
+            this.states = states;
+            this.accept = accept;
+            this.hash = Arrays.hashCode(states) * 31 + accept;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return accept == key.accept && Arrays.equals(states, key.states);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
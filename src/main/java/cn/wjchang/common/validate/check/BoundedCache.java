@@ -0,0 +1,214 @@
+package cn.wjchang.common.validate.check;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 有界的并发缓存
+ * 读操作无锁；超过容量时淘汰最近最少访问的条目（近似LRU，访问时间按插入次数计），
+ * 一次淘汰到容量的 15/16，平摊每次插入的扫描开销；可以设置写入后的过期时间
+ * 加载失败（抛出异常）时不缓存，异常原样抛出
+ */
+final class BoundedCache<K, V> {
+
+    private final ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+
+    /**
+     * 逻辑时钟，只在插入时递增，访问时只读取，避免读路径上的竞争
+     */
+    private final AtomicLong clock = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * 估计淘汰阈值时的样本数，条目数不超过它时是精确的 LRU
+     */
+    private static final int SAMPLE_SIZE = 256;
+
+    /**
+     * 同一时间只有一个线程淘汰，其它线程直接返回
+     */
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    /**
+     * 写入后的有效时间（纳秒），0 表示不过期
+     */
+    private final long expireAfterWriteNanos;
+
+    private volatile int maximumSize;
+
+    BoundedCache(int maximumSize) {
+        this(maximumSize, 0);
+    }
+
+    BoundedCache(int maximumSize, long expireAfterWriteNanos) {
+        if (expireAfterWriteNanos < 0) {
+            throw new IllegalArgumentException("expireAfterWriteNanos can not be negative: " + expireAfterWriteNanos);
+        }
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        setMaximumSize(maximumSize);
+    }
+
+    /**
+     * 保存 key，淘汰时遍历 values()，不创建 Map.Entry
+     */
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final long expires;
+        volatile long access;
+
+        Node(K key, V value, long access, long expires) {
+            this.key = key;
+            this.value = value;
+            this.access = access;
+            this.expires = expires;
+        }
+    }
+
+    V get(K key, Function<? super K, ? extends V> loader) {
+        Node<K, V> node = map.get(key);
+        if (node != null && !expired(node)) {
+            hit(node);
+            return node.value;
+        }
+        misses.increment();
+        if (node != null) {
+            map.remove(key, node);
+        }
+        node = map.computeIfAbsent(key, k -> newNode(k, loader.apply(k)));
+        if (map.size() > maximumSize) {
+            evict();
+        }
+        return node.value;
+    }
+
+    /**
+     * 查找，不加载；没有或者已经过期时返回 null 并计为未命中
+     */
+    V getIfPresent(K key) {
+        Node<K, V> node = map.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        if (expired(node)) {
+            misses.increment();
+            map.remove(key, node);
+            return null;
+        }
+        hit(node);
+        return node.value;
+    }
+
+    /**
+     * 写入，已有的值被替换
+     */
+    void put(K key, V value) {
+        map.put(key, newNode(key, value));
+        if (map.size() > maximumSize) {
+            evict();
+        }
+    }
+
+    private void hit(Node<K, V> node) {
+        hits.increment();
+        long now = clock.get();
+        if (node.access != now) {
+            node.access = now;
+        }
+    }
+
+    private Node<K, V> newNode(K key, V value) {
+        long expires = expireAfterWriteNanos == 0 ? 0 : System.nanoTime() + expireAfterWriteNanos;
+        return new Node<>(key, value, clock.incrementAndGet(), expires);
+    }
+
+    private boolean expired(Node<K, V> node) {
+        return node.expires != 0 && System.nanoTime() - node.expires > 0;
+    }
+
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int max = maximumSize;
+            int target = max - (max >>> 4);
+            while (map.size() > max) {
+                int excess = map.size() - target;
+                long threshold = threshold(excess);
+                int removed = 0;
+                for (Node<K, V> node : map.values()) {
+                    if ((node.access <= threshold || expired(node)) && map.remove(node.key, node)) {
+                        if (++removed == excess) {
+                            break;
+                        }
+                    }
+                }
+                if (removed == 0) {
+                    // 计算阈值之后条目都被访问过，按遍历顺序淘汰，保证不超过容量
+                    for (K key : map.keySet()) {
+                        if (map.remove(key) != null && ++removed == excess) {
+                            break;
+                        }
+                    }
+                }
+                evictions.add(removed);
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * 估计第 count 小的访问时间：取遍历顺序（和访问时间无关）的前 SAMPLE_SIZE 个条目，按比例换算
+     */
+    private long threshold(int count) {
+        int size = map.size();
+        long[] sample = new long[Math.max(1, Math.min(size, SAMPLE_SIZE))];
+        int n = 0;
+        for (Node<K, V> node : map.values()) {
+            if (n == sample.length) {
+                break;
+            }
+            sample[n++] = node.access;
+        }
+        if (n == 0) {
+            return Long.MIN_VALUE;
+        }
+        Arrays.sort(sample, 0, n);
+        long index = ((long) count * n + size - 1) / Math.max(size, 1) - 1;
+        return sample[(int) Math.max(0, Math.min(n - 1, index))];
+    }
+
+    void setMaximumSize(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        evict();
+    }
+
+    int getMaximumSize() {
+        return maximumSize;
+    }
+
+    long getExpireAfterWriteNanos() {
+        return expireAfterWriteNanos;
+    }
+
+    void clear() {
+        map.clear();
+    }
+
+    CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), map.size(), maximumSize);
+    }
+}
@@ -0,0 +1,70 @@
+package cn.wjchang.common.validate.check;
+
+/**
+ * 缓存统计信息快照
+ */
+public final class CacheStats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int size;
+    private final int maximumSize;
+
+    public CacheStats(long hitCount, long missCount, long evictionCount, int size, int maximumSize) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * 命中次数
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * 未命中次数
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * 淘汰次数
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * 当前条数
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * 最大条数
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * 命中率，没有请求时返回1
+     */
+    public double hitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 1.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount=" + evictionCount
+                + ", size=" + size + ", maximumSize=" + maximumSize + "}";
+    }
+}
@@ -3,60 +3,74 @@ package cn.wjchang.common.validate.check;
 
 import java.util.function.BiFunction;
 
+import static cn.wjchang.common.validate.check.PrimitiveChecks.format;
+import static cn.wjchang.common.validate.check.PrimitiveChecks.numeric;
+
 /**
  * 验证方法 枚举
  */
 public enum Check {
 
-    Null("参数必须为空", CheckUtil::isNull),
-    NotNull("参数必须不为空", CheckUtil::isNotNull),
-    Empty("参数的必须为空", CheckUtil::isEmpty),
-    NotEmpty("参数必须非空", CheckUtil::isNotEmpty),
-
-    True("参数必须为 true", CheckUtil::isTrue),
-    False("参数必须为 false", CheckUtil::isFalse),
-
-    Date("参数必须是一个日期 yyyy-MM-dd", CheckUtil::isDate),
-    DateTime("参数必须是一个日期时间 yyyy-MM-dd HH:mm:ss", CheckUtil::isDateTime),
-    TimeMillSeconds("参数必须是一个时间毫秒值", CheckUtil::isTimeMillSeconds),
-    Past("参数必须是一个过去的日期", CheckUtil::isPast),
-    Future("参数必须是一个将来的日期", CheckUtil::isFuture),
-    Today("参数必须今天的日期", CheckUtil::isToday),
-
-    Number("参数必须是数字类型", CheckUtil::isNumber),
-    Chinese("参数必须是汉字", CheckUtil::isChinese),
-    General("参数必须是英文字母 、数字和下划线", CheckUtil::isGeneral),
-    GeneralWithChinese("参数必须是中文字、英文字母、数字和下划线", CheckUtil::isGeneralWithChinese),
-
-    IN("参数必须在合适的范围内", CheckUtil::inRange),
-    NotIn("参数必须不在指定的范围内", CheckUtil::outRange),
-    Length("参数长度必须在指定范围内", CheckUtil::inLength),
-    Enum("参数必须在枚举中", CheckUtil::inEnum),
-
-    GT("参数必须大于指定值", CheckUtil::isGreaterThan),
-    LT("参数必须小于指定值", CheckUtil::isLessThan),
-    GTE("参数必须大于等于指定值", CheckUtil::isGreaterThanEqual),
-    LTE("参数必须小于等于指定值", CheckUtil::isLessThanEqual),
-    NEQ("参数必须不等于指定值", CheckUtil::isNotEqual),
-    EQ("参数必须等于指定值", CheckUtil::isEqual),
-
-    Pattern("参数必须符合指定的正则表达式", CheckUtil::isPattern),
-    Currency("参数必须是货币", CheckUtil::isCurrency),
-    CreditCode("参数必须是社会统一信用代码", CheckUtil::isCreditCode),
-    CitizenId("参数必须是身份证号", CheckUtil::isCitizenId),
-    Email("参数必须是Email地址", CheckUtil::isEmail),
-    Mobile("参数必须是手机号", CheckUtil::isMobilePhone),
-    Url("参数必须是一个完整的url", CheckUtil::isUrl),
-    ISBN("参数必须是一个书籍ISBN编号", CheckUtil::isISBN),
-    BankNumber("参数必须是一个银行卡号", CheckUtil::isBankNumber),
-    ChinesePostCode("参数必须是中国邮编", CheckUtil::isChinesePostCode),
-    PlateNumber("参数必须是中国车牌号", CheckUtil::isPlateNumber),
-    UUID("参数必须是UUID", CheckUtil::isUUID),
-    Ipv4("参数必须是ipv4", CheckUtil::isIpv4),
-    Ipv6("参数必须是ipv6", CheckUtil::isIpv6),
-    Mac("参数必须是mac地址", CheckUtil::isMac);
+    Null(1001, "参数必须为空", CheckUtil::isNull),
+    NotNull(1002, "参数必须不为空", CheckUtil::isNotNull),
+    Empty(1003, "参数的必须为空", CheckUtil::isEmpty),
+    NotEmpty(1004, "参数必须非空", CheckUtil::isNotEmpty),
+
+    True(1101, "参数必须为 true", CheckUtil::isTrue),
+    False(1102, "参数必须为 false", CheckUtil::isFalse),
+
+    Date(1201, "参数必须是一个日期 yyyy-MM-dd", CheckUtil::isDate),
+    DateTime(1202, "参数必须是一个日期时间 yyyy-MM-dd HH:mm:ss", CheckUtil::isDateTime),
+    TimeMillSeconds(1203, "参数必须是一个时间毫秒值", CheckUtil::isTimeMillSeconds),
+    Past(1204, "参数必须是一个过去的日期", CheckUtil::isPast),
+    Future(1205, "参数必须是一个将来的日期", CheckUtil::isFuture),
+    Today(1206, "参数必须今天的日期", CheckUtil::isToday),
+
+    Number(1301, "参数必须是数字类型", CheckUtil::isNumber),
+    Chinese(1302, "参数必须是汉字", CheckUtil::isChinese),
+    General(1303, "参数必须是英文字母 、数字和下划线", CheckUtil::isGeneral),
+    GeneralWithChinese(1304, "参数必须是中文字、英文字母、数字和下划线", CheckUtil::isGeneralWithChinese),
+
+    IN(1401, "参数必须在合适的范围内", numeric(CheckUtil::inRange, PrimitiveChecks.IN)),
+    NotIn(1402, "参数必须不在指定的范围内", numeric(CheckUtil::outRange, PrimitiveChecks.NOT_IN)),
+    Length(1403, "参数长度必须在指定范围内", CheckUtil::inLength),
+    Enum(1404, "参数必须在枚举中", CheckUtil::inEnum),
+
+    GT(1501, "参数必须大于指定值", numeric(CheckUtil::isGreaterThan, PrimitiveChecks.GT)),
+    LT(1502, "参数必须小于指定值", numeric(CheckUtil::isLessThan, PrimitiveChecks.LT)),
+    GTE(1503, "参数必须大于等于指定值", numeric(CheckUtil::isGreaterThanEqual, PrimitiveChecks.GTE)),
+    LTE(1504, "参数必须小于等于指定值", numeric(CheckUtil::isLessThanEqual, PrimitiveChecks.LTE)),
+    NEQ(1505, "参数必须不等于指定值", numeric(CheckUtil::isNotEqual, PrimitiveChecks.NEQ)),
+    EQ(1506, "参数必须等于指定值", numeric(CheckUtil::isEqual, PrimitiveChecks.EQ)),
+
+    Pattern(1601, "参数必须符合指定的正则表达式", CheckUtil::isPattern),
+    Currency(1602, "参数必须是货币", CheckUtil::isCurrency),
+    CreditCode(1603, "参数必须是社会统一信用代码", CheckUtil::isCreditCode),
+    CitizenId(1604, "参数必须是身份证号", CheckUtil::isCitizenId),
+    Email(1605, "参数必须是Email地址", CheckUtil::isEmail),
+    Mobile(1606, "参数必须是手机号", format(CheckUtil::isMobilePhone, FormatScanner::isMobile)),
+    Url(1607, "参数必须是一个完整的url", format(CheckUtil::isUrl, UrlValidator::isUrl)),
+    ISBN(1608, "参数必须是一个书籍ISBN编号", CheckUtil::isISBN),
+    BankNumber(1609, "参数必须是一个银行卡号", CheckUtil::isBankNumber),
+    ChinesePostCode(1610, "参数必须是中国邮编", CheckUtil::isChinesePostCode),
+    PlateNumber(1611, "参数必须是中国车牌号", CheckUtil::isPlateNumber),
+    UUID(1612, "参数必须是UUID", format(CheckUtil::isUUID, FormatScanner::isUuid)),
+    Ipv4(1613, "参数必须是ipv4", format(CheckUtil::isIpv4, FormatScanner::isIpv4)),
+    Ipv6(1614, "参数必须是ipv6", format(CheckUtil::isIpv6, FormatScanner::isIpv6)),
+    Mac(1615, "参数必须是mac地址", format(CheckUtil::isMac, FormatScanner::isMac)),
+
+    /**
+     * 自定义验证方法，表达式为 "name" 或 "name:express"，name 为 {@link CheckRegistry} 中注册的名称
+     */
+    Custom(1701, "参数必须符合自定义规则", new CheckRegistry.Dispatch());
 
 
+    /**
+     * 错误码，按类别分段（1000 空值、1100 布尔、1200 日期、1300 字符、1400 范围、1500 比较、1600 格式、1700 自定义），
+     * 和枚举的顺序无关，新增枚举不会改变已有的错误码
+     */
+    public final int code;
+
     /**
      * msg 信息
      */
@@ -67,16 +81,153 @@ public enum Check {
      */
     public final BiFunction<Object, String, Boolean> fun;
 
-    Check(String msg, BiFunction<Object, String, Boolean> fun) {
+    /**
+     * 返回基本类型的验证函数，支持 long、double、CharSequence 参数不装箱验证
+     */
+    public final CheckFunction function;
+
+    Check(int code, String msg, CheckFunction function) {
+        this.code = code;
         this.msg = msg;
-        this.fun = fun;
+        this.function = function;
+        this.fun = function::test;
     }
 
     public Boolean check(Object value, String express) {
-        return this.fun.apply(value, express);
+        if (!CheckMetrics.enabled) {
+            return test(value, express);
+        }
+        long start = CheckMetrics.start(this);
+        boolean passed = test(value, express);
+        CheckMetrics.end(this, start, passed);
+        return passed;
+    }
+
+    /**
+     * 开启了 ResultCache 时先查缓存
+     */
+    private boolean test(Object value, String express) {
+        if (ResultCache.enabled) {
+            BoundedCache<Object, Boolean> cache = ResultCache.cacheFor(this, value);
+            if (cache != null) {
+                Object key = ResultCache.key(express, (String) value);
+                Boolean cached = cache.getIfPresent(key);
+                if (cached == null) {
+                    cached = this.function.test(value, express);
+                    cache.put(key, cached);
+                }
+                return cached;
+            }
+        }
+        return this.function.test(value, express);
     }
 
     public Boolean check(Object value) {
         return check(value, null);
     }
+
+    /**
+     * 按 Long 类型的参数验证，不装箱；结果和 check(Long, express) 相同
+     * 不与 check(Object) 重载，int、float、char 等参数调用 check 时仍按各自的包装类型验证
+     */
+    public boolean checkLong(long value, String express) {
+        if (!CheckMetrics.enabled) {
+            return this.function.testLong(value, express);
+        }
+        long start = CheckMetrics.start(this);
+        boolean passed = this.function.testLong(value, express);
+        CheckMetrics.end(this, start, passed);
+        return passed;
+    }
+
+    /**
+     * 按 Double 类型的参数验证，不装箱；结果和 check(Double, express) 相同
+     */
+    public boolean checkDouble(double value, String express) {
+        if (!CheckMetrics.enabled) {
+            return this.function.testDouble(value, express);
+        }
+        long start = CheckMetrics.start(this);
+        boolean passed = this.function.testDouble(value, express);
+        CheckMetrics.end(this, start, passed);
+        return passed;
+    }
+
+    /**
+     * 按 String 类型的参数验证，固定格式类的验证直接扫描 CharSequence
+     */
+    public boolean checkChars(CharSequence value, String express) {
+        if (!CheckMetrics.enabled) {
+            return testChars(value, express);
+        }
+        long start = CheckMetrics.start(this);
+        boolean passed = testChars(value, express);
+        CheckMetrics.end(this, start, passed);
+        return passed;
+    }
+
+    /**
+     * 开销类别，正则匹配和解析类为 REGEX，其它为 CHEAP；Custom 的开销由注册的 CustomCheck 声明
+     */
+    public CheckCost cost() {
+        switch (this) {
+            case Date:
+            case DateTime:
+            case Past:
+            case Future:
+            case Today:
+            case Number:
+            case Chinese:
+            case General:
+            case GeneralWithChinese:
+            case Pattern:
+            case Currency:
+            case CreditCode:
+            case CitizenId:
+            case Email:
+            case ISBN:
+            case ChinesePostCode:
+            case PlateNumber:
+            case Url:
+                return CheckCost.REGEX;
+            default:
+                return CheckCost.CHEAP;
+        }
+    }
+
+    /**
+     * String 参数的结果和 test 相同，开启了 ResultCache 时共用缓存
+     */
+    private boolean testChars(CharSequence value, String express) {
+        if (ResultCache.enabled && value instanceof String) {
+            return test((Object) value, express);
+        }
+        return this.function.testChars(value, express);
+    }
+
+    /**
+     * 预编译表达式，编译结果可重复使用，线程安全
+     *
+     * @param express 表达式 非必填 和枚举方法相关
+     * @return CompiledCheck
+     */
+    public CompiledCheck compile(String express) {
+        return CheckCompiler.compile(this, express);
+    }
+
+    private static final Check[] VALUES = values();
+
+    /**
+     * 按错误码查找验证方法
+     *
+     * @return 没有对应的错误码时返回 null
+     */
+    public static Check ofCode(int code) {
+        for (Check check : VALUES) {
+            if (check.code == code) {
+                return check;
+            }
+        }
+        return null;
+    }
 }
\ No newline at end of file
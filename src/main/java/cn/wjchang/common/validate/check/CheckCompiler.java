@@ -0,0 +1,373 @@
+package cn.wjchang.common.validate.check;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 表达式编译
+ * 把表达式预先解析为有类型的边界值、集合、正则和日期格式，验证时不再解析
+ * 表达式对某种参数类型不合法时（例如 "a,b" 作为 Integer 范围），该类型回退到 CheckUtil，保持原有的行为（包括抛出的异常）
+ */
+final class CheckCompiler {
+
+    private CheckCompiler() {
+    }
+
+    static CompiledCheck compile(Check check, String express) {
+        switch (check) {
+            case IN:
+                return new RangeCheck(check, express, false);
+            case NotIn:
+                return new RangeCheck(check, express, true);
+            case Length:
+                return new LengthCheck(check, express);
+            case Enum:
+                return new EnumCheck(check, express);
+            case GT:
+            case GTE:
+            case LT:
+            case LTE:
+            case EQ:
+            case NEQ:
+                return new CompareCheck(check, express);
+            case Date:
+                return new DateCheck(check, express, FormatterCache.DATE_PATTERN);
+            case DateTime:
+            case Past:
+            case Future:
+            case Today:
+                return new DateCheck(check, express, FormatterCache.DATE_TIME_PATTERN);
+            case Pattern:
+                return new PatternCheck(check, express);
+            case Custom:
+                CustomCheck custom = CheckRegistry.lookup(express);
+                return custom == null ? new DelegateCheck(check, express)
+                        : new CustomCompiledCheck(custom, express, CheckRegistry.argument(express));
+            default:
+                return new DelegateCheck(check, express);
+        }
+    }
+
+    private static boolean isEmpty(String express) {
+        return express == null || "".equals(express);
+    }
+
+    /**
+     * 不需要解析表达式的验证方法，直接调用
+     */
+    static final class DelegateCheck extends CompiledCheck {
+
+        DelegateCheck(Check check, String express) {
+            super(check, express);
+        }
+
+        @Override
+        boolean evaluate(Object value) {
+            return getCheck().function.test(value, getExpress());
+        }
+
+        @Override
+        boolean evaluate(CharSequence value) {
+            return getCheck().function.testChars(value, getExpress());
+        }
+    }
+
+    /**
+     * 自定义验证方法，编译时绑定 CustomCheck 和它预编译的函数，之后取消注册不受影响
+     */
+    static final class CustomCompiledCheck extends CompiledCheck {
+
+        private final CustomCheck custom;
+        private final String argument;
+        private final CheckFunction function;
+
+        CustomCompiledCheck(CustomCheck custom, String express, String argument) {
+            super(Check.Custom, express);
+            this.custom = custom;
+            this.argument = argument;
+            this.function = custom.compileFunction(argument);
+        }
+
+        @Override
+        public int getCode() {
+            return custom.getCode();
+        }
+
+        @Override
+        public String getMsg() {
+            return custom.getMsg();
+        }
+
+        @Override
+        public CheckCost getCost() {
+            return custom.getCost();
+        }
+
+        @Override
+        boolean evaluate(Object value) {
+            return function.test(value, argument);
+        }
+
+        @Override
+        boolean evaluate(long value) {
+            return function.testLong(value, argument);
+        }
+
+        @Override
+        boolean evaluate(double value) {
+            return function.testDouble(value, argument);
+        }
+
+        @Override
+        boolean evaluate(CharSequence value) {
+            return function.testChars(value, argument);
+        }
+    }
+
+    /**
+     * IN、NotIn 闭区间
+     */
+    static final class RangeCheck extends CompiledCheck {
+
+        private final boolean negate;
+
+        /**
+         * 表达式为空时为 null；缺少 "," 时也为 null，验证时由 CheckUtil 抛出异常
+         */
+        private final NumericBound.Range range;
+
+        RangeCheck(Check check, String express, boolean negate) {
+            super(check, express);
+            this.negate = negate;
+            this.range = isEmpty(express) || express.indexOf(',') < 0 ? null : NumericBound.range(express);
+        }
+
+        @Override
+        boolean evaluate(Object value) {
+            if (!(value instanceof Number)) {
+                return negate;
+            }
+            if (range == null) {
+                return negate != CheckUtil.inRange(value, getExpress());
+            }
+            return negate != range.contains(value);
+        }
+
+        @Override
+        boolean evaluate(long value) {
+            if (range == null) {
+                return super.evaluate(value);
+            }
+            return negate != range.containsLong(value);
+        }
+
+        @Override
+        boolean evaluate(double value) {
+            if (range == null) {
+                return super.evaluate(value);
+            }
+            return negate != range.containsDouble(value);
+        }
+    }
+
+    /**
+     * String 长度范围
+     */
+    static final class LengthCheck extends CompiledCheck {
+
+        private final boolean empty;
+        private final boolean parsed;
+        private final int begin;
+        private final int end;
+
+        LengthCheck(Check check, String express) {
+            super(check, express);
+            this.empty = isEmpty(express);
+            int b = 0;
+            int e = 0;
+            boolean ok = false;
+            if (!empty) {
+                // 和 CheckUtil.inLength 按 "," 拆分后 Integer.parseInt 的结果相同，不创建异常
+                int comma = express.indexOf(',');
+                ok = comma < 0 || QuietParser.isInt(express, 0, comma);
+                b = ok && comma >= 0 ? (int) PrimitiveChecks.parseLong(express, 0, comma) : 0;
+                if (ok && b == 0) {
+                    ok = QuietParser.isInt(express, 0, express.length());
+                    e = ok ? (int) PrimitiveChecks.parseLong(express, 0, express.length()) : 0;
+                } else if (ok) {
+                    int next = express.indexOf(',', comma + 1);
+                    int end = next < 0 ? express.length() : next;
+                    ok = QuietParser.isInt(express, comma + 1, end);
+                    e = ok ? (int) PrimitiveChecks.parseLong(express, comma + 1, end) : 0;
+                }
+            }
+            this.parsed = ok;
+            this.begin = b;
+            this.end = e;
+        }
+
+        @Override
+        boolean evaluate(Object value) {
+            if (value == null || empty) {
+                return false;
+            }
+            if (value instanceof String) {
+                if (!parsed) {
+                    return CheckUtil.inLength(value, getExpress());
+                }
+                int v = ((String) value).length();
+                return begin <= v && v <= end;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 枚举，集合只构建一次
+     */
+    static final class EnumCheck extends CompiledCheck {
+
+        private final Set<String> values;
+
+        EnumCheck(Check check, String express) {
+            super(check, express);
+            this.values = isEmpty(express) ? null
+                    : Collections.unmodifiableSet(new HashSet<>(Arrays.asList(express.split(","))));
+        }
+
+        @Override
+        boolean evaluate(Object value) {
+            if (value == null || values == null) {
+                return false;
+            }
+            return values.contains(value.toString());
+        }
+    }
+
+    /**
+     * GT、GTE、LT、LTE、EQ、NEQ
+     */
+    static final class CompareCheck extends CompiledCheck {
+
+        private final NumericBound bound;
+        private final int op;
+
+        CompareCheck(Check check, String express) {
+            super(check, express);
+            this.bound = NumericBound.parse(express);
+            this.op = opOf(check);
+        }
+
+        private static int opOf(Check check) {
+            switch (check) {
+                case GT:
+                    return PrimitiveChecks.GT;
+                case GTE:
+                    return PrimitiveChecks.GTE;
+                case LT:
+                    return PrimitiveChecks.LT;
+                case LTE:
+                    return PrimitiveChecks.LTE;
+                case EQ:
+                    return PrimitiveChecks.EQ;
+                default:
+                    return PrimitiveChecks.NEQ;
+            }
+        }
+
+        @Override
+        boolean evaluate(Object value) {
+            if (op == PrimitiveChecks.NEQ) {
+                return !CheckUtil.compare(PrimitiveChecks.EQ, value, getExpress(), bound);
+            }
+            return CheckUtil.compare(op, value, getExpress(), bound);
+        }
+
+        @Override
+        boolean evaluate(long value) {
+            return bound.testLong(op, value);
+        }
+
+        @Override
+        boolean evaluate(double value) {
+            return bound.testDouble(op, value);
+        }
+    }
+
+    /**
+     * Date、DateTime、Past、Future、Today，formatter只创建一次
+     */
+    static final class DateCheck extends CompiledCheck {
+
+        private final DateTimeFormatter formatter;
+
+        DateCheck(Check check, String express, String defaultPattern) {
+            super(check, express);
+            this.formatter = CheckUtil.ofPattern(express, defaultPattern);
+        }
+
+        @Override
+        boolean evaluate(Object value) {
+            switch (getCheck()) {
+                case Date:
+                    return CheckUtil.checkDate(value, formatter);
+                case DateTime:
+                    return CheckUtil.checkDateTime(value, formatter);
+                case Past:
+                    return CheckUtil.checkPast(value, formatter);
+                case Future:
+                    return CheckUtil.checkFuture(value, formatter);
+                default:
+                    return CheckUtil.checkToday(value, formatter);
+            }
+        }
+    }
+
+    /**
+     * 正则只编译一次，和 CheckUtil.isPattern 共用 PatternCache、DfaPattern 的缓存
+     */
+    static final class PatternCheck extends CompiledCheck {
+
+        private final java.util.regex.Pattern pattern;
+
+        /**
+         * 表达式不在 DFA 支持的范围内时为 null
+         */
+        private final DfaPattern dfa;
+
+        PatternCheck(Check check, String express) {
+            super(check, express);
+            java.util.regex.Pattern p;
+            DfaPattern d;
+            try {
+                p = PatternCache.compile(express);
+                d = DfaPattern.compile(express);
+            } catch (RuntimeException e) {
+                p = null;
+                d = null;
+            }
+            this.pattern = p;
+            this.dfa = d;
+        }
+
+        @Override
+        boolean evaluate(Object value) {
+            if (value == null) {
+                return false;
+            }
+            if (value instanceof String) {
+                if (pattern == null) {
+                    return CheckUtil.isPattern(value, getExpress());
+                }
+                if (dfa != null && DfaPattern.isEnabled()) {
+                    return dfa.matches((String) value);
+                }
+                return RegexGuard.matches(pattern, (String) value);
+            }
+            return false;
+        }
+    }
+}
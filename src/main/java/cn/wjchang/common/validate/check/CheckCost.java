@@ -0,0 +1,23 @@
+package cn.wjchang.common.validate.check;
+
+/**
+ * 验证方法的开销类别，按声明顺序由低到高
+ * ValidateBuilder.costOrdered() 时，FAIL_FAST 和 LAZY 模式先验证开销低的规则
+ */
+public enum CheckCost {
+
+    /**
+     * 简单判断、逐字符扫描
+     */
+    CHEAP,
+
+    /**
+     * 正则匹配、解析
+     */
+    REGEX,
+
+    /**
+     * 访问外部资源，例如查询数据库、调用远程服务
+     */
+    IO
+}
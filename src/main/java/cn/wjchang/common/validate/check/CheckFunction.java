@@ -0,0 +1,35 @@
+package cn.wjchang.common.validate.check;
+
+/**
+ * 验证方法的函数接口，返回基本类型 boolean
+ * 接收字段值和表达式，返回是否符合规则
+ * <p>
+ * testLong、testDouble、testChars 默认装箱后调用 test；
+ * 数值类和固定格式类的验证方法会覆盖它们，避免装箱和类型判断
+ */
+@FunctionalInterface
+public interface CheckFunction {
+
+    boolean test(Object value, String express);
+
+    /**
+     * 按 Long 类型的参数验证
+     */
+    default boolean testLong(long value, String express) {
+        return test(value, express);
+    }
+
+    /**
+     * 按 Double 类型的参数验证
+     */
+    default boolean testDouble(double value, String express) {
+        return test(value, express);
+    }
+
+    /**
+     * 按 String 类型的参数验证
+     */
+    default boolean testChars(CharSequence value, String express) {
+        return test(value == null ? null : value.toString(), express);
+    }
+}
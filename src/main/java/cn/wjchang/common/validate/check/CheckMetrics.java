@@ -0,0 +1,276 @@
+package cn.wjchang.common.validate.check;
+
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按验证方法统计的调用次数、不通过次数和采样耗时
+ * 默认关闭，关闭时 Check.check 和 CompiledCheck.test 只多读一次 volatile 静态字段，可以保留在生产代码中；
+ * setEnabled(true) 后开始统计，计数使用 LongAdder，耗时按 sampleRate 随机采样
+ *
+ * <pre>
+ * CheckMetrics.setEnabled(true);
+ * CheckMetrics.registerMBean();
+ * ...
+ * CheckStats stats = CheckMetrics.snapshot(Check.Email);
+ * </pre>
+ */
+public final class CheckMetrics {
+
+    public static final String OBJECT_NAME = "cn.wjchang.common.validate:type=CheckMetrics";
+
+    /**
+     * 直方图桶数，最后一个桶包含 2^38 纳秒以上的耗时
+     */
+    static final int BUCKETS = 40;
+
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    /**
+     * volatile：setEnabled 之后其它线程的下一次调用就能看到，包括正在运行的循环
+     */
+    static volatile boolean enabled;
+
+    /**
+     * 采样掩码，sampleRate - 1
+     */
+    private static volatile int sampleMask = 63;
+
+    private static final Stats[] STATS;
+
+    private static ObjectName registered;
+
+    static {
+        Check[] checks = Check.values();
+        STATS = new Stats[checks.length];
+        for (int i = 0; i < checks.length; i++) {
+            STATS[i] = new Stats();
+        }
+    }
+
+    private CheckMetrics() {
+    }
+
+    /**
+     * 设置是否统计（默认false），关闭后已有的数据保留
+     */
+    public static void setEnabled(boolean enabled) {
+        CheckMetrics.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 设置耗时的采样频率：平均每 sampleRate 次调用记录一次耗时（默认64），向上取整为2的幂，1 表示每次都记录
+     */
+    public static void setSampleRate(int sampleRate) {
+        if (sampleRate < 1 || sampleRate > 1 << 30) {
+            throw new ParamsCheckException("sampleRate must be between 1 and 2^30, but was " + sampleRate);
+        }
+        sampleMask = sampleRate == 1 ? 0 : Integer.highestOneBit(sampleRate - 1) * 2 - 1;
+    }
+
+    public static int getSampleRate() {
+        return sampleMask + 1;
+    }
+
+    /**
+     * 单个验证方法的指标快照
+     */
+    public static CheckStats snapshot(Check check) {
+        return STATS[check.ordinal()].snapshot(check);
+    }
+
+    /**
+     * 全部验证方法的指标快照，按枚举顺序
+     */
+    public static Map<Check, CheckStats> snapshot() {
+        Map<Check, CheckStats> snapshot = new EnumMap<>(Check.class);
+        for (Check check : Check.values()) {
+            snapshot.put(check, snapshot(check));
+        }
+        return snapshot;
+    }
+
+    /**
+     * 清空已有的数据，和正在进行的调用并发时，个别调用可能被部分清除
+     */
+    public static void reset() {
+        for (Stats stats : STATS) {
+            stats.reset();
+        }
+    }
+
+    /**
+     * 注册到 platform MBeanServer，重复调用只注册一次
+     */
+    public static synchronized void registerMBean() {
+        if (registered != null) {
+            return;
+        }
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MXBean(), name);
+            }
+            registered = name;
+        } catch (JMException e) {
+            throw new ParamsCheckException("failed to register " + OBJECT_NAME, e);
+        }
+    }
+
+    public static synchronized void unregisterMBean() {
+        if (registered == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registered);
+        } catch (JMException e) {
+            throw new ParamsCheckException("failed to unregister " + OBJECT_NAME, e);
+        } finally {
+            registered = null;
+        }
+    }
+
+    /**
+     * 记录一次调用，返回开始时间，不采样时返回 NOT_SAMPLED
+     */
+    static long start(Check check) {
+        STATS[check.ordinal()].invocations.increment();
+        return (ThreadLocalRandom.current().nextInt() & sampleMask) == 0 ? System.nanoTime() : NOT_SAMPLED;
+    }
+
+    static void end(Check check, long start, boolean passed) {
+        Stats stats = STATS[check.ordinal()];
+        if (!passed) {
+            stats.failures.increment();
+        }
+        if (start != NOT_SAMPLED) {
+            stats.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 耗时所在的直方图桶：0纳秒（包括负数）为0，[2^(i-1), 2^i) 为 i，超出范围的放入最后一个桶
+     */
+    static int bucketOf(long nanos) {
+        return Math.min(64 - Long.numberOfLeadingZeros(Math.max(nanos, 0)), BUCKETS - 1);
+    }
+
+    private static final class Stats {
+
+        final LongAdder invocations = new LongAdder();
+        final LongAdder failures = new LongAdder();
+
+        /**
+         * 只记录采样的调用，竞争远小于计数，使用 AtomicLongArray
+         */
+        final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        final LongAdder sampledNanos = new LongAdder();
+
+        void record(long nanos) {
+            buckets.incrementAndGet(bucketOf(nanos));
+            sampledNanos.add(Math.max(nanos, 0));
+        }
+
+        CheckStats snapshot(Check check) {
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+            }
+            return new CheckStats(check, invocations.sum(), failures.sum(), counts, sampledNanos.sum());
+        }
+
+        void reset() {
+            invocations.reset();
+            failures.reset();
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+            sampledNanos.reset();
+        }
+    }
+
+    private static final class MXBean implements CheckMetricsMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return CheckMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            CheckMetrics.setEnabled(enabled);
+        }
+
+        @Override
+        public int getSampleRate() {
+            return CheckMetrics.getSampleRate();
+        }
+
+        @Override
+        public void setSampleRate(int sampleRate) {
+            CheckMetrics.setSampleRate(sampleRate);
+        }
+
+        @Override
+        public Map<String, Long> getInvocations() {
+            Map<String, Long> map = new LinkedHashMap<>();
+            for (CheckStats stats : called()) {
+                map.put(stats.getCheck().name(), stats.getInvocations());
+            }
+            return map;
+        }
+
+        @Override
+        public Map<String, Long> getFailures() {
+            Map<String, Long> map = new LinkedHashMap<>();
+            for (CheckStats stats : called()) {
+                map.put(stats.getCheck().name(), stats.getFailures());
+            }
+            return map;
+        }
+
+        @Override
+        public Map<String, Long> getMeanNanos() {
+            Map<String, Long> map = new LinkedHashMap<>();
+            for (CheckStats stats : called()) {
+                map.put(stats.getCheck().name(), Math.round(stats.meanNanos()));
+            }
+            return map;
+        }
+
+        @Override
+        public Map<String, Long> getP99Nanos() {
+            Map<String, Long> map = new LinkedHashMap<>();
+            for (CheckStats stats : called()) {
+                map.put(stats.getCheck().name(), stats.percentileNanos(0.99));
+            }
+            return map;
+        }
+
+        @Override
+        public void reset() {
+            CheckMetrics.reset();
+        }
+
+        private static Iterable<CheckStats> called() {
+            Map<Check, CheckStats> snapshot = snapshot();
+            snapshot.values().removeIf(stats -> stats.getInvocations() == 0);
+            return snapshot.values();
+        }
+    }
+}
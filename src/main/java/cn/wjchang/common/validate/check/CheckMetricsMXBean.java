@@ -0,0 +1,28 @@
+package cn.wjchang.common.validate.check;
+
+import java.util.Map;
+
+/**
+ * CheckMetrics 的 JMX 接口，ObjectName 为 {@link CheckMetrics#OBJECT_NAME}
+ * 各 Map 以验证方法的名称为 key，只包含调用过的验证方法
+ */
+public interface CheckMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    int getSampleRate();
+
+    void setSampleRate(int sampleRate);
+
+    Map<String, Long> getInvocations();
+
+    Map<String, Long> getFailures();
+
+    Map<String, Long> getMeanNanos();
+
+    Map<String, Long> getP99Nanos();
+
+    void reset();
+}
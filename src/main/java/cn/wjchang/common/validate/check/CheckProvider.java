@@ -0,0 +1,13 @@
+package cn.wjchang.common.validate.check;
+
+import java.util.Collection;
+
+/**
+ * 自定义验证方法的 SPI
+ * 在 META-INF/services/cn.wjchang.common.validate.check.CheckProvider 中声明实现类，
+ * CheckRegistry 第一次使用时通过 ServiceLoader 加载并注册
+ */
+public interface CheckProvider {
+
+    Collection<CustomCheck> getChecks();
+}
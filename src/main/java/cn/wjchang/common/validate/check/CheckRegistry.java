@@ -0,0 +1,186 @@
+package cn.wjchang.common.validate.check;
+
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 自定义验证方法的注册表
+ * 第一次使用时通过 ServiceLoader 加载 {@link CheckProvider}，也可以调用 register 注册；按名称查找，线程安全
+ * Check.Custom 的表达式为 "name" 或 "name:express"，冒号之后的部分传给自定义验证方法
+ * 加载失败的 CheckProvider 或 CustomCheck 被跳过，原因通过 getProviderErrors 查看
+ */
+public final class CheckRegistry {
+
+    static final char SEPARATOR = ':';
+
+    private static final ConcurrentHashMap<String, CustomCheck> CHECKS = new ConcurrentHashMap<>();
+
+    private static final List<String> PROVIDER_ERRORS;
+
+    static {
+        List<String> errors = new ArrayList<>();
+        Iterator<CheckProvider> providers = ServiceLoader.load(CheckProvider.class).iterator();
+        while (true) {
+            try {
+                if (!providers.hasNext()) {
+                    break;
+                }
+            } catch (ServiceConfigurationError e) {
+                // 配置文件无法读取或解析，不能确定迭代器能否继续，停止加载
+                errors.add(e.getMessage());
+                break;
+            }
+            CheckProvider provider;
+            try {
+                provider = providers.next();
+            } catch (ServiceConfigurationError e) {
+                // 实现类不存在、不能实例化，消息中包含类名
+                errors.add(e.getMessage());
+                continue;
+            }
+            load(provider, errors);
+        }
+        PROVIDER_ERRORS = Collections.unmodifiableList(errors);
+    }
+
+    private CheckRegistry() {
+    }
+
+    private static void load(CheckProvider provider, List<String> errors) {
+        String name = provider.getClass().getName();
+        Collection<CustomCheck> checks;
+        try {
+            checks = provider.getChecks();
+        } catch (RuntimeException | LinkageError e) {
+            errors.add(name + ": " + e);
+            return;
+        }
+        if (checks == null) {
+            errors.add(name + ": getChecks() returned null");
+            return;
+        }
+        for (CustomCheck check : checks) {
+            try {
+                register(check);
+            } catch (RuntimeException e) {
+                errors.add(name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 注册自定义验证方法，名称或错误码重复时抛出 ParamsCheckException
+     * 检查错误码和写入在同一个锁内完成，并发注册相同错误码时只有一个成功；查找不加锁
+     * 注册、取消注册后清空 ResultCache 中 Check.Custom 的结果
+     */
+    public static synchronized void register(CustomCheck check) {
+        for (CustomCheck registered : CHECKS.values()) {
+            if (registered.getCode() == check.getCode() && !registered.getName().equals(check.getName())) {
+                throw new ParamsCheckException("code " + check.getCode() + " is used by custom check '"
+                        + registered.getName() + "'");
+            }
+        }
+        if (CHECKS.putIfAbsent(check.getName(), check) != null) {
+            throw new ParamsCheckException("custom check '" + check.getName() + "' is already registered");
+        }
+        ResultCache.clear(Check.Custom);
+    }
+
+    /**
+     * 取消注册，已经编译的 CompiledCheck 不受影响
+     *
+     * @return 被取消的验证方法，没有注册时返回 null
+     */
+    public static synchronized CustomCheck unregister(String name) {
+        CustomCheck removed = CHECKS.remove(name);
+        if (removed != null) {
+            ResultCache.clear(Check.Custom);
+        }
+        return removed;
+    }
+
+    /**
+     * 按名称查找
+     *
+     * @return 没有注册时返回 null
+     */
+    public static CustomCheck get(String name) {
+        return name == null ? null : CHECKS.get(name);
+    }
+
+    /**
+     * 按 Check.Custom 的表达式（"name" 或 "name:express"）查找
+     *
+     * @return 没有注册时返回 null
+     */
+    public static CustomCheck lookup(String express) {
+        if (express == null) {
+            return null;
+        }
+        int separator = express.indexOf(SEPARATOR);
+        return CHECKS.get(separator < 0 ? express : express.substring(0, separator));
+    }
+
+    public static Collection<CustomCheck> getAll() {
+        return Collections.unmodifiableCollection(new ArrayList<>(CHECKS.values()));
+    }
+
+    /**
+     * 通过 ServiceLoader 加载时跳过的 CheckProvider 和 CustomCheck，每项为 "实现类: 原因"
+     *
+     * @return 全部加载成功时返回空列表
+     */
+    public static List<String> getProviderErrors() {
+        return PROVIDER_ERRORS;
+    }
+
+    /**
+     * Check.Custom 表达式中传给自定义验证方法的部分
+     */
+    static String argument(String express) {
+        int separator = express == null ? -1 : express.indexOf(SEPARATOR);
+        return separator < 0 ? null : express.substring(separator + 1);
+    }
+
+    static CustomCheck require(String express) {
+        CustomCheck check = lookup(express);
+        if (check == null) {
+            throw new ParamsCheckException("custom check is not registered: " + express);
+        }
+        return check;
+    }
+
+    /**
+     * Check.Custom 的验证函数，每次按表达式查找注册的验证方法
+     */
+    static final class Dispatch implements CheckFunction {
+
+        @Override
+        public boolean test(Object value, String express) {
+            return require(express).getFunction().test(value, argument(express));
+        }
+
+        @Override
+        public boolean testLong(long value, String express) {
+            return require(express).getFunction().testLong(value, argument(express));
+        }
+
+        @Override
+        public boolean testDouble(double value, String express) {
+            return require(express).getFunction().testDouble(value, argument(express));
+        }
+
+        @Override
+        public boolean testChars(CharSequence value, String express) {
+            return require(express).getFunction().testChars(value, argument(express));
+        }
+    }
+}
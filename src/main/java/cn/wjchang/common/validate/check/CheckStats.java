@@ -0,0 +1,101 @@
+package cn.wjchang.common.validate.check;
+
+/**
+ * 单个验证方法的指标快照，由 {@link CheckMetrics#snapshot(Check)} 创建
+ * 耗时按采样统计，直方图第 i 个桶为 [2^(i-1), 2^i) 纳秒，第0个桶为0纳秒
+ */
+public final class CheckStats {
+
+    private final Check check;
+    private final long invocations;
+    private final long failures;
+    private final long[] buckets;
+    private final long sampledCount;
+    private final long sampledNanos;
+
+    CheckStats(Check check, long invocations, long failures, long[] buckets, long sampledNanos) {
+        this.check = check;
+        this.invocations = invocations;
+        this.failures = failures;
+        this.buckets = buckets;
+        long count = 0;
+        for (long bucket : buckets) {
+            count += bucket;
+        }
+        this.sampledCount = count;
+        this.sampledNanos = sampledNanos;
+    }
+
+    public Check getCheck() {
+        return check;
+    }
+
+    /**
+     * 调用次数
+     */
+    public long getInvocations() {
+        return invocations;
+    }
+
+    /**
+     * 不通过的次数
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * 不通过的比例，没有调用时返回0
+     */
+    public double failureRate() {
+        return invocations == 0 ? 0.0 : (double) failures / invocations;
+    }
+
+    /**
+     * 采样记录耗时的次数
+     */
+    public long getSampledCount() {
+        return sampledCount;
+    }
+
+    /**
+     * 耗时直方图的副本
+     */
+    public long[] getBuckets() {
+        return buckets.clone();
+    }
+
+    /**
+     * 采样的平均耗时（纳秒），没有采样时返回0
+     */
+    public double meanNanos() {
+        return sampledCount == 0 ? 0.0 : (double) sampledNanos / sampledCount;
+    }
+
+    /**
+     * 耗时的分位数（纳秒），返回所在桶的上界，没有采样时返回0
+     *
+     * @param quantile 0到1之间，例如0.99
+     */
+    public long percentileNanos(double quantile) {
+        if (sampledCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(Math.min(Math.max(quantile, 0.0), 1.0) * sampledCount);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= Math.max(rank, 1)) {
+                return i == 0 ? 0 : 1L << i;
+            }
+        }
+        return 1L << (buckets.length - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "CheckStats{check=" + check + ", invocations=" + invocations + ", failures=" + failures
+                + ", sampledCount=" + sampledCount + ", meanNanos=" + (long) meanNanos()
+                + ", p99Nanos=" + percentileNanos(0.99) + "}";
+    }
+}
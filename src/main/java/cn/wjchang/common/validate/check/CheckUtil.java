@@ -1,12 +1,10 @@
 package cn.wjchang.common.validate.check;
 
-import java.math.BigDecimal;
 import java.net.MalformedURLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static cn.wjchang.common.validate.check.RegexPattern.*;
@@ -90,11 +88,7 @@ public class CheckUtil {
             return (Boolean) value;
         }
         if (value instanceof String) {
-            try {
-                return Boolean.parseBoolean((String) value);
-            } catch (Exception e) {
-                return Boolean.FALSE;
-            }
+            return Boolean.parseBoolean((String) value);
         }
         return Boolean.FALSE;
     }
@@ -118,20 +112,85 @@ public class CheckUtil {
      *
      */
     public static Boolean isDate(Object value, String express) {
-        if (isNull(value, express)) {
-            return Boolean.FALSE;
-        }
+        return checkDate(value, value instanceof String ? ofPattern(express, FormatterCache.DATE_PATTERN) : null);
+    }
+
+
+    /**
+     * 判断参数是否是一个日期
+     * 支持Date类型
+     * 支持LocalDateTime类型
+     * 支持String类型，yyyy-MM-dd HH:mm:ss、yyyyMMddHHmmss、yyyy/MM/dd HH:mm:ss格式； 默认仅支持yyyy-MM-dd HH:mm:ss
+     *
+     */
+    public static Boolean isDateTime(Object value, String express) {
+        return checkDateTime(value, value instanceof String ? ofPattern(express, FormatterCache.DATE_TIME_PATTERN) : null);
+    }
+
+    /**
+     * 判断参数是否是一个过去时间
+     * 支持Date类型
+     * 支持LocalDate类型
+     * 支持LocalDateTime类型
+     * 支持String类型，yyyy-MM-dd、yyyyMMdd、yyyy/MM/dd格式； 默认仅支持yyyy-MM-dd
+     * 支持String类型，yyyy-MM-dd HH:mm:ss、yyyyMMddHHmmss、yyyy/MM/dd HH:mm:ss格式； 默认仅支持yyyy-MM-dd HH:mm:ss
+     *
+     */
+    public static Boolean isPast(Object value, String express) {
+        return checkPast(value, value instanceof String ? ofPattern(express, FormatterCache.DATE_TIME_PATTERN) : null);
+    }
+
+    /**
+     * 判断参数是否是一个将来时间
+     * 支持Date类型
+     * 支持LocalDate类型
+     * 支持LocalDateTime类型
+     * 支持String类型，yyyy-MM-dd、yyyyMMdd、yyyy/MM/dd格式; 默认仅支持yyyy-MM-dd
+     * 支持String类型，yyyy-MM-dd HH:mm:ss、yyyyMMddHHmmss、yyyy/MM/dd HH:mm:ss格式； 默认仅支持yyyy-MM-dd HH:mm:ss
+     *
+     */
+    public static Boolean isFuture(Object value, String express) {
+        return checkFuture(value, value instanceof String ? ofPattern(express, FormatterCache.DATE_TIME_PATTERN) : null);
+    }
+
+
+    /**
+     * 判断是否是今天的日期
+     * 支持Date类型
+     * 支持LocalDate类型
+     * 支持String类型，默认仅支持yyyy-MM-dd
+     *
+     */
+    public static Boolean isToday(Object value, String express) {
+        return checkToday(value, value instanceof String ? ofPattern(express, FormatterCache.DATE_TIME_PATTERN) : null);
+    }
+
+    /**
+     * 表达式为空时使用默认格式；格式非法返回null，String类型的参数按验证不通过处理
+     * 格式从 FormatterCache 获取，不在每次验证时解析
+     */
+    static DateTimeFormatter ofPattern(String express, String defaultPattern) {
         if (express == null || "".equals(express)) {
-            express = "yyyy-MM-dd";
+            express = defaultPattern;
+        }
+        try {
+            return FormatterCache.ofPattern(express);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 使用已解析好的formatter判断日期，formatter为null时String类型的参数不通过
+     * String类型的参数由 QuietParser 解析，格式不符时不创建异常
+     */
+    static Boolean checkDate(Object value, DateTimeFormatter formatter) {
+        if (isNull(value, null)) {
+            return Boolean.FALSE;
         }
         if (value instanceof String) {
             String v = ((String) value);
-            try {
-                LocalDate.parse(v, DateTimeFormatter.ofPattern(express));
-                return Boolean.TRUE;
-            } catch (Exception e) {
-                return Boolean.FALSE;
-            }
+            return QuietParser.isDate(v, formatter);
         }
         if (value instanceof Date) {
             return Boolean.TRUE;
@@ -142,31 +201,15 @@ public class CheckUtil {
         return Boolean.FALSE;
     }
 
-
-    /**
-     * 判断参数是否是一个日期
-     * 支持Date类型
-     * 支持LocalDateTime类型
-     * 支持String类型，yyyy-MM-dd HH:mm:ss、yyyyMMddHHmmss、yyyy/MM/dd HH:mm:ss格式； 默认仅支持yyyy-MM-dd HH:mm:ss
-     *
-     */
-    public static Boolean isDateTime(Object value, String express) {
-        if (isNull(value, express)) {
+    static Boolean checkDateTime(Object value, DateTimeFormatter formatter) {
+        if (isNull(value, null)) {
             return Boolean.FALSE;
         }
-        if (express == null || "".equals(express)) {
-            express = "yyyy-MM-dd HH:mm:ss";
-        }
         // 通常json格式参数，都是以字符串类型传递，优先判断
         if (value instanceof String) {
             //.replaceAll("[-/]", "");  // 验证参数，不能处理掉所有异常的符号
             String v = ((String) value);
-            try {
-                LocalDateTime.parse(v, DateTimeFormatter.ofPattern(express));
-                return Boolean.TRUE;
-            } catch (Exception e) {
-                return Boolean.FALSE;
-            }
+            return QuietParser.isDateTime(v, formatter);
         }
         if (value instanceof Date) {
             return Boolean.TRUE;
@@ -177,30 +220,14 @@ public class CheckUtil {
         return Boolean.FALSE;
     }
 
-    /**
-     * 判断参数是否是一个过去时间
-     * 支持Date类型
-     * 支持LocalDate类型
-     * 支持LocalDateTime类型
-     * 支持String类型，yyyy-MM-dd、yyyyMMdd、yyyy/MM/dd格式； 默认仅支持yyyy-MM-dd
-     * 支持String类型，yyyy-MM-dd HH:mm:ss、yyyyMMddHHmmss、yyyy/MM/dd HH:mm:ss格式； 默认仅支持yyyy-MM-dd HH:mm:ss
-     *
-     */
-    public static Boolean isPast(Object value, String express) {
-        if (isNull(value, express)) {
+    static Boolean checkPast(Object value, DateTimeFormatter formatter) {
+        if (isNull(value, null)) {
             return Boolean.FALSE;
         }
-        if (express == null || "".equals(express)) {
-            express = "yyyy-MM-dd HH:mm:ss";
-        }
         if (value instanceof String) {   // 通常json格式参数，都是以字符串类型传递，优先判断
             String v = ((String) value); //.replaceAll("[-/]", "");  // 验证参数，不能处理掉所有异常的符号
-            try {
-                LocalDateTime ldt = LocalDateTime.parse(v, DateTimeFormatter.ofPattern(express));
-                return LocalDateTime.now().isAfter(ldt);
-            } catch (Exception e) {
-                return Boolean.FALSE;
-            }
+            LocalDateTime ldt = QuietParser.parseDateTime(v, formatter);
+            return ldt != null && LocalDateTime.now().isAfter(ldt);
         }
         if (value instanceof Date) {
             return new Date().after((Date) value);
@@ -214,32 +241,16 @@ public class CheckUtil {
         return Boolean.FALSE;
     }
 
-    /**
-     * 判断参数是否是一个将来时间
-     * 支持Date类型
-     * 支持LocalDate类型
-     * 支持LocalDateTime类型
-     * 支持String类型，yyyy-MM-dd、yyyyMMdd、yyyy/MM/dd格式; 默认仅支持yyyy-MM-dd
-     * 支持String类型，yyyy-MM-dd HH:mm:ss、yyyyMMddHHmmss、yyyy/MM/dd HH:mm:ss格式； 默认仅支持yyyy-MM-dd HH:mm:ss
-     *
-     */
-    public static Boolean isFuture(Object value, String express) {
-        if (isNull(value, express)) {
+    static Boolean checkFuture(Object value, DateTimeFormatter formatter) {
+        if (isNull(value, null)) {
             return Boolean.FALSE;
         }
-        if (express == null || "".equals(express)) {
-            express = "yyyy-MM-dd HH:mm:ss";
-        }
         // 通常json格式参数，都是以字符串类型传递，优先判断
         if (value instanceof String) {
             // .replaceAll("[-/]", "");   验证参数，不能处理掉所有异常的符号
             String v = ((String) value);
-            try {
-                LocalDateTime ldt = LocalDateTime.parse(v, DateTimeFormatter.ofPattern(express));
-                return LocalDateTime.now().isBefore(ldt);
-            } catch (Exception e) {
-                return Boolean.FALSE;
-            }
+            LocalDateTime ldt = QuietParser.parseDateTime(v, formatter);
+            return ldt != null && LocalDateTime.now().isBefore(ldt);
         }
         if (value instanceof Date) {
             return new Date().before((Date) value);
@@ -253,31 +264,16 @@ public class CheckUtil {
         return Boolean.FALSE;
     }
 
-
-    /**
-     * 判断是否是今天的日期
-     * 支持Date类型
-     * 支持LocalDate类型
-     * 支持String类型，默认仅支持yyyy-MM-dd
-     *
-     */
-    public static Boolean isToday(Object value, String express) {
-        if (isNull(value, express)) {
+    static Boolean checkToday(Object value, DateTimeFormatter formatter) {
+        if (isNull(value, null)) {
             return Boolean.FALSE;
         }
-        if (express == null || "".equals(express)) {
-            express = "yyyy-MM-dd HH:mm:ss";
-        }
         // 通常json格式参数，都是以字符串类型传递，优先判断
         if (value instanceof String) {
             // .replaceAll("[-/]", "");  // 验证参数，不能处理掉所有异常的符号
             String v = ((String) value);
-            try {
-                LocalDate ld = LocalDate.parse(v, DateTimeFormatter.ofPattern(express));
-                return LocalDate.now().equals(ld);
-            } catch (Exception e) {
-                return Boolean.FALSE;
-            }
+            LocalDate ld = QuietParser.parseDate(v, formatter);
+            return ld != null && LocalDate.now().equals(ld);
         }
         if (value instanceof Date) {
             return new Date().equals(value);
@@ -345,6 +341,9 @@ public class CheckUtil {
         if (null == value) {
             return Boolean.FALSE;
         }
+        if (FormatScanner.isEnabled()) {
+            return FormatScanner.isMobile(String.valueOf(value));
+        }
         return MOBILE.matcher(String.valueOf(value)).matches();
     }
 
@@ -366,7 +365,7 @@ public class CheckUtil {
 
     /**
      * 判断参数的取值范围，逗号隔开，无空格；闭区间
-     * 支持Integer、Long、Short、Float、Double、BigDecimal
+     * 支持Byte、Short、Integer、Long、Float、Double、BigDecimal、BigInteger、AtomicInteger、AtomicLong等数值类型，按数值比较
      *
      */
     public static Boolean inRange(Object value, String rangeStr) {
@@ -376,44 +375,7 @@ public class CheckUtil {
         if (null == rangeStr || "".equals(rangeStr)) {
             return Boolean.FALSE;
         }
-        if (value instanceof Integer) {
-            int begin = Integer.parseInt(rangeStr.split(",")[0]);
-            int end = Integer.parseInt(rangeStr.split(",")[1]);
-            int v = ((Integer) value);
-            return begin <= v && v <= end;
-        }
-        if (value instanceof Long) {
-            long begin = Long.parseLong(rangeStr.split(",")[0]);
-            long end = Long.parseLong(rangeStr.split(",")[1]);
-            long v = ((Long) value);
-            return begin <= v && v <= end;
-        }
-        if (value instanceof Short) {
-            short begin = Short.parseShort(rangeStr.split(",")[0]);
-            short end = Short.parseShort(rangeStr.split(",")[1]);
-            short v = ((Short) value);
-            return begin <= v && v <= end;
-        }
-        if (value instanceof Float) {
-            float begin = Float.parseFloat(rangeStr.split(",")[0]);
-            float end = Float.parseFloat(rangeStr.split(",")[1]);
-            float v = ((Float) value);
-            return begin <= v && v <= end;
-        }
-        if (value instanceof Double) {
-            double begin = Double.parseDouble(rangeStr.split(",")[0]);
-            double end = Double.parseDouble(rangeStr.split(",")[1]);
-            double v = ((Double) value);
-            return begin <= v && v <= end;
-        }
-        if (value instanceof BigDecimal) {
-            BigDecimal begin = new BigDecimal(rangeStr.split(",")[0]);
-            BigDecimal end = new BigDecimal(rangeStr.split(",")[1]);
-            BigDecimal v = ((BigDecimal) value);
-            return begin.compareTo(v) <= 0 && v.compareTo(end) <= 0;
-        }
-
-        return Boolean.FALSE;
+        return value instanceof Number && NumericBound.range(rangeStr).contains(value);
     }
 
 
@@ -481,159 +443,51 @@ public class CheckUtil {
 
     /**
      * 是否大于指定值
-     * 支持Integer、Long、Short、Float、Double、BigDecimal
+     * 支持Byte、Short、Integer、Long、Float、Double、BigDecimal、BigInteger、AtomicInteger、AtomicLong等数值类型，按数值比较
      * 支持String，判断length值
      * 支持Collection，判断size的值
      *
      */
     public static Boolean isGreaterThan(Object value, String express) {
-        if (value == null) {
-            return Boolean.FALSE;
-        }
-        if (value instanceof Integer) {
-            return ((Integer) value) > Integer.parseInt(express);
-        }
-        if (value instanceof Long) {
-            return ((Long) value) > Long.parseLong(express);
-        }
-        if (value instanceof Short) {
-            return ((Short) value) > Short.parseShort(express);
-        }
-        if (value instanceof Float) {
-            return ((Float) value) > Float.parseFloat(express);
-        }
-        if (value instanceof Double) {
-            return ((Double) value) > Double.parseDouble(express);
-        }
-        if (value instanceof BigDecimal) {
-            return ((BigDecimal) value).compareTo(new BigDecimal(express)) > 0;
-        }
-        if (value instanceof String) {
-            return ((String) value).length() > Integer.parseInt(express);
-        }
-        if (value instanceof Collection) {
-            return ((Collection<?>) value).size() > Integer.parseInt(express);
-        }
-        return Boolean.FALSE;
+        return compare(PrimitiveChecks.GT, value, express, null);
     }
 
 
     /**
      * 是否大于等于
-     * 支持Integer、Long、Short、Float、Double、BigDecimal
+     * 支持Byte、Short、Integer、Long、Float、Double、BigDecimal、BigInteger、AtomicInteger、AtomicLong等数值类型，按数值比较
      * 支持String，判断length值
      * 支持Collection，判断size的值
      */
     public static Boolean isGreaterThanEqual(Object value, String express) {
-        if (value == null) {
-            return Boolean.FALSE;
-        }
-        if (value instanceof Integer) {
-            return ((Integer) value) >= Integer.parseInt(express);
-        }
-        if (value instanceof Long) {
-            return ((Long) value) >= Long.parseLong(express);
-        }
-        if (value instanceof Short) {
-            return ((Short) value) >= Short.parseShort(express);
-        }
-        if (value instanceof Float) {
-            return ((Float) value) >= Float.parseFloat(express);
-        }
-        if (value instanceof Double) {
-            return ((Double) value) >= Double.parseDouble(express);
-        }
-        if (value instanceof BigDecimal) {
-            return ((BigDecimal) value).compareTo(new BigDecimal(express)) >= 0;
-        }
-        if (value instanceof String) {
-            return ((String) value).length() >= Integer.parseInt(express);
-        }
-        if (value instanceof Collection) {
-            return ((Collection<?>) value).size() >= Integer.parseInt(express);
-        }
-        return Boolean.FALSE;
-
+        return compare(PrimitiveChecks.GTE, value, express, null);
     }
 
     /**
      * 是否少于
-     * 支持Integer、Long、Short、Float、Double、BigDecimal
+     * 支持Byte、Short、Integer、Long、Float、Double、BigDecimal、BigInteger、AtomicInteger、AtomicLong等数值类型，按数值比较
      * 支持String，判断length值
      * 支持Collection，判断size的值
      */
     public static Boolean isLessThan(Object value, String express) {
-        if (value == null) {
-            return Boolean.FALSE;
-        }
-        if (value instanceof Integer) {
-            return ((Integer) value) < Integer.parseInt(express);
-        }
-        if (value instanceof Long) {
-            return ((Long) value) < Long.parseLong(express);
-        }
-        if (value instanceof Short) {
-            return ((Short) value) < Short.parseShort(express);
-        }
-        if (value instanceof Float) {
-            return ((Float) value) < Float.parseFloat(express);
-        }
-        if (value instanceof Double) {
-            return ((Double) value) < Double.parseDouble(express);
-        }
-        if (value instanceof BigDecimal) {
-            return ((BigDecimal) value).compareTo(new BigDecimal(express)) < 0;
-        }
-        if (value instanceof String) {
-            return ((String) value).length() < Integer.parseInt(express);
-        }
-        if (value instanceof Collection) {
-            return ((Collection<?>) value).size() < Integer.parseInt(express);
-        }
-        return Boolean.FALSE;
+        return compare(PrimitiveChecks.LT, value, express, null);
     }
 
     /**
      * 是否少于等于
-     * 支持Integer、Long、Short、Float、Double、BigDecimal
+     * 支持Byte、Short、Integer、Long、Float、Double、BigDecimal、BigInteger、AtomicInteger、AtomicLong等数值类型，按数值比较
      * 支持String，判断length值
      * 支持Collection，判断size的值
      *
      */
     public static Boolean isLessThanEqual(Object value, String express) {
-        if (value == null) {
-            return Boolean.FALSE;
-        }
-        if (value instanceof Integer) {
-            return ((Integer) value) <= Integer.parseInt(express);
-        }
-        if (value instanceof Long) {
-            return ((Long) value) <= Long.parseLong(express);
-        }
-        if (value instanceof Short) {
-            return ((Short) value) <= Short.parseShort(express);
-        }
-        if (value instanceof Float) {
-            return ((Float) value) <= Float.parseFloat(express);
-        }
-        if (value instanceof Double) {
-            return ((Double) value) <= Double.parseDouble(express);
-        }
-        if (value instanceof BigDecimal) {
-            return ((BigDecimal) value).compareTo(new BigDecimal(express)) <= 0;
-        }
-        if (value instanceof String) {
-            return ((String) value).length() <= Integer.parseInt(express);
-        }
-        if (value instanceof Collection) {
-            return ((Collection<?>) value).size() <= Integer.parseInt(express);
-        }
-        return Boolean.FALSE;
+        return compare(PrimitiveChecks.LTE, value, express, null);
     }
 
     /**
      * 判断是否 notEqual指定的值
-     * 支持String、Integer、Long、Short、Float、Double、BigDecimal
+     * 支持String，比较字符串内容
+     * 支持Byte、Short、Integer、Long、Float、Double、BigDecimal、BigInteger、AtomicInteger、AtomicLong等数值类型，按数值比较
      * 支持Collection，判断size的值
      *
      */
@@ -643,52 +497,55 @@ public class CheckUtil {
 
     /**
      * 判断是否Equal指定的值
-     * 支持String、Integer、Long、Short、Float、Double、BigDecimal
+     * 支持String，比较字符串内容
+     * 支持Byte、Short、Integer、Long、Float、Double、BigDecimal、BigInteger、AtomicInteger、AtomicLong等数值类型，按数值比较
      * 支持Collection，判断size的值
      */
     public static Boolean isEqual(Object value, String express) {
+        return compare(PrimitiveChecks.EQ, value, express, null);
+    }
+
+
+    /**
+     * GT、GTE、LT、LTE、EQ 的公共实现，数值由 NumericBound 比较；String 在 EQ 时比较内容，其它时候比较长度
+     * bound 为 null 时从 NumericBound 的缓存按表达式获取
+     */
+    static boolean compare(int op, Object value, String express, NumericBound bound) {
         if (value == null) {
-            return Boolean.FALSE;
-        }
-        if (value instanceof String) {
-            return value.equals(express);
-        }
-        if (value instanceof Integer) {
-            return value.equals(Integer.valueOf(express));
-        }
-        if (value instanceof Long) {
-            return value.equals(Long.valueOf(express));
-        }
-        if (value instanceof Short) {
-            return value.equals(Short.valueOf(express));
-        }
-        if (value instanceof Float) {
-            return value.equals(Float.valueOf(express));
+            return false;
         }
-        if (value instanceof Double) {
-            return value.equals(Double.valueOf(express));
+        if (value instanceof Number) {
+            return (bound != null ? bound : NumericBound.of(express)).test(op, value);
         }
-        if (value instanceof BigDecimal) {
-            return ((BigDecimal) value).compareTo(new BigDecimal(express)) == 0;
+        if (value instanceof String) {
+            if (op == PrimitiveChecks.EQ) {
+                return value.equals(express);
+            }
+            return (bound != null ? bound : NumericBound.of(express)).testLong(op, ((String) value).length());
         }
         if (value instanceof Collection) {
-            return ((Collection<?>) value).size() == Integer.parseInt(express);
+            return (bound != null ? bound : NumericBound.of(express)).testLong(op, ((Collection<?>) value).size());
         }
-        return Boolean.FALSE;
+        return false;
     }
 
 
     /**
      * 判断String是否满足正则表达式
+     * 正则语言范围内的表达式使用缓存的 DfaPattern 线性匹配；其它表达式使用 PatternCache 中编译后的正则，
+     * 设置了 RegexGuard 的预算时，超出预算按不通过处理
      */
     public static Boolean isPattern(Object value, String regEx) {
         if (isNull(value, null)) {
             return Boolean.FALSE;
         }
         if (value instanceof String) {
-            Pattern p = Pattern.compile(regEx);
-            Matcher m = p.matcher((String) value);
-            if (m.matches()) {
+            DfaPattern dfa = DfaPattern.isEnabled() ? DfaPattern.compile(regEx) : null;
+            if (dfa != null) {
+                return dfa.matches((String) value);
+            }
+            Pattern p = PatternCache.compile(regEx);
+            if (RegexGuard.matches(p, (String) value)) {
                 return Boolean.TRUE;
             }
         }
@@ -759,6 +616,9 @@ public class CheckUtil {
         if (value == null) {
             return Boolean.FALSE;
         }
+        if (FormatScanner.isEnabled()) {
+            return FormatScanner.isIpv4(String.valueOf(value));
+        }
         return IPV4.matcher(String.valueOf(value)).matches();
     }
 
@@ -769,6 +629,9 @@ public class CheckUtil {
         if (value == null) {
             return Boolean.FALSE;
         }
+        if (FormatScanner.isEnabled()) {
+            return FormatScanner.isIpv6(String.valueOf(value));
+        }
         return IPV6.matcher(String.valueOf(value)).matches();
     }
 
@@ -780,6 +643,9 @@ public class CheckUtil {
         if (value == null) {
             return Boolean.FALSE;
         }
+        if (FormatScanner.isEnabled()) {
+            return FormatScanner.isMac(String.valueOf(value));
+        }
         return MAC_ADDRESS.matcher(String.valueOf(value)).matches();
     }
 
@@ -796,12 +662,15 @@ public class CheckUtil {
 
     /**
      * 验证是否为URL
-     *
+     * 默认使用 UrlValidator 的规则；UrlValidator.setEnabled(false) 时使用 java.net.URL
      */
     public static Boolean isUrl(Object value, String regEx) {
         if (value == null) {
             return Boolean.FALSE;
         }
+        if (UrlValidator.isEnabled()) {
+            return UrlValidator.getDefault().isValid(String.valueOf(value));
+        }
         try {
             new java.net.URL(String.valueOf(value));
         } catch (MalformedURLException e) {
@@ -867,6 +736,10 @@ public class CheckUtil {
         if (value == null) {
             return Boolean.FALSE;
         }
-        return RegexPattern.UUID.matcher(String.valueOf(value)).matches() || UUID_SIMPLE.matcher(String.valueOf(value)).matches();
+        String v = String.valueOf(value);
+        if (FormatScanner.isEnabled()) {
+            return FormatScanner.isUuid(v);
+        }
+        return RegexPattern.UUID.matcher(v).matches() || UUID_SIMPLE.matcher(v).matches();
     }
 }
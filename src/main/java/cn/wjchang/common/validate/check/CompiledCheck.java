@@ -0,0 +1,154 @@
+package cn.wjchang.common.validate.check;
+
+/**
+ * 预编译后的验证方法
+ * 表达式在编译时解析一次（范围、枚举集合、正则、日期格式等），之后可重复使用
+ * 不可变，线程安全；通过 {@link Check#compile(String)} 创建
+ */
+public abstract class CompiledCheck {
+
+    /**
+     * 验证的枚举方法
+     */
+    private final Check check;
+
+    /**
+     * 原始表达式
+     */
+    private final String express;
+
+    CompiledCheck(Check check, String express) {
+        this.check = check;
+        this.express = express;
+    }
+
+    public Check getCheck() {
+        return check;
+    }
+
+    public String getExpress() {
+        return express;
+    }
+
+    /**
+     * 错误码，自定义验证方法为 CustomCheck 的错误码
+     */
+    public int getCode() {
+        return check.code;
+    }
+
+    /**
+     * 默认的提示信息
+     */
+    public String getMsg() {
+        return check.msg;
+    }
+
+    public CheckCost getCost() {
+        return check.cost();
+    }
+
+    /**
+     * 使用预编译的表达式验证参数
+     *
+     * @param value 字段值
+     * @return true or false
+     */
+    public final boolean test(Object value) {
+        if (!CheckMetrics.enabled) {
+            return cached(value);
+        }
+        long start = CheckMetrics.start(check);
+        boolean passed = cached(value);
+        CheckMetrics.end(check, start, passed);
+        return passed;
+    }
+
+    /**
+     * 开启了 ResultCache 时先查缓存，和 Check.check 共用
+     */
+    private boolean cached(Object value) {
+        if (ResultCache.enabled) {
+            BoundedCache<Object, Boolean> cache = ResultCache.cacheFor(check, value);
+            if (cache != null) {
+                Object key = ResultCache.key(express, (String) value);
+                Boolean cached = cache.getIfPresent(key);
+                if (cached == null) {
+                    cached = evaluate(value);
+                    cache.put(key, cached);
+                }
+                return cached;
+            }
+        }
+        return evaluate(value);
+    }
+
+    /**
+     * 按 Long 类型的参数验证，不装箱；数值比较、范围类使用预先解析的边界值
+     * 不与 test(Object) 重载，int、float、char 等参数调用 test 时仍按各自的包装类型验证
+     */
+    public final boolean testLong(long value) {
+        if (!CheckMetrics.enabled) {
+            return evaluate(value);
+        }
+        long start = CheckMetrics.start(check);
+        boolean passed = evaluate(value);
+        CheckMetrics.end(check, start, passed);
+        return passed;
+    }
+
+    /**
+     * 按 Double 类型的参数验证，不装箱；数值比较、范围类使用预先解析的边界值
+     */
+    public final boolean testDouble(double value) {
+        if (!CheckMetrics.enabled) {
+            return evaluate(value);
+        }
+        long start = CheckMetrics.start(check);
+        boolean passed = evaluate(value);
+        CheckMetrics.end(check, start, passed);
+        return passed;
+    }
+
+    /**
+     * 按 String 类型的参数验证
+     */
+    public final boolean testChars(CharSequence value) {
+        if (!CheckMetrics.enabled) {
+            return cachedChars(value);
+        }
+        long start = CheckMetrics.start(check);
+        boolean passed = cachedChars(value);
+        CheckMetrics.end(check, start, passed);
+        return passed;
+    }
+
+    private boolean cachedChars(CharSequence value) {
+        if (ResultCache.enabled && value instanceof String) {
+            return cached(value);
+        }
+        return evaluate(value);
+    }
+
+    /**
+     * 各类型的验证实现，不统计指标；回退到枚举方法时调用 check.function，避免重复统计
+     */
+    abstract boolean evaluate(Object value);
+
+    boolean evaluate(long value) {
+        return check.function.testLong(value, express);
+    }
+
+    boolean evaluate(double value) {
+        return check.function.testDouble(value, express);
+    }
+
+    boolean evaluate(CharSequence value) {
+        return evaluate(value == null ? null : (Object) value.toString());
+    }
+
+    @Override
+    public String toString() {
+        return check + (express == null ? "" : "(" + express + ")");
+    }
+}
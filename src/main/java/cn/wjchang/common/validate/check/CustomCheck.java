@@ -0,0 +1,181 @@
+package cn.wjchang.common.validate.check;
+
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 自定义验证方法
+ * 注册到 {@link CheckRegistry} 后，通过 Check.Custom 和表达式 "name" 或 "name:express" 使用，
+ * 也可以直接传给 ValidateBuilder.vali、ValidationPlan.Builder.rule
+ *
+ * <pre>
+ * CustomCheck sku = CustomCheck.builder("sku")
+ *         .code(90001)
+ *         .msg("SKU格式错误")
+ *         .function((value, express) -&gt; value instanceof String &amp;&amp; ((String) value).startsWith(express))
+ *         .build();
+ * CheckRegistry.register(sku);
+ *
+ * ValidateBuilder.build().vali(sku, skuNo, "SKU-", null).doCheck();
+ * ValidateBuilder.build().vali(Check.Custom, skuNo, "sku:SKU-").doCheck();
+ * </pre>
+ */
+public final class CustomCheck {
+
+    private final String name;
+    private final int code;
+    private final String msg;
+    private final CheckCost cost;
+    private final CheckFunction function;
+    private final Function<String, CheckFunction> compiler;
+
+    private CustomCheck(Builder builder) {
+        this.name = builder.name;
+        this.code = builder.code;
+        this.msg = builder.msg;
+        this.cost = builder.cost;
+        this.function = builder.function;
+        this.compiler = builder.compiler;
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 错误码，不能和 Check 的错误码重复
+     */
+    public int getCode() {
+        return code;
+    }
+
+    public String getMsg() {
+        return msg;
+    }
+
+    public CheckCost getCost() {
+        return cost;
+    }
+
+    public CheckFunction getFunction() {
+        return function;
+    }
+
+    /**
+     * 验证参数，不预编译表达式，不要求已经注册
+     */
+    public boolean check(Object value, String express) {
+        return function.test(value, express);
+    }
+
+    /**
+     * 预编译表达式，编译结果可重复使用；没有设置 compiler 时每次把表达式传给 function
+     *
+     * @param express 表达式 非必填
+     * @return CompiledCheck，getCheck() 为 Check.Custom，getExpress() 为 "name:express"
+     */
+    public CompiledCheck compile(String express) {
+        return new CheckCompiler.CustomCompiledCheck(this, join(express), express);
+    }
+
+    /**
+     * 表达式对应的验证函数，compiler 返回的函数忽略传入的表达式
+     */
+    CheckFunction compileFunction(String express) {
+        if (compiler == null) {
+            return function;
+        }
+        CheckFunction compiled = compiler.apply(express);
+        if (compiled == null) {
+            throw new ParamsCheckException("compiler of custom check '" + name + "' returned null for: " + express);
+        }
+        return compiled;
+    }
+
+    private String join(String express) {
+        return express == null ? name : name + CheckRegistry.SEPARATOR + express;
+    }
+
+    @Override
+    public String toString() {
+        return "CustomCheck(" + name + ", " + code + ", " + cost + ")";
+    }
+
+    public static final class Builder {
+
+        private final String name;
+        private int code;
+        private String msg;
+        private CheckCost cost = CheckCost.CHEAP;
+        private CheckFunction function;
+        private Function<String, CheckFunction> compiler;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * 错误码，建议使用 10000 以上的值
+         */
+        public Builder code(int code) {
+            this.code = code;
+            return this;
+        }
+
+        /**
+         * 默认的提示信息
+         */
+        public Builder msg(String msg) {
+            this.msg = msg;
+            return this;
+        }
+
+        /**
+         * 开销类别，默认 CHEAP
+         */
+        public Builder cost(CheckCost cost) {
+            this.cost = Objects.requireNonNull(cost, "cost");
+            return this;
+        }
+
+        /**
+         * 验证函数，接收字段值和表达式；需要避免装箱时覆盖 CheckFunction 的 testLong、testDouble、testChars
+         */
+        public Builder function(CheckFunction function) {
+            this.function = function;
+            return this;
+        }
+
+        /**
+         * 表达式的预编译，可选：compile(express) 时调用一次，返回的函数和 function 对同一个表达式的结果必须相同
+         */
+        public Builder compiler(Function<String, CheckFunction> compiler) {
+            this.compiler = compiler;
+            return this;
+        }
+
+        public CustomCheck build() {
+            if (name == null || name.isEmpty() || name.indexOf(CheckRegistry.SEPARATOR) >= 0) {
+                throw new ParamsCheckException("custom check name can not be empty or contain '"
+                        + CheckRegistry.SEPARATOR + "': " + name);
+            }
+            if (function == null) {
+                throw new ParamsCheckException("function of custom check '" + name + "' can not be null");
+            }
+            if (Check.ofCode(code) != null) {
+                throw new ParamsCheckException("code " + code + " of custom check '" + name + "' is used by Check."
+                        + Check.ofCode(code));
+            }
+            if (msg == null || msg.isEmpty()) {
+                msg = Check.Custom.msg;
+            }
+            return new CustomCheck(this);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package cn.wjchang.common.validate.check;
+
+import java.util.regex.Pattern;
+
+/**
+ * Check.Pattern 的 DFA 实现
+ * 正则只包含正则语言的部分时（字符、字符类、分组、|、量词），编译为 DFA 状态转移表，
+ * 匹配时每个字符查一次表，时间和输入长度成线性，不回溯，不创建对象；编译结果缓存，有界
+ * <p>
+ * 支持：字面字符、.、[...]（不含嵌套和 &amp;&amp;）、\d \D \w \W \s \S \t \n \r \f \xhh \\uhhhh、转义的符号、
+ * (...)、(?:...)、(?&lt;name&gt;...)、|、* + ? {n} {n,} {n,m} 及其非贪婪形式、开头的 ^ 和结尾的 $
+ * <p>
+ * 其它构造（反向引用、环视、占有量词、\b、内联标志、\p{..} 等）或者状态数超过上限时 compile 返回 null，
+ * 由调用方使用 java.util.regex；输入包含代理字符时，matches 内部回退到 java.util.regex，结果和 Matcher.matches 一致
+ */
+public final class DfaPattern {
+
+    /**
+     * 默认最多缓存的条数，和 PatternCache 相同
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = PatternCache.DEFAULT_MAXIMUM_SIZE;
+
+    /**
+     * DFA 状态数上限，超过时不使用 DFA
+     */
+    static final int MAX_DFA_STATES = 2048;
+
+    private static volatile boolean enabled = true;
+
+    /**
+     * 不支持的正则缓存为 null，避免重复解析
+     */
+    private static final BoundedCache<String, DfaPattern> CACHE = new BoundedCache<>(DEFAULT_MAXIMUM_SIZE);
+
+    private final Pattern pattern;
+    private final Automaton automaton;
+
+    private DfaPattern(Pattern pattern, Automaton automaton) {
+        this.pattern = pattern;
+        this.automaton = automaton;
+    }
+
+    /**
+     * 设置 Check.Pattern 是否优先使用 DFA（默认true）
+     */
+    public static void setEnabled(boolean enabled) {
+        DfaPattern.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 编译正则，结果缓存
+     *
+     * @param regex 正则表达式
+     * @return DfaPattern，正则包含不支持的构造时返回 null
+     * @throws java.util.regex.PatternSyntaxException 正则非法
+     */
+    public static DfaPattern compile(String regex) {
+        return CACHE.get(regex, DfaPattern::build);
+    }
+
+    /**
+     * 设置最多缓存的条数
+     */
+    public static void setMaximumSize(int maximumSize) {
+        CACHE.setMaximumSize(maximumSize);
+    }
+
+    public static CacheStats stats() {
+        return CACHE.stats();
+    }
+
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    /**
+     * 整个输入是否匹配，等价于 pattern.matcher(input).matches()
+     */
+    public boolean matches(CharSequence input) {
+        int result = automaton.run(input);
+        if (result == Automaton.SURROGATE) {
+            // java.util.regex 按码点匹配，代理对交给它处理
+            return RegexGuard.matches(pattern, input);
+        }
+        return result != 0;
+    }
+
+    public String pattern() {
+        return pattern.pattern();
+    }
+
+    /**
+     * DFA 状态数，包括死状态
+     */
+    public int stateCount() {
+        return automaton.stateCount();
+    }
+
+    @Override
+    public String toString() {
+        return "DfaPattern(" + pattern.pattern() + ", " + automaton.stateCount() + " states)";
+    }
+
+    /**
+     * 非法的正则由 PatternCache 抛出异常；合法但不支持时返回 null
+     */
+    private static DfaPattern build(String regex) {
+        Pattern pattern = PatternCache.compile(regex);
+        Automaton automaton = Automaton.compile(new String[]{regex}, MAX_DFA_STATES);
+        return automaton == null ? null : new DfaPattern(pattern, automaton);
+    }
+}
@@ -0,0 +1,95 @@
+package cn.wjchang.common.validate.check;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 判断字符串符合哪些固定格式：Email、Mobile、Url、UUID、Ipv4、Ipv6、Mac、CitizenId
+ * 各格式的正则合并为一个 DFA，只扫描一次字符串，结果和逐个调用 Check.check 相同
+ * <p>
+ * Url 由 UrlValidator 判断，不是正则；扫描时只找出包含 ':' 的候选，再调用 Check.Url 确认
+ *
+ * <pre>
+ * Set&lt;Check&gt; formats = FormatClassifier.classify("192.168.1.1"); // [Ipv4]
+ * </pre>
+ */
+public final class FormatClassifier {
+
+    /**
+     * 参与判断的格式
+     */
+    public static final Set<Check> FORMATS = Collections.unmodifiableSet(EnumSet.of(
+            Check.Email, Check.Mobile, Check.Url, Check.UUID, Check.Ipv4, Check.Ipv6, Check.Mac, Check.CitizenId));
+
+    /**
+     * 和 REGEXES 一一对应
+     */
+    private static final Check[] CHECKS = {
+            Check.Email, Check.Mobile, Check.CitizenId, Check.UUID, Check.Ipv4, Check.Ipv6, Check.Mac, Check.Url
+    };
+
+    /**
+     * RegexPattern 中各格式在 matches 下的等价写法，去掉了 DFA 不支持的占有量词、环视、\b 和 CASE_INSENSITIVE；
+     * 最后一个是 Url 的候选条件
+     */
+    private static final String[] REGEXES = {
+            "[a-z0-9A-Z](?:[-|.]?[a-z0-9A-Z])+@(?:[a-z0-9A-Z]+(?:-[a-z0-9A-Z]+)?\\.)+[a-zA-Z]{2,}",
+            RegexPattern.MOBILE.pattern(),
+            RegexPattern.CITIZEN_ID.pattern(),
+            "[0-9a-z]{8}-[0-9a-z]{4}-[0-9a-z]{4}-[0-9a-z]{4}-[0-9a-z]{12}|[0-9a-z]{32}",
+            "(?:(?:\\d{1,2}|1\\d\\d|2[0-4]\\d|25[0-5])\\.){3}(?:\\d{1,2}|1\\d\\d|2[0-4]\\d|25[0-5])",
+            RegexPattern.IPV6.pattern(),
+            "(?:[A-Fa-f0-9]{1,2}[:-]){5}[A-Fa-f0-9]{1,2}|0[xX]\\d{12}.+[eE][tT][hH][eE][rR]",
+            "[^:]*:[\\s\\S]*"
+    };
+
+    private static final int URL_CANDIDATE = 1 << (CHECKS.length - 1);
+
+    /**
+     * 合并后约七百个状态，超过单个正则的上限，单独设置
+     */
+    private static final int MAX_STATES = 1 << 14;
+
+    private static final Automaton AUTOMATON = Automaton.compile(REGEXES, MAX_STATES);
+
+    private FormatClassifier() {
+    }
+
+    /**
+     * 字符串符合的格式，没有符合的格式或者参数为 null 时返回空集合
+     *
+     * @return 新创建的 EnumSet，可以修改
+     */
+    public static EnumSet<Check> classify(CharSequence value) {
+        EnumSet<Check> result = EnumSet.noneOf(Check.class);
+        if (value == null) {
+            return result;
+        }
+        int mask = AUTOMATON == null ? Automaton.SURROGATE : AUTOMATON.run(value);
+        if (mask == Automaton.SURROGATE) {
+            for (Check check : FORMATS) {
+                if (check.function.testChars(value, null)) {
+                    result.add(check);
+                }
+            }
+            return result;
+        }
+        for (int i = 0; i < CHECKS.length - 1; i++) {
+            if ((mask & (1 << i)) != 0) {
+                result.add(CHECKS[i]);
+            }
+        }
+        if ((mask & URL_CANDIDATE) != 0 && Check.Url.function.testChars(value, null)) {
+            result.add(Check.Url);
+        }
+        return result;
+    }
+
+    /**
+     * 合并后的 DFA 状态数，用于监控
+     */
+    static int stateCount() {
+        return AUTOMATON == null ? 0 : AUTOMATON.stateCount();
+    }
+}
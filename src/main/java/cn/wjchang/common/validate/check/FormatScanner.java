@@ -0,0 +1,356 @@
+package cn.wjchang.common.validate.check;
+
+/**
+ * 固定格式的逐字符扫描实现：UUID、Ipv4、Ipv6、Mac、Mobile
+ * 单次扫描，不回溯，不创建对象；匹配结果和 RegexPattern 中对应的正则完全一致
+ * 默认启用，setEnabled(false) 后 CheckUtil 改回使用正则
+ */
+public final class FormatScanner {
+
+    private static volatile boolean enabled = true;
+
+    private FormatScanner() {
+    }
+
+    /**
+     * 设置 CheckUtil 是否使用扫描实现（默认true），false 时使用 RegexPattern 中的正则
+     */
+    public static void setEnabled(boolean enabled) {
+        FormatScanner.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 等价于 RegexPattern.UUID 或 RegexPattern.UUID_SIMPLE
+     */
+    public static boolean isUuid(CharSequence s) {
+        int len = s.length();
+        if (len == 32) {
+            for (int i = 0; i < len; i++) {
+                if (!isLowerAlnum(s.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (len != 36) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (!isLowerAlnum(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 等价于 RegexPattern.IPV4
+     * 每段1到2位任意数字，或者100-255
+     */
+    public static boolean isIpv4(CharSequence s) {
+        return isIpv4(s, 0, s.length());
+    }
+
+    /**
+     * 等价于 RegexPattern.IPV6，包括 fe80 带 zone 的格式和内嵌 ipv4 的格式
+     */
+    public static boolean isIpv6(CharSequence s) {
+        int len = s.length();
+        if (len == 0) {
+            return false;
+        }
+        if (len > 5 && s.charAt(0) == 'f' && s.charAt(1) == 'e' && s.charAt(2) == '8' && s.charAt(3) == '0'
+                && s.charAt(4) == ':' && isFe80WithZone(s, len)) {
+            return true;
+        }
+        int i = 0;
+        int groups = 0;
+        // "::" 之前的段数，-1 表示没有 "::"
+        int compressedAfter = -1;
+        // "::" 之后第一个字符的位置
+        int compressedEnd = -1;
+        if (s.charAt(0) == ':') {
+            if (len < 2 || s.charAt(1) != ':') {
+                return false;
+            }
+            compressedAfter = 0;
+            compressedEnd = 2;
+            i = 2;
+            if (i == len) {
+                return true;
+            }
+        }
+        while (true) {
+            int start = i;
+            while (i < len && i - start < 5 && isHex(s.charAt(i))) {
+                i++;
+            }
+            int n = i - start;
+            if (n == 0 || n > 4) {
+                return false;
+            }
+            if (i == len) {
+                groups++;
+                break;
+            }
+            char c = s.charAt(i);
+            if (c == '.') {
+                return isEmbeddedIpv4(s, start, len, compressedAfter, compressedEnd);
+            }
+            if (c != ':') {
+                return false;
+            }
+            groups++;
+            i++;
+            if (i == len) {
+                return false;
+            }
+            if (s.charAt(i) == ':') {
+                if (compressedAfter >= 0) {
+                    return false;
+                }
+                compressedAfter = groups;
+                i++;
+                compressedEnd = i;
+                if (i == len) {
+                    break;
+                }
+            }
+        }
+        return compressedAfter >= 0 ? groups <= 7 : groups == 8;
+    }
+
+    /**
+     * 等价于 RegexPattern.MAC_ADDRESS（忽略大小写）
+     * 6段1到2位十六进制，以 : 或 - 分隔；或 0x + 12位数字 + 任意字符 + ETHER
+     */
+    public static boolean isMac(CharSequence s) {
+        int len = s.length();
+        if (len == 0) {
+            return false;
+        }
+        if (isHex(s.charAt(0))) {
+            int i = 0;
+            for (int group = 0; group < 6; group++) {
+                int start = i;
+                while (i < len && i - start < 3 && isHex(s.charAt(i))) {
+                    i++;
+                }
+                int n = i - start;
+                if (n == 0 || n > 2) {
+                    return isEtherMac(s, len);
+                }
+                if (group < 5) {
+                    if (i == len || (s.charAt(i) != ':' && s.charAt(i) != '-')) {
+                        return isEtherMac(s, len);
+                    }
+                    i++;
+                }
+            }
+            if (i == len) {
+                return true;
+            }
+        }
+        return isEtherMac(s, len);
+    }
+
+    /**
+     * 等价于 RegexPattern.MOBILE
+     * 可选前缀 0、86、+86，之后是 1[3-9] 开头的11位数字
+     */
+    public static boolean isMobile(CharSequence s) {
+        int len = s.length();
+        switch (len) {
+            case 11:
+                return isMobileNumber(s, 0);
+            case 12:
+                return s.charAt(0) == '0' && isMobileNumber(s, 1);
+            case 13:
+                return s.charAt(0) == '8' && s.charAt(1) == '6' && isMobileNumber(s, 2);
+            case 14:
+                return s.charAt(0) == '+' && s.charAt(1) == '8' && s.charAt(2) == '6' && isMobileNumber(s, 3);
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isMobileNumber(CharSequence s, int from) {
+        if (s.charAt(from) != '1') {
+            return false;
+        }
+        char second = s.charAt(from + 1);
+        if (second < '3' || second > '9') {
+            return false;
+        }
+        for (int i = from + 2; i < from + 11; i++) {
+            if (!isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * [from, to) 是否为4段ipv4
+     */
+    static boolean isIpv4(CharSequence s, int from, int to) {
+        int i = from;
+        for (int octet = 0; octet < 4; octet++) {
+            int start = i;
+            while (i < to && i - start < 4 && isDigit(s.charAt(i))) {
+                i++;
+            }
+            if (!isOctet(s, start, i - start)) {
+                return false;
+            }
+            if (octet < 3) {
+                if (i == to || s.charAt(i) != '.') {
+                    return false;
+                }
+                i++;
+            }
+        }
+        return i == to;
+    }
+
+    /**
+     * 1到2位任意数字；3位时为 1xx、2[0-4]x、25[0-5]
+     */
+    private static boolean isOctet(CharSequence s, int start, int n) {
+        if (n == 1 || n == 2) {
+            return true;
+        }
+        if (n != 3) {
+            return false;
+        }
+        char c0 = s.charAt(start);
+        char c1 = s.charAt(start + 1);
+        char c2 = s.charAt(start + 2);
+        if (c0 == '1') {
+            return true;
+        }
+        if (c0 != '2') {
+            return false;
+        }
+        return c1 < '5' || (c1 == '5' && c2 <= '5');
+    }
+
+    /**
+     * ::ipv4、::ffff:ipv4、::ffff:0{1,4}:ipv4，或者1到4段之后紧跟 ::ipv4
+     */
+    private static boolean isEmbeddedIpv4(CharSequence s, int start, int len, int compressedAfter, int compressedEnd) {
+        if (compressedAfter < 0) {
+            return false;
+        }
+        if (compressedAfter == 0) {
+            if (start != 2) {
+                if (start < 7 || s.charAt(2) != 'f' || s.charAt(3) != 'f' || s.charAt(4) != 'f'
+                        || s.charAt(5) != 'f' || s.charAt(6) != ':') {
+                    return false;
+                }
+                if (start != 7) {
+                    int zeros = start - 1 - 7;
+                    if (zeros < 1 || zeros > 4 || s.charAt(start - 1) != ':') {
+                        return false;
+                    }
+                    for (int i = 7; i < start - 1; i++) {
+                        if (s.charAt(i) != '0') {
+                            return false;
+                        }
+                    }
+                }
+            }
+        } else if (compressedAfter > 4 || compressedEnd != start) {
+            return false;
+        }
+        return isIpv4(s, start, len);
+    }
+
+    /**
+     * fe80:(:[0-9a-fA-F]{0,4}){0,4}%[0-9a-zA-Z]+
+     */
+    private static boolean isFe80WithZone(CharSequence s, int len) {
+        int i = 5;
+        int segments = 0;
+        while (i < len && s.charAt(i) == ':') {
+            if (++segments > 4) {
+                return false;
+            }
+            i++;
+            int start = i;
+            while (i < len && i - start < 4 && isHex(s.charAt(i))) {
+                i++;
+            }
+        }
+        if (i >= len || s.charAt(i) != '%') {
+            return false;
+        }
+        i++;
+        if (i == len) {
+            return false;
+        }
+        for (; i < len; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c) && !(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 0x + 12位数字 + 至少一个非换行字符 + ETHER（忽略大小写）
+     */
+    private static boolean isEtherMac(CharSequence s, int len) {
+        if (len < 20 || s.charAt(0) != '0' || (s.charAt(1) != 'x' && s.charAt(1) != 'X')) {
+            return false;
+        }
+        for (int i = 2; i < 14; i++) {
+            if (!isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        for (int i = 14; i < len - 5; i++) {
+            if (isLineTerminator(s.charAt(i))) {
+                return false;
+            }
+        }
+        String ether = "ETHER";
+        for (int i = 0; i < 5; i++) {
+            char c = s.charAt(len - 5 + i);
+            char upper = ether.charAt(i);
+            if (c != upper && c != (char) (upper + ('a' - 'A'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isHex(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static boolean isLowerAlnum(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z');
+    }
+
+    /**
+     * 正则中 . 不匹配的行结束符
+     */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == 0x85 || c == 0x2028 || c == 0x2029;
+    }
+}
@@ -0,0 +1,145 @@
+package cn.wjchang.common.validate.check;
+
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.util.Objects;
+
+/**
+ * 日期格式缓存
+ * Date、DateTime、Past、Future、Today 的格式只解析一次；默认的 yyyy-MM-dd、yyyy-MM-dd HH:mm:ss 预先创建
+ * DateTimeFormatter 本身是不可变、线程安全的，可以直接共享
+ * <p>
+ * 严格模式使用 ResolverStyle.STRICT，例如 2023-02-30 不再被宽松地解析为 2023-02-28；
+ * 严格模式下格式中的 yyyy（year-of-era）会按 uuuu（year）处理，否则没有纪元的日期无法解析
+ */
+public final class FormatterCache {
+
+    public static final String DATE_PATTERN = "yyyy-MM-dd";
+    public static final String DATE_TIME_PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    /**
+     * 默认最多缓存的格式条数
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 128;
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern(DATE_PATTERN);
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern(DATE_TIME_PATTERN);
+    private static final DateTimeFormatter STRICT_DATE = strict(DATE_PATTERN);
+    private static final DateTimeFormatter STRICT_DATE_TIME = strict(DATE_TIME_PATTERN);
+
+    private static final BoundedCache<String, DateTimeFormatter> SMART_CACHE = new BoundedCache<>(DEFAULT_MAXIMUM_SIZE);
+    private static final BoundedCache<String, DateTimeFormatter> STRICT_CACHE = new BoundedCache<>(DEFAULT_MAXIMUM_SIZE);
+
+    /**
+     * 日期验证默认是否使用严格模式
+     */
+    private static volatile boolean strict = false;
+
+    private FormatterCache() {
+    }
+
+    /**
+     * 按默认模式获取格式
+     *
+     * @param pattern 日期格式
+     * @return DateTimeFormatter
+     * @throws IllegalArgumentException 格式非法
+     */
+    public static DateTimeFormatter ofPattern(String pattern) {
+        return ofPattern(pattern, strict);
+    }
+
+    /**
+     * 获取格式
+     *
+     * @param pattern 日期格式
+     * @param strict  是否严格模式
+     * @return DateTimeFormatter
+     * @throws IllegalArgumentException 格式非法
+     */
+    public static DateTimeFormatter ofPattern(String pattern, boolean strict) {
+        Objects.requireNonNull(pattern, "pattern");
+        if (DATE_PATTERN.equals(pattern)) {
+            return strict ? STRICT_DATE : DATE;
+        }
+        if (DATE_TIME_PATTERN.equals(pattern)) {
+            return strict ? STRICT_DATE_TIME : DATE_TIME;
+        }
+        return strict
+                ? STRICT_CACHE.get(pattern, FormatterCache::strict)
+                : SMART_CACHE.get(pattern, DateTimeFormatter::ofPattern);
+    }
+
+    /**
+     * 是否为预先创建的 yyyy-MM-dd 格式（宽松或严格模式）
+     */
+    static boolean isDefaultDate(DateTimeFormatter formatter) {
+        return formatter == DATE || formatter == STRICT_DATE;
+    }
+
+    /**
+     * 是否为预先创建的 yyyy-MM-dd HH:mm:ss 格式（宽松或严格模式）
+     */
+    static boolean isDefaultDateTime(DateTimeFormatter formatter) {
+        return formatter == DATE_TIME || formatter == STRICT_DATE_TIME;
+    }
+
+    /**
+     * 设置日期验证默认是否使用严格模式，已经编译的 CompiledCheck 不受影响
+     */
+    public static void setStrict(boolean strict) {
+        FormatterCache.strict = strict;
+    }
+
+    public static boolean isStrict() {
+        return strict;
+    }
+
+    /**
+     * 设置最多缓存的格式条数（宽松、严格模式分别计算）
+     */
+    public static void setMaximumSize(int maximumSize) {
+        SMART_CACHE.setMaximumSize(maximumSize);
+        STRICT_CACHE.setMaximumSize(maximumSize);
+    }
+
+    /**
+     * 宽松、严格模式合并后的统计信息
+     */
+    public static CacheStats stats() {
+        CacheStats smart = SMART_CACHE.stats();
+        CacheStats strictStats = STRICT_CACHE.stats();
+        return new CacheStats(smart.getHitCount() + strictStats.getHitCount(),
+                smart.getMissCount() + strictStats.getMissCount(),
+                smart.getEvictionCount() + strictStats.getEvictionCount(),
+                smart.getSize() + strictStats.getSize(),
+                smart.getMaximumSize() + strictStats.getMaximumSize());
+    }
+
+    public static void clear() {
+        SMART_CACHE.clear();
+        STRICT_CACHE.clear();
+    }
+
+    private static DateTimeFormatter strict(String pattern) {
+        return DateTimeFormatter.ofPattern(yearOfEraToYear(pattern)).withResolverStyle(ResolverStyle.STRICT);
+    }
+
+    /**
+     * 把单引号以外的 y 替换为 u
+     */
+    private static String yearOfEraToYear(String pattern) {
+        StringBuilder sb = new StringBuilder(pattern.length());
+        boolean quoted = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (c == 'y' && !quoted) {
+                c = 'u';
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,291 @@
+package cn.wjchang.common.validate.check;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static cn.wjchang.common.validate.check.PrimitiveChecks.EQ;
+import static cn.wjchang.common.validate.check.PrimitiveChecks.GT;
+import static cn.wjchang.common.validate.check.PrimitiveChecks.GTE;
+import static cn.wjchang.common.validate.check.PrimitiveChecks.LT;
+import static cn.wjchang.common.validate.check.PrimitiveChecks.LTE;
+import static cn.wjchang.common.validate.check.PrimitiveChecks.NEQ;
+
+/**
+ * 数值比较：GT、GTE、LT、LTE、EQ、NEQ、IN、NotIn 共用
+ * 边界值只解析一次，同时保存精确值（BigDecimal）和浮点值，不可变，线程安全
+ * <p>
+ * Byte、Short、Integer、Long、AtomicInteger、AtomicLong、LongAdder、LongAccumulator、BigInteger 按精确值比较，
+ * 边界值可以是小数或超出参数类型的范围，例如 Integer 和 "3000000000"、Long 和 "5.5"；
+ * 除了超过 64 位的 BigInteger，比较时不创建对象
+ * <p>
+ * Float、Double、DoubleAdder、DoubleAccumulator 和原来一样与 Double.parseDouble（Float 为 Float.parseFloat）的结果比较，
+ * EQ 和 Double.equals 一致；BigDecimal 按 compareTo 比较
+ * <p>
+ * 边界值不能按参数需要的方式解析时抛出 NumberFormatException
+ */
+final class NumericBound {
+
+    /**
+     * 默认最多缓存的表达式条数
+     */
+    static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    /**
+     * 边界值为 NaN 时的比较结果
+     */
+    private static final int UNORDERED = 2;
+
+    private static final NumericBound NULL = new NumericBound(null);
+
+    /**
+     * CheckUtil 等不能预编译的地方每次传入表达式，解析结果按表达式缓存
+     */
+    private static final BoundedCache<String, NumericBound> BOUNDS = new BoundedCache<>(DEFAULT_MAXIMUM_SIZE);
+    private static final BoundedCache<String, Range> RANGES = new BoundedCache<>(DEFAULT_MAXIMUM_SIZE);
+
+    private final String token;
+
+    /**
+     * 精确值，不能解析时为 null；"1.5f" 之类只有 Double.parseDouble 能解析的有限值取 double 的精确值
+     */
+    private final BigDecimal decimal;
+
+    private final boolean doubleOk;
+    private final double doubleVal;
+    private final float floatVal;
+
+    private final boolean nan;
+
+    /**
+     * 和 long 比较时使用：floor 为向下取整的值，integral 表示边界值是整数；
+     * 超出 long 的范围（包括无穷大）时 above 或 below 为 true
+     */
+    private final long floor;
+    private final boolean integral;
+    private final boolean above;
+    private final boolean below;
+
+    private NumericBound(String token) {
+        this.token = token;
+        this.doubleOk = QuietParser.isDouble(token);
+        this.doubleVal = doubleOk ? Double.parseDouble(token) : 0D;
+        this.floatVal = doubleOk ? Float.parseFloat(token) : 0F;
+        BigDecimal d = QuietParser.parseDecimal(token);
+        if (d == null && doubleOk && !Double.isNaN(doubleVal) && !Double.isInfinite(doubleVal)) {
+            d = new BigDecimal(doubleVal);
+        }
+        this.decimal = d;
+        this.nan = d == null && doubleOk && Double.isNaN(doubleVal);
+        long f = 0;
+        boolean i = false;
+        boolean a = false;
+        boolean b = false;
+        if (d != null) {
+            // 整数部分超过 19 位时一定超出 long 的范围，不需要取整
+            if (d.precision() - d.scale() > 19) {
+                a = d.signum() > 0;
+                b = d.signum() < 0;
+            } else {
+                BigDecimal rounded = d.setScale(0, RoundingMode.FLOOR);
+                BigInteger integer = rounded.toBigIntegerExact();
+                a = integer.bitLength() > 63 && integer.signum() > 0;
+                b = integer.bitLength() > 63 && integer.signum() < 0;
+                f = integer.longValue();
+                i = rounded.compareTo(d) == 0;
+            }
+        } else if (doubleOk && Double.isInfinite(doubleVal)) {
+            a = doubleVal > 0;
+            b = doubleVal < 0;
+        }
+        this.floor = f;
+        this.integral = i;
+        this.above = a;
+        this.below = b;
+    }
+
+    /**
+     * 解析边界值，不缓存；表达式非法时不抛出异常，比较时才抛出
+     */
+    static NumericBound parse(String token) {
+        return token == null ? NULL : new NumericBound(token);
+    }
+
+    /**
+     * 解析边界值，结果缓存
+     */
+    static NumericBound of(String token) {
+        return token == null ? NULL : BOUNDS.get(token, NumericBound::new);
+    }
+
+    /**
+     * 解析 "begin,end" 范围，结果缓存；缺少 "," 时抛出 NumberFormatException
+     */
+    static Range range(String express) {
+        return RANGES.get(express, Range::new);
+    }
+
+    /**
+     * value op 边界值，value 为 JDK 中的 Number 类型，其它类型返回 false
+     */
+    boolean test(int op, Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || value instanceof AtomicInteger || value instanceof AtomicLong
+                || value instanceof LongAdder || value instanceof LongAccumulator) {
+            return testLong(op, ((Number) value).longValue());
+        }
+        if (value instanceof Double || value instanceof DoubleAdder || value instanceof DoubleAccumulator) {
+            return testDouble(op, ((Number) value).doubleValue());
+        }
+        if (value instanceof Float) {
+            return testFloat(op, (Float) value);
+        }
+        if (value instanceof BigDecimal) {
+            return holds(op, compare((BigDecimal) value));
+        }
+        if (value instanceof BigInteger) {
+            return holds(op, compare((BigInteger) value));
+        }
+        return false;
+    }
+
+    /**
+     * 整数参数（包括 String 的长度、Collection 的大小）按精确值比较
+     */
+    boolean testLong(int op, long value) {
+        return holds(op, compare(value));
+    }
+
+    boolean testDouble(int op, double value) {
+        if (!doubleOk) {
+            throw invalid();
+        }
+        return PrimitiveChecks.compare(op, value, doubleVal);
+    }
+
+    /**
+     * float 转为 double 不改变大小和 floatToIntBits 的相等关系，可以直接按 double 比较
+     */
+    boolean testFloat(int op, float value) {
+        if (!doubleOk) {
+            throw invalid();
+        }
+        return PrimitiveChecks.compare(op, (double) value, (double) floatVal);
+    }
+
+    private int compare(long value) {
+        if (decimal == null) {
+            exact();
+            return nan ? UNORDERED : above ? -1 : 1;
+        }
+        if (above) {
+            return -1;
+        }
+        if (below) {
+            return 1;
+        }
+        if (value != floor) {
+            return value > floor ? 1 : -1;
+        }
+        return integral ? 0 : -1;
+    }
+
+    private int compare(BigDecimal value) {
+        if (decimal == null) {
+            exact();
+            return nan ? UNORDERED : above ? -1 : 1;
+        }
+        return Integer.signum(value.compareTo(decimal));
+    }
+
+    private int compare(BigInteger value) {
+        if (value.bitLength() < 64) {
+            return compare(value.longValue());
+        }
+        if (decimal == null) {
+            exact();
+            return nan ? UNORDERED : above ? -1 : 1;
+        }
+        return Integer.signum(new BigDecimal(value).compareTo(decimal));
+    }
+
+    /**
+     * 没有精确值时只能是 NaN 或者无穷大
+     */
+    private void exact() {
+        if (!nan && !above && !below) {
+            throw invalid();
+        }
+    }
+
+    private static boolean holds(int op, int c) {
+        if (c == UNORDERED) {
+            return op == NEQ;
+        }
+        switch (op) {
+            case GT:
+                return c > 0;
+            case GTE:
+                return c >= 0;
+            case LT:
+                return c < 0;
+            case LTE:
+                return c <= 0;
+            case EQ:
+                return c == 0;
+            default:
+                return c != 0;
+        }
+    }
+
+    private NumberFormatException invalid() {
+        return token == null ? new NumberFormatException("null")
+                : new NumberFormatException("For input string: \"" + token + "\"");
+    }
+
+    /**
+     * 闭区间 "begin,end"，多余的部分忽略
+     */
+    static final class Range {
+
+        private final NumericBound begin;
+        private final NumericBound end;
+
+        private Range(String express) {
+            int comma = express.indexOf(',');
+            if (comma < 0) {
+                throw new NumberFormatException("range must be 'begin,end': " + express);
+            }
+            int next = express.indexOf(',', comma + 1);
+            this.begin = new NumericBound(express.substring(0, comma));
+            this.end = new NumericBound(express.substring(comma + 1, next < 0 ? express.length() : next));
+        }
+
+        /**
+         * 上下界都会比较，任何一个不能解析时都抛出异常
+         */
+        boolean contains(Object value) {
+            boolean lower = begin.test(GTE, value);
+            boolean upper = end.test(LTE, value);
+            return lower && upper;
+        }
+
+        boolean containsLong(long value) {
+            boolean lower = begin.testLong(GTE, value);
+            boolean upper = end.testLong(LTE, value);
+            return lower && upper;
+        }
+
+        boolean containsDouble(double value) {
+            boolean lower = begin.testDouble(GTE, value);
+            boolean upper = end.testDouble(LTE, value);
+            return lower && upper;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package cn.wjchang.common.validate.check;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * 编译后的正则缓存
+ * Check.Pattern 的表达式只编译一次；有界，超过容量淘汰最近最少使用的正则
+ * 表达式非法时抛出 PatternSyntaxException，不缓存
+ */
+public final class PatternCache {
+
+    /**
+     * 默认最多缓存的正则条数
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    /**
+     * flags == 0 时直接以表达式字符串为key，查找不需要创建对象
+     */
+    private static final BoundedCache<Object, Pattern> CACHE = new BoundedCache<>(DEFAULT_MAXIMUM_SIZE);
+
+    private PatternCache() {
+    }
+
+    /**
+     * 获取编译后的正则
+     *
+     * @param regex 正则表达式
+     * @return Pattern
+     */
+    public static Pattern compile(String regex) {
+        Objects.requireNonNull(regex, "regex");
+        return CACHE.get(regex, k -> Pattern.compile((String) k));
+    }
+
+    /**
+     * 获取编译后的正则
+     *
+     * @param regex 正则表达式
+     * @param flags Pattern的flags
+     * @return Pattern
+     */
+    public static Pattern compile(String regex, int flags) {
+        if (flags == 0) {
+            return compile(regex);
+        }
+        Objects.requireNonNull(regex, "regex");
+        return CACHE.get(new Key(regex, flags), k -> Pattern.compile(((Key) k).regex, ((Key) k).flags));
+    }
+
+    /**
+     * 设置最多缓存的正则条数
+     */
+    public static void setMaximumSize(int maximumSize) {
+        CACHE.setMaximumSize(maximumSize);
+    }
+
+    public static CacheStats stats() {
+        return CACHE.stats();
+    }
+
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    private static final class Key {
+        private final String regex;
+        private final int flags;
+
+        private Key(String regex, int flags) {
+            this.regex = regex;
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return flags == key.flags && regex.equals(key.regex);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * regex.hashCode() + flags;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package cn.wjchang.common.validate.check;
+
+import java.util.function.Predicate;
+
+/**
+ * 基本类型参数的验证实现
+ * long 按 Long、double 按 Double 的规则验证，CharSequence 按 String 的规则验证；参数不装箱
+ * 范围表达式 "begin,end" 缺少上界时抛出 NumberFormatException
+ */
+final class PrimitiveChecks {
+
+    static final int GT = 1;
+    static final int GTE = 2;
+    static final int LT = 3;
+    static final int LTE = 4;
+    static final int EQ = 5;
+    static final int NEQ = 6;
+    static final int IN = 7;
+    static final int NOT_IN = 8;
+
+    private PrimitiveChecks() {
+    }
+
+    /**
+     * 数值比较、范围类的验证方法
+     */
+    static CheckFunction numeric(CheckFunction function, int op) {
+        return new NumericFunction(function, op);
+    }
+
+    /**
+     * 固定格式类的验证方法，CharSequence 参数直接扫描，不转换为String
+     */
+    static CheckFunction format(CheckFunction function, Predicate<CharSequence> scanner) {
+        return new FormatFunction(function, scanner);
+    }
+
+    static boolean compare(int op, long v, long b) {
+        switch (op) {
+            case GT:
+                return v > b;
+            case GTE:
+                return v >= b;
+            case LT:
+                return v < b;
+            case LTE:
+                return v <= b;
+            case EQ:
+                return v == b;
+            default:
+                return v != b;
+        }
+    }
+
+    static boolean compare(int op, double v, double b) {
+        switch (op) {
+            case GT:
+                return v > b;
+            case GTE:
+                return v >= b;
+            case LT:
+                return v < b;
+            case LTE:
+                return v <= b;
+            case EQ:
+                // 和 Double.equals 一致
+                return Double.doubleToLongBits(v) == Double.doubleToLongBits(b);
+            default:
+                return Double.doubleToLongBits(v) != Double.doubleToLongBits(b);
+        }
+    }
+
+    static final class NumericFunction implements CheckFunction {
+
+        private final CheckFunction function;
+        private final int op;
+
+        NumericFunction(CheckFunction function, int op) {
+            this.function = function;
+            this.op = op;
+        }
+
+        @Override
+        public boolean test(Object value, String express) {
+            return function.test(value, express);
+        }
+
+        @Override
+        public boolean testLong(long value, String express) {
+            if (op == IN || op == NOT_IN) {
+                if (express == null || "".equals(express)) {
+                    return op == NOT_IN;
+                }
+                return NumericBound.range(express).containsLong(value) == (op == IN);
+            }
+            return NumericBound.of(express).testLong(op, value);
+        }
+
+        @Override
+        public boolean testDouble(double value, String express) {
+            if (op == IN || op == NOT_IN) {
+                if (express == null || "".equals(express)) {
+                    return op == NOT_IN;
+                }
+                return NumericBound.range(express).containsDouble(value) == (op == IN);
+            }
+            return NumericBound.of(express).testDouble(op, value);
+        }
+    }
+
+    static final class FormatFunction implements CheckFunction {
+
+        private final CheckFunction function;
+        private final Predicate<CharSequence> scanner;
+
+        FormatFunction(CheckFunction function, Predicate<CharSequence> scanner) {
+            this.function = function;
+            this.scanner = scanner;
+        }
+
+        @Override
+        public boolean test(Object value, String express) {
+            return function.test(value, express);
+        }
+
+        @Override
+        public boolean testChars(CharSequence value, String express) {
+            if (value == null) {
+                return false;
+            }
+            if (FormatScanner.isEnabled()) {
+                return scanner.test(value);
+            }
+            return function.test(value.toString(), express);
+        }
+    }
+
+    /**
+     * 等价于 Long.parseLong(s.substring(from, to))，不创建子串
+     */
+    static long parseLong(String s, int from, int to) {
+        if (from >= to) {
+            throw new NumberFormatException("For input string: \"" + s.substring(from, to) + "\"");
+        }
+        boolean negative = false;
+        int i = from;
+        char first = s.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == to) {
+                throw new NumberFormatException("For input string: \"" + s.substring(from, to) + "\"");
+            }
+        }
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multmin = limit / 10;
+        long result = 0;
+        for (; i < to; i++) {
+            int digit = Character.digit(s.charAt(i), 10);
+            if (digit < 0 || result < multmin) {
+                throw new NumberFormatException("For input string: \"" + s.substring(from, to) + "\"");
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw new NumberFormatException("For input string: \"" + s.substring(from, to) + "\"");
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+}
@@ -0,0 +1,464 @@
+package cn.wjchang.common.validate.check;
+
+import java.math.BigDecimal;
+import java.text.ParsePosition;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * 不抛出异常的解析，非法的日期、数字返回 null 或 false
+ * 参数大量非法时，创建异常（填充堆栈）比解析本身慢一个数量级，这里先扫描，确定能解析后才调用 JDK 的解析
+ * <p>
+ * 默认的两种日期格式直接按数字布局计算；其它格式先用 parseUnresolved 按格式扫描，再检查各字段的取值范围，
+ * 都通过后才完整解析，结果和 LocalDate.parse 相同；星期和日期不一致之类的跨字段冲突仍由完整解析判断，只是不常见
+ */
+final class QuietParser {
+
+    /**
+     * 日期格式中可能出现、需要检查取值范围的字段
+     */
+    private static final ChronoField[] DATE_FIELDS = {
+            ChronoField.ERA, ChronoField.YEAR_OF_ERA, ChronoField.YEAR, ChronoField.MONTH_OF_YEAR,
+            ChronoField.DAY_OF_MONTH, ChronoField.DAY_OF_YEAR, ChronoField.DAY_OF_WEEK, ChronoField.AMPM_OF_DAY,
+            ChronoField.HOUR_OF_DAY, ChronoField.CLOCK_HOUR_OF_DAY, ChronoField.HOUR_OF_AMPM,
+            ChronoField.CLOCK_HOUR_OF_AMPM, ChronoField.MINUTE_OF_HOUR, ChronoField.SECOND_OF_MINUTE,
+            ChronoField.NANO_OF_SECOND
+    };
+
+    /**
+     * 默认格式 yyyy-MM-dd、yyyy-MM-dd HH:mm:ss 的长度
+     */
+    private static final int DATE_LENGTH = 10;
+    private static final int DATE_TIME_LENGTH = 19;
+
+    private QuietParser() {
+    }
+
+    /**
+     * 等价于 LocalDate.parse(text, formatter)，不能解析时返回 null
+     */
+    static LocalDate parseDate(String text, DateTimeFormatter formatter) {
+        int layout = layout(text, formatter);
+        if (layout != 0) {
+            LocalDateTime dateTime = parseDefault(text, layout, formatter.getResolverStyle() == ResolverStyle.STRICT);
+            return dateTime == null ? null : dateTime.toLocalDate();
+        }
+        TemporalAccessor parsed = scan(text, formatter);
+        if (parsed == null || !hasDate(parsed)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(text, formatter);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 等价于 LocalDateTime.parse(text, formatter)，不能解析时返回 null
+     */
+    static LocalDateTime parseDateTime(String text, DateTimeFormatter formatter) {
+        int layout = layout(text, formatter);
+        if (layout == DATE_LENGTH) {
+            return null;
+        }
+        if (layout != 0) {
+            return parseDefault(text, layout, formatter.getResolverStyle() == ResolverStyle.STRICT);
+        }
+        TemporalAccessor parsed = scan(text, formatter);
+        if (parsed == null || !hasDate(parsed) || !hasTime(parsed)) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(text, formatter);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 等价于 parseDate(text, formatter) != null，默认格式不创建对象
+     */
+    static boolean isDate(String text, DateTimeFormatter formatter) {
+        int layout = layout(text, formatter);
+        if (layout != 0) {
+            return resolveDay(text, layout, formatter.getResolverStyle() == ResolverStyle.STRICT) > 0;
+        }
+        return parseDate(text, formatter) != null;
+    }
+
+    /**
+     * 等价于 parseDateTime(text, formatter) != null，默认格式不创建对象
+     */
+    static boolean isDateTime(String text, DateTimeFormatter formatter) {
+        int layout = layout(text, formatter);
+        if (layout == DATE_LENGTH) {
+            return false;
+        }
+        if (layout != 0) {
+            return resolveDay(text, layout, formatter.getResolverStyle() == ResolverStyle.STRICT) > 0;
+        }
+        return parseDateTime(text, formatter) != null;
+    }
+
+    /**
+     * 默认格式下字符串是固定的 ASCII 数字布局时返回它的长度，否则返回 0 交给通用的解析
+     * yyyy 在年份为四位时只读取四位数字，和 DateTimeFormatter 的解析结果相同；宽松模式的 24:00:00 不在这里处理
+     */
+    private static int layout(String text, DateTimeFormatter formatter) {
+        if (text == null) {
+            return 0;
+        }
+        int length = text.length();
+        if (length == DATE_LENGTH && FormatterCache.isDefaultDate(formatter)
+                || length == DATE_TIME_LENGTH && FormatterCache.isDefaultDateTime(formatter)) {
+            for (int i = 0; i < length; i++) {
+                char c = text.charAt(i);
+                boolean ok;
+                switch (i) {
+                    case 4:
+                    case 7:
+                        ok = c == '-';
+                        break;
+                    case 10:
+                        ok = c == ' ';
+                        break;
+                    case 13:
+                    case 16:
+                        ok = c == ':';
+                        break;
+                    default:
+                        ok = c >= '0' && c <= '9';
+                }
+                if (!ok) {
+                    return 0;
+                }
+            }
+            return length == DATE_TIME_LENGTH && digits(text, 11, 13) == 24 ? 0 : length;
+        }
+        return 0;
+    }
+
+    private static LocalDateTime parseDefault(String text, int layout, boolean strict) {
+        int day = resolveDay(text, layout, strict);
+        if (day < 0) {
+            return null;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        if (layout == DATE_LENGTH) {
+            return LocalDateTime.of(year, month, day, 0, 0);
+        }
+        return LocalDateTime.of(year, month, day, digits(text, 11, 13), digits(text, 14, 16), digits(text, 17, 19));
+    }
+
+    /**
+     * 按解析器的规则计算默认格式的日，不合法时返回 -1：宽松模式没有第 0 年，超过月末的日期按月末处理；严格模式不合法
+     */
+    private static int resolveDay(String text, int layout, boolean strict) {
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        if (month < 1 || month > 12 || day < 1 || day > 31 || year == 0 && !strict) {
+            return -1;
+        }
+        int last = Month.of(month).length(Year.isLeap(year));
+        if (day > last) {
+            if (strict) {
+                return -1;
+            }
+            day = last;
+        }
+        if (layout == DATE_TIME_LENGTH
+                && (digits(text, 11, 13) > 23 || digits(text, 14, 16) > 59 || digits(text, 17, 19) > 59)) {
+            return -1;
+        }
+        return day;
+    }
+
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            value = value * 10 + text.charAt(i) - '0';
+        }
+        return value;
+    }
+
+    /**
+     * 按格式扫描整个字符串并检查字段的取值范围，不合法时返回 null；返回的字段还没有解析为日期
+     */
+    private static TemporalAccessor scan(String text, DateTimeFormatter formatter) {
+        if (text == null || formatter == null) {
+            return null;
+        }
+        ParsePosition position = new ParsePosition(0);
+        TemporalAccessor parsed = formatter.parseUnresolved(text, position);
+        if (parsed == null || position.getErrorIndex() >= 0 || position.getIndex() != text.length()) {
+            return null;
+        }
+        ResolverStyle style = formatter.getResolverStyle();
+        if (style == ResolverStyle.LENIENT) {
+            return parsed;
+        }
+        for (ChronoField field : DATE_FIELDS) {
+            if (!parsed.isSupported(field)) {
+                continue;
+            }
+            long value = parsed.getLong(field);
+            if (!field.range().isValidValue(value) && !(style == ResolverStyle.SMART && smartAccepts(field, value))) {
+                return null;
+            }
+        }
+        // 宽松模式下超过月末的日期按月末处理，只有严格模式需要检查
+        return style != ResolverStyle.STRICT || dayInMonth(parsed) ? parsed : null;
+    }
+
+    /**
+     * 没有年份的格式一定不能得到日期
+     */
+    private static boolean hasDate(TemporalAccessor parsed) {
+        return parsed.isSupported(ChronoField.YEAR_OF_ERA) || parsed.isSupported(ChronoField.YEAR)
+                || parsed.isSupported(ChronoField.EPOCH_DAY);
+    }
+
+    /**
+     * 没有小时的格式一定不能得到时间
+     */
+    private static boolean hasTime(TemporalAccessor parsed) {
+        return parsed.isSupported(ChronoField.HOUR_OF_DAY) || parsed.isSupported(ChronoField.CLOCK_HOUR_OF_DAY)
+                || parsed.isSupported(ChronoField.HOUR_OF_AMPM) || parsed.isSupported(ChronoField.CLOCK_HOUR_OF_AMPM)
+                || parsed.isSupported(ChronoField.SECOND_OF_DAY) || parsed.isSupported(ChronoField.MINUTE_OF_DAY)
+                || parsed.isSupported(ChronoField.MILLI_OF_DAY) || parsed.isSupported(ChronoField.MICRO_OF_DAY)
+                || parsed.isSupported(ChronoField.NANO_OF_DAY);
+    }
+
+    /**
+     * SMART 模式对超出范围的值的特殊处理：24:00 为第二天的 00:00，由完整解析判断；k、h 为 0 时按 24、12 处理
+     */
+    private static boolean smartAccepts(ChronoField field, long value) {
+        if (field == ChronoField.HOUR_OF_DAY) {
+            return value == 24;
+        }
+        return value == 0 && (field == ChronoField.CLOCK_HOUR_OF_DAY || field == ChronoField.CLOCK_HOUR_OF_AMPM);
+    }
+
+    private static boolean dayInMonth(TemporalAccessor parsed) {
+        if (!parsed.isSupported(ChronoField.MONTH_OF_YEAR) || !parsed.isSupported(ChronoField.DAY_OF_MONTH)) {
+            return true;
+        }
+        Month month = Month.of((int) parsed.getLong(ChronoField.MONTH_OF_YEAR));
+        long day = parsed.getLong(ChronoField.DAY_OF_MONTH);
+        if (parsed.isSupported(ChronoField.YEAR)) {
+            return day <= month.length(Year.isLeap(parsed.getLong(ChronoField.YEAR)));
+        }
+        if (parsed.isSupported(ChronoField.YEAR_OF_ERA)) {
+            long yearOfEra = parsed.getLong(ChronoField.YEAR_OF_ERA);
+            boolean ce = !parsed.isSupported(ChronoField.ERA) || parsed.getLong(ChronoField.ERA) == 1;
+            return day <= month.length(Year.isLeap(ce ? yearOfEra : 1 - yearOfEra));
+        }
+        return day <= month.maxLength();
+    }
+
+    /**
+     * s[from, to) 能否被 Long.parseLong 解析，规则和 PrimitiveChecks.parseLong 相同
+     */
+    static boolean isLong(CharSequence s, int from, int to) {
+        if (from >= to) {
+            return false;
+        }
+        int i = from;
+        char first = s.charAt(i);
+        boolean negative = first == '-';
+        if ((negative || first == '+') && ++i == to) {
+            return false;
+        }
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multmin = limit / 10;
+        long result = 0;
+        for (; i < to; i++) {
+            int digit = Character.digit(s.charAt(i), 10);
+            if (digit < 0 || result < multmin) {
+                return false;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return false;
+            }
+            result -= digit;
+        }
+        return true;
+    }
+
+    /**
+     * s[from, to) 能否被 Integer.parseInt 解析
+     */
+    static boolean isInt(String s, int from, int to) {
+        if (!isLong(s, from, to)) {
+            return false;
+        }
+        long value = PrimitiveChecks.parseLong(s, from, to);
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * 能否被 Double.valueOf、Float.valueOf 解析：前后的空白、NaN、Infinity、十六进制和 f、d 后缀，和 JDK 的语法相同
+     */
+    static boolean isDouble(String s) {
+        if (s == null) {
+            return false;
+        }
+        int len = s.length();
+        int from = 0;
+        while (from < len && s.charAt(from) <= ' ') {
+            from++;
+        }
+        while (len > from && s.charAt(len - 1) <= ' ') {
+            len--;
+        }
+        int i = from;
+        if (i < len && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+            i++;
+        }
+        if (i == len) {
+            return false;
+        }
+        if (s.startsWith("NaN", i)) {
+            return i + 3 == len;
+        }
+        if (s.startsWith("Infinity", i)) {
+            return i + 8 == len;
+        }
+        if (i + 1 < len && s.charAt(i) == '0' && (s.charAt(i + 1) == 'x' || s.charAt(i + 1) == 'X')) {
+            return isHexDouble(s, i + 2, len);
+        }
+        int digits = 0;
+        boolean dot = false;
+        for (; i < len; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < len && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i = exponent(s, i + 1, len);
+            if (i < 0) {
+                return false;
+            }
+        }
+        return i == len || i == len - 1 && isFloatSuffix(s.charAt(i));
+    }
+
+    /**
+     * 0x 之后的部分：有效数字、必须有的 p 指数、可选的后缀
+     */
+    private static boolean isHexDouble(String s, int i, int len) {
+        int digits = 0;
+        boolean dot = false;
+        for (; i < len; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F') {
+                digits++;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0 || i == len || (s.charAt(i) != 'p' && s.charAt(i) != 'P')) {
+            return false;
+        }
+        i = exponent(s, i + 1, len);
+        return i >= 0 && (i == len || i == len - 1 && isFloatSuffix(s.charAt(i)));
+    }
+
+    /**
+     * 指数的符号和 ASCII 数字，返回结束位置，没有数字时返回 -1
+     */
+    private static int exponent(String s, int i, int len) {
+        if (i < len && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+            i++;
+        }
+        int start = i;
+        while (i < len && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+            i++;
+        }
+        return i == start ? -1 : i;
+    }
+
+    private static boolean isFloatSuffix(char c) {
+        return c == 'f' || c == 'F' || c == 'd' || c == 'D';
+    }
+
+    /**
+     * 等价于 new BigDecimal(s)，不能解析时返回 null
+     * 先按 BigDecimal 的语法扫描（数字可以是 Unicode 数字），只有指数超出范围时才会由构造方法抛出异常
+     */
+    static BigDecimal parseDecimal(String s) {
+        if (!isDecimal(s)) {
+            return null;
+        }
+        try {
+            return new BigDecimal(s);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean isDecimal(String s) {
+        if (s == null) {
+            return false;
+        }
+        int len = s.length();
+        int i = 0;
+        if (i < len && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+            i++;
+        }
+        int digits = 0;
+        boolean dot = false;
+        for (; i < len; i++) {
+            char c = s.charAt(i);
+            if (Character.isDigit(c)) {
+                digits++;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i == len) {
+            return true;
+        }
+        if (s.charAt(i) != 'e' && s.charAt(i) != 'E') {
+            return false;
+        }
+        i++;
+        if (i < len && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+            i++;
+        }
+        if (i == len) {
+            return false;
+        }
+        for (; i < len; i++) {
+            if (!Character.isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
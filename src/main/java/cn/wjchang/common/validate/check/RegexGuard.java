@@ -0,0 +1,168 @@
+package cn.wjchang.common.validate.check;
+
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * 有预算的正则匹配，用于调用方提供的正则（Check.Pattern）
+ * 回溯型的正则引擎遇到构造的输入可能运行很久；启用后输入包装为计数的 CharSequence，
+ * 读取字符的次数超过 maxSteps、耗时超过 timeout 或者线程被中断时中止匹配，按不通过处理
+ * 默认不启用，行为和直接调用 Matcher.matches 相同
+ *
+ * <pre>
+ * RegexGuard.setMaxSteps(100_000);
+ * RegexGuard.setTimeout(20, TimeUnit.MILLISECONDS);
+ * </pre>
+ */
+public final class RegexGuard {
+
+    /**
+     * 每读取这么多次字符检查一次时间和中断状态
+     */
+    private static final int CHECK_INTERVAL = 1 << 10;
+
+    /**
+     * 中止匹配用，不填充堆栈，不会传到调用方
+     */
+    private static final Aborted ABORTED = new Aborted();
+
+    private static volatile long maxSteps;
+    private static volatile long timeoutNanos;
+
+    private static final LongAdder abortedCount = new LongAdder();
+
+    private RegexGuard() {
+    }
+
+    /**
+     * 设置每次匹配最多读取字符的次数，0 表示不限制（默认）
+     * 线性的正则读取次数约为输入长度的几倍，回溯越多次数越大
+     */
+    public static void setMaxSteps(long maxSteps) {
+        if (maxSteps < 0) {
+            throw new ParamsCheckException("maxSteps can not be negative: " + maxSteps);
+        }
+        RegexGuard.maxSteps = maxSteps;
+    }
+
+    public static long getMaxSteps() {
+        return maxSteps;
+    }
+
+    /**
+     * 设置每次匹配的最长时间，0 表示不限制（默认）
+     */
+    public static void setTimeout(long timeout, TimeUnit unit) {
+        if (timeout < 0) {
+            throw new ParamsCheckException("timeout can not be negative: " + timeout);
+        }
+        timeoutNanos = unit.toNanos(timeout);
+    }
+
+    public static long getTimeout(TimeUnit unit) {
+        return unit.convert(timeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 是否设置了步数或时间的限制
+     */
+    public static boolean isEnabled() {
+        return maxSteps > 0 || timeoutNanos > 0;
+    }
+
+    /**
+     * 因为超出预算或线程中断而中止的匹配次数
+     */
+    public static long getAbortedCount() {
+        return abortedCount.sum();
+    }
+
+    /**
+     * 使用全局的预算匹配整个输入，没有设置预算时等价于 pattern.matcher(input).matches()
+     */
+    public static boolean matches(Pattern pattern, CharSequence input) {
+        long steps = maxSteps;
+        long timeout = timeoutNanos;
+        if (steps == 0 && timeout == 0) {
+            return pattern.matcher(input).matches();
+        }
+        return matches(pattern, input, steps, timeout);
+    }
+
+    /**
+     * 使用指定的预算匹配整个输入，超出预算或线程被中断时返回false，不清除中断状态
+     *
+     * @param maxSteps     最多读取字符的次数，0 表示不限制
+     * @param timeoutNanos 最长时间（纳秒），0 表示不限制
+     */
+    public static boolean matches(Pattern pattern, CharSequence input, long maxSteps, long timeoutNanos) {
+        GuardedChars guarded = new GuardedChars(input, maxSteps, timeoutNanos);
+        try {
+            return pattern.matcher(guarded).matches();
+        } catch (Aborted e) {
+            abortedCount.increment();
+            return false;
+        }
+    }
+
+    /**
+     * 每次 charAt 计一步，每 CHECK_INTERVAL 步检查一次时间和中断状态
+     */
+    private static final class GuardedChars implements CharSequence {
+
+        private final CharSequence chars;
+        private final long maxSteps;
+        private final long deadline;
+        private final boolean timed;
+        private long steps;
+
+        GuardedChars(CharSequence chars, long maxSteps, long timeoutNanos) {
+            this.chars = chars;
+            this.maxSteps = maxSteps == 0 ? Long.MAX_VALUE : maxSteps;
+            this.timed = timeoutNanos > 0;
+            this.deadline = timed ? System.nanoTime() + timeoutNanos : 0;
+        }
+
+        @Override
+        public char charAt(int index) {
+            long n = ++steps;
+            if (n > maxSteps) {
+                throw ABORTED;
+            }
+            if ((n & (CHECK_INTERVAL - 1)) == 0) {
+                if (Thread.currentThread().isInterrupted() || (timed && System.nanoTime() - deadline > 0)) {
+                    throw ABORTED;
+                }
+            }
+            return chars.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return chars.length();
+        }
+
+        /**
+         * Matcher 只在读取分组时调用，不计步数
+         */
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return chars.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return chars.toString();
+        }
+    }
+
+    private static final class Aborted extends RuntimeException {
+
+        Aborted() {
+            super("regex match aborted", null, false, false);
+        }
+    }
+}
@@ -5,8 +5,10 @@ import java.util.regex.Pattern;
 public class RegexPattern {
     /**
      * 邮箱
+     * 原来的写法 ^([a-z0-9A-Z]+[-|\\.]?)+[a-z0-9A-Z]@... 有嵌套量词，构造的输入会指数级回溯；
+     * 改写为每个字符只有一种匹配方式的等价形式，并使用占有量词，匹配时间和长度成线性
      */
-    public final static Pattern EMAIL = Pattern.compile("^([a-z0-9A-Z]+[-|\\.]?)+[a-z0-9A-Z]@([a-z0-9A-Z]+(-[a-z0-9A-Z]+)?\\.)+[a-zA-Z]{2,}$");
+    public final static Pattern EMAIL = Pattern.compile("^[a-z0-9A-Z](?:[-|.]?[a-z0-9A-Z])++@(?:[a-z0-9A-Z]++(?:-[a-z0-9A-Z]++)?\\.)++[a-zA-Z]{2,}+$");
 
     /**
      * 英文字母 、数字和下划线
@@ -0,0 +1,225 @@
+package cn.wjchang.common.validate.check;
+
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+
+import java.util.EnumMap;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 验证结果缓存，按验证方法单独开启
+ * 同一个值反复出现时（商户的 Url、CreditCode、Email 等），直接返回上一次的结果；
+ * 以（表达式，值）为 key，每个验证方法一个有界缓存，读不加锁，超过容量淘汰最近最少访问的条目，可以设置过期时间
+ * 只缓存长度不超过 maxValueLength 的 String 值，其它类型的值可能被修改，直接验证
+ * <p>
+ * Check.check 和 CompiledCheck.test 都会使用缓存，两者结果相同，共用同一个缓存；
+ * 结果和当前时间有关的 Past、Future、Today 必须设置过期时间；
+ * CheckRegistry 注册、取消注册时自动清空 Check.Custom 的缓存；修改了 RegexGuard、DfaPattern 等会影响结果的设置后，请调用 clear
+ *
+ * <pre>
+ * ResultCache.enable(Check.Url);
+ * ResultCache.enable(Check.CitizenId, 50_000);
+ * ResultCache.enable(Check.Today, 10_000, 1, TimeUnit.MINUTES);
+ *
+ * double hitRate = ResultCache.stats(Check.Url).hitRate();
+ * </pre>
+ */
+public final class ResultCache {
+
+    /**
+     * 默认每个验证方法最多缓存的条数
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    /**
+     * 默认缓存的值的最大长度
+     */
+    public static final int DEFAULT_MAX_VALUE_LENGTH = 256;
+
+    /**
+     * 是否有验证方法开启了缓存，全部关闭时只多读一次 volatile 静态字段
+     */
+    static volatile boolean enabled;
+
+    /**
+     * 按 Check.ordinal 保存的缓存；写时复制，enable、disable 在锁内复制整个数组后替换，读取不加锁
+     */
+    private static volatile BoundedCache<Object, Boolean>[] caches = newTable(Check.values().length);
+
+    private static volatile int maxValueLength = DEFAULT_MAX_VALUE_LENGTH;
+
+    private ResultCache() {
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static BoundedCache<Object, Boolean>[] newTable(int length) {
+        return new BoundedCache[length];
+    }
+
+    /**
+     * 开启缓存，使用默认的容量，不过期；已经开启时替换原来的缓存
+     *
+     * @throws ParamsCheckException Past、Future、Today 没有设置过期时间
+     */
+    public static void enable(Check check) {
+        enable(check, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public static void enable(Check check, int maximumSize) {
+        enable(check, maximumSize, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 开启缓存
+     *
+     * @param check       验证方法
+     * @param maximumSize 最多缓存的条数
+     * @param ttl         写入后的有效时间，0 表示不过期
+     * @param unit        ttl 的单位
+     * @throws ParamsCheckException Past、Future、Today 没有设置过期时间
+     */
+    public static synchronized void enable(Check check, int maximumSize, long ttl, TimeUnit unit) {
+        Objects.requireNonNull(check, "check");
+        if (maximumSize <= 0) {
+            throw new ParamsCheckException("maximumSize must be positive: " + maximumSize);
+        }
+        if (ttl < 0) {
+            throw new ParamsCheckException("ttl can not be negative: " + ttl);
+        }
+        if (ttl == 0 && isTimeSensitive(check)) {
+            throw new ParamsCheckException("result of " + check + " depends on the current time, ttl is required");
+        }
+        BoundedCache<Object, Boolean>[] table = caches.clone();
+        table[check.ordinal()] = new BoundedCache<>(maximumSize, unit.toNanos(ttl));
+        caches = table;
+        enabled = true;
+    }
+
+    /**
+     * 关闭缓存，已经缓存的结果被丢弃
+     */
+    public static synchronized void disable(Check check) {
+        BoundedCache<Object, Boolean>[] table = caches.clone();
+        table[check.ordinal()] = null;
+        boolean any = false;
+        for (BoundedCache<Object, Boolean> cache : table) {
+            any |= cache != null;
+        }
+        caches = table;
+        enabled = any;
+    }
+
+    public static boolean isEnabled(Check check) {
+        return caches[check.ordinal()] != null;
+    }
+
+    /**
+     * 结果和当前时间有关的验证方法
+     */
+    static boolean isTimeSensitive(Check check) {
+        return check == Check.Past || check == Check.Future || check == Check.Today;
+    }
+
+    /**
+     * 设置缓存的值的最大长度（默认256），更长的值直接验证
+     */
+    public static void setMaxValueLength(int maxValueLength) {
+        if (maxValueLength < 0) {
+            throw new ParamsCheckException("maxValueLength can not be negative: " + maxValueLength);
+        }
+        ResultCache.maxValueLength = maxValueLength;
+    }
+
+    public static int getMaxValueLength() {
+        return maxValueLength;
+    }
+
+    /**
+     * 验证方法的缓存统计，没有开启时返回 null
+     */
+    public static CacheStats stats(Check check) {
+        BoundedCache<Object, Boolean> cache = caches[check.ordinal()];
+        return cache == null ? null : cache.stats();
+    }
+
+    /**
+     * 开启了缓存的验证方法的统计
+     */
+    public static EnumMap<Check, CacheStats> stats() {
+        EnumMap<Check, CacheStats> stats = new EnumMap<>(Check.class);
+        for (Check check : Check.values()) {
+            CacheStats s = stats(check);
+            if (s != null) {
+                stats.put(check, s);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * 清空全部缓存的结果，保留开启状态和统计
+     */
+    public static void clear() {
+        for (BoundedCache<Object, Boolean> cache : caches) {
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * 清空一个验证方法缓存的结果
+     */
+    static void clear(Check check) {
+        BoundedCache<Object, Boolean> cache = caches[check.ordinal()];
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * 没有开启缓存的验证方法、不缓存的值返回 null
+     */
+    static BoundedCache<Object, Boolean> cacheFor(Check check, Object value) {
+        BoundedCache<Object, Boolean> cache = caches[check.ordinal()];
+        if (cache == null || !(value instanceof String) || ((String) value).length() > maxValueLength) {
+            return null;
+        }
+        return cache;
+    }
+
+    /**
+     * 表达式为 null 时直接以值为 key，查找不需要创建对象
+     */
+    static Object key(String express, String value) {
+        return express == null ? value : new Key(express, value);
+    }
+
+    private static final class Key {
+
+        private final String express;
+        private final String value;
+
+        Key(String express, String value) {
+            this.express = express;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return value.equals(key.value) && express.equals(key.express);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * express.hashCode() + value.hashCode();
+        }
+    }
+}
@@ -0,0 +1,574 @@
+package cn.wjchang.common.validate.check;
+
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Check.Url 的实现：按 RFC 3986 的语法单次扫描 URL，不创建 java.net.URL，不抛出异常，不创建对象
+ * scheme ":" ["//" [userinfo "@"] host [":" port]] path ["?" query] ["#" fragment]
+ * <p>
+ * 默认规则：scheme 为 http、https、ftp（忽略大小写）；必须有 host；host 为域名（按 DNS 规则：
+ * 每段1到63个字母、数字或 -，不以 - 开头或结尾，总长不超过253）、ipv4 或 [ipv6]；端口不超过65535；
+ * 不允许空白和非 ASCII 字符，其它字符需要按 %XX 编码；总长不超过2048
+ * <p>
+ * setEnabled(false) 后 Check.Url 改回使用 java.net.URL
+ *
+ * <pre>
+ * UrlValidator.setDefault(UrlValidator.builder()
+ *         .schemes("https")
+ *         .allowIpHost(false)
+ *         .allowSingleLabelHost(false)
+ *         .build());
+ *
+ * UrlValidator links = UrlValidator.builder().schemes("http", "https").allowNonAscii(true).build();
+ * links.isValid(url);
+ * </pre>
+ */
+public final class UrlValidator {
+
+    /**
+     * 默认允许的 scheme，不可修改
+     */
+    public static final List<String> DEFAULT_SCHEMES =
+            Collections.unmodifiableList(Arrays.asList("http", "https", "ftp"));
+
+    public static final int DEFAULT_MAX_LENGTH = 2048;
+
+    private static final int MAX_HOST_LENGTH = 253;
+    private static final int MAX_LABEL_LENGTH = 63;
+
+    private static final byte UNRESERVED = 1;
+    private static final byte SUB_DELIM = 2;
+    private static final byte HEX = 4;
+
+    /**
+     * ASCII 字符的类别
+     */
+    private static final byte[] CLASS = new byte[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            CLASS[c] |= UNRESERVED;
+            CLASS[c - 'a' + 'A'] |= UNRESERVED;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            CLASS[c] |= UNRESERVED | HEX;
+        }
+        for (char c = 'a'; c <= 'f'; c++) {
+            CLASS[c] |= HEX;
+            CLASS[c - 'a' + 'A'] |= HEX;
+        }
+        for (char c : "-._~".toCharArray()) {
+            CLASS[c] |= UNRESERVED;
+        }
+        for (char c : "!$&'()*+,;=".toCharArray()) {
+            CLASS[c] |= SUB_DELIM;
+        }
+    }
+
+    private static volatile boolean enabled = true;
+
+    private static volatile UrlValidator defaultValidator = builder().build();
+
+    /**
+     * 小写，null 表示允许任意 scheme
+     */
+    private final String[] schemes;
+    private final boolean requireHost;
+    private final boolean allowIpHost;
+    private final boolean allowSingleLabelHost;
+    private final boolean allowUserInfo;
+    private final boolean allowNonAscii;
+    private final int maxLength;
+
+    private UrlValidator(Builder builder) {
+        this.schemes = builder.schemes;
+        this.requireHost = builder.requireHost;
+        this.allowIpHost = builder.allowIpHost;
+        this.allowSingleLabelHost = builder.allowSingleLabelHost;
+        this.allowUserInfo = builder.allowUserInfo;
+        this.allowNonAscii = builder.allowNonAscii;
+        this.maxLength = builder.maxLength;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 设置 Check.Url 是否使用 UrlValidator（默认true），false 时使用 java.net.URL
+     */
+    public static void setEnabled(boolean enabled) {
+        UrlValidator.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 设置 Check.Url 使用的规则
+     */
+    public static void setDefault(UrlValidator validator) {
+        defaultValidator = Objects.requireNonNull(validator, "validator");
+    }
+
+    public static UrlValidator getDefault() {
+        return defaultValidator;
+    }
+
+    /**
+     * Check.Url 的扫描实现，使用默认的规则
+     */
+    static boolean isUrl(CharSequence s) {
+        return enabled ? defaultValidator.isValid(s) : CheckUtil.isUrl(s.toString(), null);
+    }
+
+    /**
+     * 是否为符合规则的 URL
+     */
+    public boolean isValid(CharSequence s) {
+        if (s == null) {
+            return false;
+        }
+        int len = s.length();
+        if (len == 0 || len > maxLength || !isAlpha(s.charAt(0))) {
+            return false;
+        }
+        int i = 1;
+        while (i < len && isSchemeChar(s.charAt(i))) {
+            i++;
+        }
+        if (i == len || s.charAt(i) != ':' || !isAllowedScheme(s, i)) {
+            return false;
+        }
+        i++;
+        if (i + 1 < len && s.charAt(i) == '/' && s.charAt(i + 1) == '/') {
+            i += 2;
+            int end = i;
+            while (end < len) {
+                char c = s.charAt(end);
+                if (c == '/' || c == '?' || c == '#') {
+                    break;
+                }
+                end++;
+            }
+            if (!isAuthority(s, i, end)) {
+                return false;
+            }
+            i = end;
+        } else if (requireHost) {
+            return false;
+        }
+        // path
+        i = scan(s, i, len, '/', '/');
+        if (i < len && s.charAt(i) == '?') {
+            i = scan(s, i + 1, len, '/', '?');
+        }
+        if (i < len && s.charAt(i) == '#') {
+            i = scan(s, i + 1, len, '/', '?');
+        }
+        return i == len;
+    }
+
+    /**
+     * 扫描 pchar 和 extra1、extra2，返回第一个不符合的位置
+     */
+    private int scan(CharSequence s, int i, int len, char extra1, char extra2) {
+        while (i < len) {
+            char c = s.charAt(i);
+            if (c == '%') {
+                if (!isPercentEncoded(s, i, len)) {
+                    return i;
+                }
+                i += 3;
+                continue;
+            }
+            if (!(isPchar(c) || c == extra1 || c == extra2 || isAllowedNonAscii(c))) {
+                return i;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * [userinfo "@"] host [":" port]
+     */
+    private boolean isAuthority(CharSequence s, int from, int to) {
+        int host = from;
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == '@') {
+                if (!allowUserInfo || !isUserInfo(s, from, i)) {
+                    return false;
+                }
+                host = i + 1;
+                break;
+            }
+        }
+        if (host == to) {
+            return !requireHost;
+        }
+        int hostEnd;
+        if (s.charAt(host) == '[') {
+            hostEnd = host + 1;
+            while (hostEnd < to && s.charAt(hostEnd) != ']') {
+                hostEnd++;
+            }
+            if (hostEnd == to || !allowIpHost || !isIpLiteral(s, host + 1, hostEnd)) {
+                return false;
+            }
+            hostEnd++;
+        } else {
+            hostEnd = host;
+            while (hostEnd < to && s.charAt(hostEnd) != ':') {
+                hostEnd++;
+            }
+            if (!isHostName(s, host, hostEnd)) {
+                return false;
+            }
+        }
+        if (hostEnd == to) {
+            return true;
+        }
+        return s.charAt(hostEnd) == ':' && isPort(s, hostEnd + 1, to);
+    }
+
+    private boolean isUserInfo(CharSequence s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c == '%') {
+                if (!isPercentEncoded(s, i, to)) {
+                    return false;
+                }
+                i += 2;
+            } else if (!(isUnreservedOrSubDelim(c) || c == ':' || isAllowedNonAscii(c))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 域名或 ipv4；各段都是数字时按 ipv4 验证
+     */
+    private boolean isHostName(CharSequence s, int from, int to) {
+        int len = to - from;
+        if (len == 0) {
+            return !requireHost;
+        }
+        if (s.charAt(to - 1) == '.') {
+            // 结尾的 . 表示根域名
+            to--;
+            len--;
+        }
+        if (len == 0 || len > MAX_HOST_LENGTH) {
+            return false;
+        }
+        boolean numeric = true;
+        int labels = 0;
+        int start = from;
+        for (int i = from; i <= to; i++) {
+            char c = i == to ? '.' : s.charAt(i);
+            if (c == '.') {
+                int n = i - start;
+                if (n == 0 || n > MAX_LABEL_LENGTH || s.charAt(start) == '-' || s.charAt(i - 1) == '-') {
+                    return false;
+                }
+                labels++;
+                start = i + 1;
+            } else if (c >= '0' && c <= '9') {
+                continue;
+            } else if (isAlpha(c) || c == '-' || isAllowedNonAscii(c)) {
+                numeric = false;
+            } else {
+                return false;
+            }
+        }
+        if (numeric) {
+            return allowIpHost && labels == 4 && isIpv4(s, from, to);
+        }
+        return labels > 1 || allowSingleLabelHost;
+    }
+
+    /**
+     * IPv6address 或 IPvFuture，不包含方括号
+     */
+    private static boolean isIpLiteral(CharSequence s, int from, int to) {
+        if (from < to && (s.charAt(from) == 'v' || s.charAt(from) == 'V')) {
+            int i = from + 1;
+            while (i < to && isHex(s.charAt(i))) {
+                i++;
+            }
+            if (i == from + 1 || i == to || s.charAt(i) != '.' || ++i == to) {
+                return false;
+            }
+            for (; i < to; i++) {
+                char c = s.charAt(i);
+                if (!(isUnreservedOrSubDelim(c) || c == ':')) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return isIpv6(s, from, to);
+    }
+
+    /**
+     * RFC 3986 的 IPv6address：8组 h16，可以用一次 "::" 省略，最后两组可以写成 ipv4
+     */
+    static boolean isIpv6(CharSequence s, int from, int to) {
+        int groups = 0;
+        boolean compressed = false;
+        int i = from;
+        if (to - from >= 2 && s.charAt(i) == ':' && s.charAt(i + 1) == ':') {
+            compressed = true;
+            i += 2;
+            if (i == to) {
+                return true;
+            }
+        }
+        while (true) {
+            int start = i;
+            while (i < to && i - start < 4 && isHex(s.charAt(i))) {
+                i++;
+            }
+            if (i == start) {
+                return false;
+            }
+            if (i < to && s.charAt(i) == '.') {
+                // 内嵌的 ipv4 占两组
+                return isIpv4(s, start, to) && (compressed ? groups + 2 <= 7 : groups + 2 == 8);
+            }
+            groups++;
+            if (i == to) {
+                break;
+            }
+            if (s.charAt(i) != ':' || ++i == to) {
+                return false;
+            }
+            if (s.charAt(i) == ':') {
+                if (compressed) {
+                    return false;
+                }
+                compressed = true;
+                if (++i == to) {
+                    break;
+                }
+            }
+        }
+        return compressed ? groups <= 7 : groups == 8;
+    }
+
+    /**
+     * RFC 3986 的 IPv4address：4段 0-255，不允许前导0
+     */
+    static boolean isIpv4(CharSequence s, int from, int to) {
+        int i = from;
+        for (int octet = 0; octet < 4; octet++) {
+            int start = i;
+            int value = 0;
+            while (i < to && i - start < 3 && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+                value = value * 10 + s.charAt(i) - '0';
+                i++;
+            }
+            int n = i - start;
+            if (n == 0 || value > 255 || (n > 1 && s.charAt(start) == '0')) {
+                return false;
+            }
+            if (octet < 3) {
+                if (i == to || s.charAt(i) != '.') {
+                    return false;
+                }
+                i++;
+            }
+        }
+        return i == to;
+    }
+
+    /**
+     * 可以为空，不超过65535
+     */
+    private static boolean isPort(CharSequence s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            value = value * 10 + c - '0';
+            if (value > 65535) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isAllowedScheme(CharSequence s, int end) {
+        if (schemes == null) {
+            return true;
+        }
+        for (String scheme : schemes) {
+            if (scheme.length() == end && regionMatchesIgnoreCase(s, scheme, end)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * scheme 只包含 ASCII 字符，小写后比较
+     */
+    private static boolean regionMatchesIgnoreCase(CharSequence s, String lower, int len) {
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != lower.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPercentEncoded(CharSequence s, int i, int to) {
+        return i + 2 < to && isHex(s.charAt(i + 1)) && isHex(s.charAt(i + 2));
+    }
+
+    /**
+     * 非 ASCII 字符：开启 allowNonAscii 时允许，不包括控制字符和空白
+     */
+    private boolean isAllowedNonAscii(char c) {
+        return allowNonAscii && c > 0x9f && !Character.isSpaceChar(c);
+    }
+
+    private static boolean isPchar(char c) {
+        return c < 128 && ((CLASS[c] & (UNRESERVED | SUB_DELIM)) != 0 || c == ':' || c == '@');
+    }
+
+    private static boolean isUnreservedOrSubDelim(char c) {
+        return c < 128 && (CLASS[c] & (UNRESERVED | SUB_DELIM)) != 0;
+    }
+
+    private static boolean isHex(char c) {
+        return c < 128 && (CLASS[c] & HEX) != 0;
+    }
+
+    private static boolean isAlpha(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isSchemeChar(char c) {
+        return isAlpha(c) || (c >= '0' && c <= '9') || c == '+' || c == '-' || c == '.';
+    }
+
+    /**
+     * UrlValidator 的构造类，非线程安全
+     */
+    public static final class Builder {
+
+        private String[] schemes = DEFAULT_SCHEMES.toArray(new String[0]);
+        private boolean requireHost = true;
+        private boolean allowIpHost = true;
+        private boolean allowSingleLabelHost = true;
+        private boolean allowUserInfo = true;
+        private boolean allowNonAscii;
+        private int maxLength = DEFAULT_MAX_LENGTH;
+
+        private Builder() {
+        }
+
+        /**
+         * 允许的 scheme，忽略大小写，默认 http、https、ftp
+         */
+        public Builder schemes(String... schemes) {
+            if (schemes == null || schemes.length == 0) {
+                throw new ParamsCheckException("schemes can not be empty");
+            }
+            String[] lower = new String[schemes.length];
+            for (int i = 0; i < schemes.length; i++) {
+                String scheme = schemes[i];
+                if (scheme == null || scheme.isEmpty() || !isAlpha(scheme.charAt(0))) {
+                    throw new ParamsCheckException("illegal scheme: " + scheme);
+                }
+                for (int j = 1; j < scheme.length(); j++) {
+                    if (!isSchemeChar(scheme.charAt(j))) {
+                        throw new ParamsCheckException("illegal scheme: " + scheme);
+                    }
+                }
+                lower[i] = scheme.toLowerCase(Locale.ROOT);
+            }
+            this.schemes = lower;
+            return this;
+        }
+
+        /**
+         * 允许任意符合语法的 scheme
+         */
+        public Builder anyScheme() {
+            this.schemes = null;
+            return this;
+        }
+
+        /**
+         * 是否必须有 "//" 和非空的 host（默认true）；false 时允许 mailto:a@b.com 这类 URI
+         */
+        public Builder requireHost(boolean requireHost) {
+            this.requireHost = requireHost;
+            return this;
+        }
+
+        /**
+         * host 是否可以是 ipv4 或 [ipv6]（默认true）
+         */
+        public Builder allowIpHost(boolean allowIpHost) {
+            this.allowIpHost = allowIpHost;
+            return this;
+        }
+
+        /**
+         * host 是否可以只有一段，例如 localhost（默认true）
+         */
+        public Builder allowSingleLabelHost(boolean allowSingleLabelHost) {
+            this.allowSingleLabelHost = allowSingleLabelHost;
+            return this;
+        }
+
+        /**
+         * 是否允许 user:password@ 部分（默认true）
+         */
+        public Builder allowUserInfo(boolean allowUserInfo) {
+            this.allowUserInfo = allowUserInfo;
+            return this;
+        }
+
+        /**
+         * 是否允许未编码的非 ASCII 字符，例如中文域名和路径（默认false）
+         */
+        public Builder allowNonAscii(boolean allowNonAscii) {
+            this.allowNonAscii = allowNonAscii;
+            return this;
+        }
+
+        /**
+         * 最大长度，默认2048
+         */
+        public Builder maxLength(int maxLength) {
+            if (maxLength <= 0) {
+                throw new ParamsCheckException("maxLength must be positive: " + maxLength);
+            }
+            this.maxLength = maxLength;
+            return this;
+        }
+
+        public UrlValidator build() {
+            return new UrlValidator(this);
+        }
+    }
+}
@@ -24,4 +24,11 @@ public class ParamsCheckException extends ParamsInValidException {
     public ParamsCheckException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
         super(message, cause, enableSuppression, writableStackTrace);
     }
+
+    /**
+     * 不填充堆栈的 ParamsCheckException
+     */
+    public static ParamsCheckException stackless(String message) {
+        return new ParamsCheckException(message, null, false, false);
+    }
 }
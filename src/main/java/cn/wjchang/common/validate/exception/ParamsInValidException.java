@@ -22,4 +22,11 @@ public class ParamsInValidException extends RuntimeException {
     public ParamsInValidException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
         super(message, cause, enableSuppression, writableStackTrace);
     }
+
+    /**
+     * 不填充堆栈、不记录 suppressed 的异常，创建时只有对象本身的开销，适合大量拒绝请求的场景
+     */
+    public static ParamsInValidException stackless(String message) {
+        return new ParamsInValidException(message, null, false, false);
+    }
 }
@@ -0,0 +1,266 @@
+package cn.wjchang.common.validate.file;
+
+import cn.wjchang.common.validate.check.Check;
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * CSV 文件验证（RFC 4180）
+ * 字段可以用双引号包围，引号内的分隔符、换行原样保留，"" 表示一个双引号；空行跳过
+ * 只有字段开头的双引号表示引号字段，不带引号的字段中间的双引号按普通字符处理，例如 5" screen
+ * 记录的列数少于规则的列时，缺少的列按 null 验证；最后一个有规则的列之后的字段不再解析
+ */
+public final class CsvValidator extends FileValidator {
+
+    private final byte separator;
+    private final boolean header;
+
+    /**
+     * 下标为列，没有规则的列为 null
+     */
+    private final FileRule[][] columns;
+
+    private CsvValidator(Builder builder) {
+        super(builder.windowSize);
+        this.separator = (byte) builder.separator;
+        this.header = builder.header;
+        int size = 0;
+        for (FileRule rule : builder.rules) {
+            size = Math.max(size, rule.getColumn() + 1);
+        }
+        List<List<FileRule>> grouped = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            grouped.add(new ArrayList<>());
+        }
+        for (FileRule rule : builder.rules) {
+            grouped.get(rule.getColumn()).add(rule);
+        }
+        this.columns = new FileRule[size][];
+        for (int i = 0; i < size; i++) {
+            List<FileRule> rules = grouped.get(i);
+            columns[i] = rules.isEmpty() ? null : rules.toArray(new FileRule[0]);
+        }
+    }
+
+    @Override
+    Scanner newScanner(FailureHandler handler) {
+        return new CsvScanner(handler);
+    }
+
+    private final class CsvScanner extends Scanner {
+
+        private boolean headerPending = header;
+
+        /**
+         * 最近一次 recordEnd 找到的记录中，引号内的换行数
+         */
+        private int quotedLines;
+
+        CsvScanner(FailureHandler handler) {
+            super(handler);
+        }
+
+        @Override
+        int scan(ByteBuffer buf, int from, int limit, boolean last) {
+            int pos = from;
+            while (pos < limit) {
+                int end = recordEnd(buf, pos, limit);
+                if (end < 0) {
+                    if (!last) {
+                        return pos;
+                    }
+                    end = limit;
+                }
+                int stop = end > pos && buf.get(end - 1) == '\r' ? end - 1 : end;
+                if (stop > pos) {
+                    if (headerPending) {
+                        headerPending = false;
+                    } else {
+                        record(buf, pos, stop);
+                    }
+                }
+                line += 1 + quotedLines;
+                pos = end < limit ? end + 1 : limit;
+            }
+            return pos;
+        }
+
+        /**
+         * 引号外的第一个换行符的位置，没有时返回 -1
+         * 引号的处理和 record 相同：只有字段开头的引号开始引号字段，引号字段内 "" 表示一个双引号，
+         * 不带引号的字段中间的引号是普通字符
+         */
+        private int recordEnd(ByteBuffer buf, int from, int limit) {
+            boolean quoted = false;
+            boolean fieldStart = true;
+            boolean closed = false;
+            int lines = 0;
+            for (int i = from; i < limit; i++) {
+                byte b = buf.get(i);
+                if (b == '"') {
+                    if (quoted) {
+                        quoted = false;
+                        closed = true;
+                    } else if (fieldStart || closed) {
+                        // 字段开头的引号，或者紧跟在结束引号之后的 ""
+                        quoted = true;
+                        closed = false;
+                    }
+                    fieldStart = false;
+                    continue;
+                }
+                closed = false;
+                if (!quoted && b == separator) {
+                    fieldStart = true;
+                    continue;
+                }
+                fieldStart = false;
+                if (b == '\n') {
+                    if (!quoted) {
+                        quotedLines = lines;
+                        return i;
+                    }
+                    lines++;
+                }
+            }
+            quotedLines = lines;
+            return -1;
+        }
+
+        private void record(ByteBuffer buf, int start, int stop) {
+            int column = 0;
+            int pos = start;
+            while (column < columns.length) {
+                FileRule[] rules = columns[column];
+                int p;
+                if (pos < stop && buf.get(pos) == '"') {
+                    chars.clear();
+                    p = pos + 1;
+                    int run = p;
+                    while (true) {
+                        if (p >= stop) {
+                            handler.onMalformed(line, "第" + (column + 1) + "列的引号没有闭合");
+                            return;
+                        }
+                        if (buf.get(p) == '"') {
+                            if (rules != null) {
+                                chars.append(buf, run, p);
+                            }
+                            if (p + 1 < stop && buf.get(p + 1) == '"') {
+                                // 第二个引号作为内容的开始
+                                run = p + 1;
+                                p += 2;
+                                continue;
+                            }
+                            p++;
+                            break;
+                        }
+                        p++;
+                    }
+                    if (p < stop && buf.get(p) != separator) {
+                        handler.onMalformed(line, "第" + (column + 1) + "列的引号后不是分隔符");
+                        return;
+                    }
+                } else {
+                    p = pos;
+                    while (p < stop && buf.get(p) != separator) {
+                        p++;
+                    }
+                    if (rules != null) {
+                        chars.clear();
+                        chars.append(buf, pos, p);
+                    }
+                }
+                if (rules != null) {
+                    test(rules, chars);
+                }
+                column++;
+                if (p >= stop) {
+                    break;
+                }
+                pos = p + 1;
+            }
+            for (; column < columns.length; column++) {
+                if (columns[column] != null) {
+                    test(columns[column], null);
+                }
+            }
+        }
+    }
+
+    /**
+     * CSV 验证器的构造类，非线程安全
+     */
+    public static final class Builder {
+
+        private final List<FileRule> rules = new ArrayList<>();
+        private char separator = ',';
+        private boolean header;
+        private int windowSize = DEFAULT_WINDOW_SIZE;
+
+        Builder() {
+        }
+
+        /**
+         * 分隔符，只支持 ASCII 字符，默认逗号
+         */
+        public Builder separator(char separator) {
+            if (separator >= 0x80 || separator == '"' || separator == '\r' || separator == '\n') {
+                throw new ParamsCheckException("separator must be an ASCII char other than quote and line breaks");
+            }
+            this.separator = separator;
+            return this;
+        }
+
+        /**
+         * 第一条记录是否为表头，是则不验证
+         */
+        public Builder header(boolean header) {
+            this.header = header;
+            return this;
+        }
+
+        /**
+         * 每次映射的字节数，默认 64M
+         */
+        public Builder windowSize(int windowSize) {
+            this.windowSize = checkWindowSize(windowSize);
+            return this;
+        }
+
+        /**
+         * @param column  列的下标 从0开始
+         * @param check   验证的枚举方法
+         * @param express 表达式 非必填 和枚举方法相关
+         * @param msg     提示信息 没有默认取枚举方法的提示信息
+         * @return Builder
+         */
+        public Builder rule(int column, Check check, String express, String msg) {
+            Objects.requireNonNull(check, "check");
+            if (column < 0) {
+                throw new ParamsCheckException("column must not be negative, but was " + column);
+            }
+            rules.add(new FileRule(column, null, check.compile(express), msg));
+            return this;
+        }
+
+        public Builder rule(int column, Check check, String express) {
+            return rule(column, check, express, null);
+        }
+
+        public Builder rule(int column, Check check) {
+            return rule(column, check, null, null);
+        }
+
+        public CsvValidator build() {
+            if (rules.isEmpty()) {
+                throw new ParamsCheckException("rules can not be empty, please call method 'rule' first");
+            }
+            return new CsvValidator(this);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package cn.wjchang.common.validate.file;
+
+import cn.wjchang.common.validate.exception.ParamsInValidException;
+
+/**
+ * 接收文件验证不通过的结果，每出现一条回调一次，验证器本身不保存结果
+ */
+@FunctionalInterface
+public interface FailureHandler {
+
+    /**
+     * 规则验证不通过
+     *
+     * @param line  记录开始的行号，从1开始
+     * @param rule  不通过的规则
+     * @param value 字段值，字段不存在或者为 JSON null 时为 null；
+     *              内容在回调返回后会被复用，需要保存时调用 toString()
+     */
+    void onFailure(long line, FileRule rule, CharSequence value);
+
+    /**
+     * 记录格式错误（引号未闭合、JSON 语法错误等），这条记录剩余的字段不再验证
+     * 默认抛出 ParamsInValidException 结束验证
+     *
+     * @param line   记录开始的行号，从1开始
+     * @param reason 错误原因
+     */
+    default void onMalformed(long line, String reason) {
+        throw new ParamsInValidException("第" + line + "行格式错误: " + reason);
+    }
+}
@@ -0,0 +1,116 @@
+package cn.wjchang.common.validate.file;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 可复用的字段内容，直接从映射的字节中按 UTF-8 解码，不创建 String
+ * 非法的 UTF-8 字节解码为 U+FFFD
+ */
+final class FieldChars implements CharSequence {
+
+    private char[] value = new char[64];
+    private int length;
+
+    void clear() {
+        length = 0;
+    }
+
+    void append(char c) {
+        ensure(length + 1);
+        value[length++] = c;
+    }
+
+    /**
+     * 追加 [from, to) 的字节
+     */
+    void append(ByteBuffer buf, int from, int to) {
+        // UTF-8 解码后的 char 数不会超过字节数
+        ensure(length + (to - from));
+        char[] chars = value;
+        int n = length;
+        for (int i = from; i < to; i++) {
+            int b = buf.get(i);
+            if (b >= 0) {
+                chars[n++] = (char) b;
+                continue;
+            }
+            b &= 0xFF;
+            if (b >= 0xC2 && b < 0xE0 && i + 1 < to && isContinuation(buf.get(i + 1))) {
+                chars[n++] = (char) (((b & 0x1F) << 6) | (buf.get(i + 1) & 0x3F));
+                i += 1;
+            } else if (b >= 0xE0 && b < 0xF0 && i + 2 < to
+                    && isContinuation(buf.get(i + 1)) && isContinuation(buf.get(i + 2))) {
+                int cp = ((b & 0x0F) << 12) | ((buf.get(i + 1) & 0x3F) << 6) | (buf.get(i + 2) & 0x3F);
+                if (cp < 0x800 || Character.isSurrogate((char) cp)) {
+                    chars[n++] = '\uFFFD';
+                } else {
+                    chars[n++] = (char) cp;
+                    i += 2;
+                }
+            } else if (b >= 0xF0 && b < 0xF5 && i + 3 < to && isContinuation(buf.get(i + 1))
+                    && isContinuation(buf.get(i + 2)) && isContinuation(buf.get(i + 3))) {
+                int cp = ((b & 0x07) << 18) | ((buf.get(i + 1) & 0x3F) << 12)
+                        | ((buf.get(i + 2) & 0x3F) << 6) | (buf.get(i + 3) & 0x3F);
+                if (cp < 0x10000 || cp > Character.MAX_CODE_POINT) {
+                    chars[n++] = '\uFFFD';
+                } else {
+                    chars[n++] = Character.highSurrogate(cp);
+                    chars[n++] = Character.lowSurrogate(cp);
+                    i += 3;
+                }
+            } else {
+                chars[n++] = '\uFFFD';
+            }
+        }
+        length = n;
+    }
+
+    private static boolean isContinuation(byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    boolean contentEquals(String s) {
+        if (s.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (s.charAt(i) != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensure(int capacity) {
+        if (capacity > value.length) {
+            value = Arrays.copyOf(value, Math.max(capacity, value.length << 1));
+        }
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new StringIndexOutOfBoundsException(index);
+        }
+        return value[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new StringIndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        return new String(value, start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(value, 0, length);
+    }
+}
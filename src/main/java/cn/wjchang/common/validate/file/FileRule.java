@@ -0,0 +1,77 @@
+package cn.wjchang.common.validate.file;
+
+import cn.wjchang.common.validate.check.Check;
+import cn.wjchang.common.validate.check.CompiledCheck;
+
+/**
+ * 文件中一列的验证规则
+ * CSV 按列的下标（从0开始）定位，JSON Lines 按字段名定位
+ * 文件中的值都是文本，数值比较类的方法（IN、GT 等）先把字段解析为 long 或 BigDecimal 再验证，
+ * 不能解析为数值的字段（例如 "abc"、"1O"、空字符串）验证不通过，回调 onFailure
+ */
+public final class FileRule {
+
+    private final int column;
+    private final String name;
+    private final CompiledCheck check;
+    private final String msg;
+
+    /**
+     * 数值比较类的方法，字段按数值验证
+     */
+    final boolean numeric;
+
+    FileRule(int column, String name, CompiledCheck check, String msg) {
+        this.column = column;
+        this.name = name;
+        this.check = check;
+        this.msg = msg;
+        this.numeric = isNumeric(check.getCheck());
+    }
+
+    private static boolean isNumeric(Check check) {
+        switch (check) {
+            case IN:
+            case NotIn:
+            case GT:
+            case LT:
+            case GTE:
+            case LTE:
+            case NEQ:
+            case EQ:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * CSV 列的下标，JSON Lines 为 -1
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * JSON Lines 的字段名，CSV 为 null
+     */
+    public String getName() {
+        return name;
+    }
+
+    public CompiledCheck getCheck() {
+        return check;
+    }
+
+    /**
+     * 提示信息，没有设置时取枚举方法的提示信息
+     */
+    public String getMsg() {
+        return msg == null ? check.getCheck().msg : msg;
+    }
+
+    @Override
+    public String toString() {
+        return (name == null ? String.valueOf(column) : name) + ": " + check;
+    }
+}
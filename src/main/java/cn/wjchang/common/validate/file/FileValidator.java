@@ -0,0 +1,218 @@
+package cn.wjchang.common.validate.file;
+
+import cn.wjchang.common.validate.check.CompiledCheck;
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+import cn.wjchang.common.validate.exception.ParamsInValidException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * 流式验证大文件（UTF-8 编码）
+ * 文件按窗口分段映射到内存（FileChannel.map），直接在映射的字节上切分记录和字段，只解码有规则的列；
+ * 不通过的结果逐条回调给 FailureHandler，内存占用只和最长的一条记录有关，和文件大小无关
+ * 验证器不可变，线程安全，可以同时验证多个文件
+ *
+ * <pre>
+ * private static final FileValidator ORDERS = FileValidator.csv()
+ *         .header(true)
+ *         .rule(0, Check.NotEmpty, null, "订单号不能为空")
+ *         .rule(3, Check.Mobile, null, "手机号格式错误")
+ *         .build();
+ *
+ * long failed = ORDERS.validate(path, (line, rule, value) -&gt; log.warn("{} {} {}", line, rule.getMsg(), value));
+ * </pre>
+ */
+public abstract class FileValidator {
+
+    /**
+     * 默认每次映射的字节数
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 64 << 20;
+
+    private final int windowSize;
+
+    FileValidator(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public static CsvValidator.Builder csv() {
+        return new CsvValidator.Builder();
+    }
+
+    public static JsonLinesValidator.Builder jsonLines() {
+        return new JsonLinesValidator.Builder();
+    }
+
+    /**
+     * 验证整个文件
+     *
+     * @param path    文件路径
+     * @param handler 不通过的结果
+     * @return 不通过的次数（不包含格式错误的记录）
+     * @throws IOException 读取文件失败
+     */
+    public long validate(Path path, FailureHandler handler) throws IOException {
+        Objects.requireNonNull(handler, "handler");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Scanner scanner = newScanner(handler);
+            long position = 0;
+            int window = windowSize;
+            while (position < size) {
+                int length = (int) Math.min(window, size - position);
+                boolean last = position + length == size;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int from = position == 0 ? skipBom(buffer, length) : 0;
+                int next = scanner.scan(buffer, from, length, last);
+                if (last) {
+                    break;
+                }
+                if (next == 0) {
+                    // 一条记录比窗口还长，只为这条记录扩大窗口
+                    if (window == Integer.MAX_VALUE) {
+                        throw new ParamsInValidException("第" + scanner.line + "行超过 " + Integer.MAX_VALUE + " 字节");
+                    }
+                    window = window > Integer.MAX_VALUE >> 1 ? Integer.MAX_VALUE : window << 1;
+                    continue;
+                }
+                position += next;
+                window = windowSize;
+            }
+            return scanner.failures;
+        }
+    }
+
+    private static int skipBom(ByteBuffer buffer, int length) {
+        if (length >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF) {
+            return 3;
+        }
+        return 0;
+    }
+
+    /**
+     * 每次验证创建一个，保存行号、计数和复用的缓冲区
+     */
+    abstract Scanner newScanner(FailureHandler handler);
+
+    static int checkWindowSize(int windowSize) {
+        if (windowSize < 1024) {
+            throw new ParamsCheckException("windowSize must be at least 1024, but was " + windowSize);
+        }
+        return windowSize;
+    }
+
+    /**
+     * 不超过18位的整数不创建对象；其它数值转为 BigDecimal；
+     * 不是数值时（包括空字符串）直接不通过，不按字符串的长度比较，同一列的值始终按数值验证
+     */
+    static boolean testNumber(CompiledCheck check, CharSequence value) {
+        int length = value.length();
+        int i = length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+        if (length > i && length - i <= 18) {
+            long v = 0;
+            int j = i;
+            for (; j < length; j++) {
+                char c = value.charAt(j);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                v = v * 10 + (c - '0');
+            }
+            if (j == length) {
+                return check.testLong(value.charAt(0) == '-' ? -v : v);
+            }
+        }
+        if (isDecimal(value)) {
+            return check.test(new BigDecimal(value.toString()));
+        }
+        return false;
+    }
+
+    /**
+     * BigDecimal 可以解析的格式：[+-]数字[.数字][e[+-]数字]
+     */
+    private static boolean isDecimal(CharSequence value) {
+        int length = value.length();
+        int i = 0;
+        if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+            i++;
+        }
+        int digits = 0;
+        while (i < length && isDigit(value.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < length && value.charAt(i) == '.') {
+            i++;
+            while (i < length && isDigit(value.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+                i++;
+            }
+            int exponent = i;
+            while (i < length && isDigit(value.charAt(i)) && i - exponent < 9) {
+                i++;
+            }
+            if (i == exponent) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    abstract static class Scanner {
+
+        final FailureHandler handler;
+        final FieldChars chars = new FieldChars();
+
+        /**
+         * 当前记录开始的行号
+         */
+        long line = 1;
+        long failures;
+
+        Scanner(FailureHandler handler) {
+            this.handler = handler;
+        }
+
+        /**
+         * 验证 [from, limit) 中完整的记录
+         *
+         * @param last 是否已到文件末尾，是则最后一条记录不需要换行符结尾
+         * @return 第一条不完整记录的开始位置
+         */
+        abstract int scan(ByteBuffer buf, int from, int limit, boolean last);
+
+        /**
+         * @param value 字段值，不存在时为 null
+         */
+        final void test(FileRule[] rules, CharSequence value) {
+            for (FileRule rule : rules) {
+                boolean passed = rule.numeric && value != null ? testNumber(rule.getCheck(), value) : rule.getCheck().testChars(value);
+                if (!passed) {
+                    failures++;
+                    handler.onFailure(line, rule, value);
+                }
+            }
+        }
+    }
+}
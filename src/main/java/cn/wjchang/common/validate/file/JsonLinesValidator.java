@@ -0,0 +1,373 @@
+package cn.wjchang.common.validate.file;
+
+import cn.wjchang.common.validate.check.Check;
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * JSON Lines 文件验证，每行一个 JSON 对象，空行跳过
+ * 只验证第一层字段：字符串按解码后的内容验证，数字、true、false 按原文验证，
+ * 嵌套的对象和数组按原文验证；字段不存在或者为 null 时按 null 验证，重复的字段只验证第一个
+ */
+public final class JsonLinesValidator extends FileValidator {
+
+    private final String[] names;
+    private final FileRule[][] rules;
+
+    private JsonLinesValidator(Builder builder) {
+        super(builder.windowSize);
+        Map<String, List<FileRule>> grouped = new LinkedHashMap<>();
+        for (FileRule rule : builder.rules) {
+            grouped.computeIfAbsent(rule.getName(), k -> new ArrayList<>()).add(rule);
+        }
+        this.names = grouped.keySet().toArray(new String[0]);
+        this.rules = new FileRule[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            rules[i] = grouped.get(names[i]).toArray(new FileRule[0]);
+        }
+    }
+
+    @Override
+    Scanner newScanner(FailureHandler handler) {
+        return new JsonScanner(handler);
+    }
+
+    /**
+     * JSON 语法错误，只在扫描内部使用，不填充堆栈
+     */
+    private static final class Malformed extends RuntimeException {
+
+        Malformed(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private final class JsonScanner extends Scanner {
+
+        private final FieldChars key = new FieldChars();
+        private final boolean[] seen = new boolean[names.length];
+        private ByteBuffer buf;
+        private int start;
+        private int stop;
+
+        JsonScanner(FailureHandler handler) {
+            super(handler);
+        }
+
+        @Override
+        int scan(ByteBuffer buf, int from, int limit, boolean last) {
+            this.buf = buf;
+            int pos = from;
+            while (pos < limit) {
+                int end = pos;
+                while (end < limit && buf.get(end) != '\n') {
+                    end++;
+                }
+                if (end == limit && !last) {
+                    return pos;
+                }
+                stop = end > pos && buf.get(end - 1) == '\r' ? end - 1 : end;
+                start = pos;
+                int p = skipWhitespace(pos);
+                if (p < stop) {
+                    try {
+                        record(p);
+                    } catch (Malformed e) {
+                        handler.onMalformed(line, e.getMessage());
+                    }
+                }
+                line++;
+                pos = end < limit ? end + 1 : limit;
+            }
+            return pos;
+        }
+
+        private void record(int p) {
+            Arrays.fill(seen, false);
+            p = expect(p, '{');
+            p = skipWhitespace(p);
+            if (peek(p) == '}') {
+                p++;
+            } else {
+                while (true) {
+                    if (peek(p) != '"') {
+                        throw new Malformed(at(p) + "应为字段名");
+                    }
+                    key.clear();
+                    p = string(p, key);
+                    p = skipWhitespace(expect(skipWhitespace(p), ':'));
+                    int index = indexOf(key);
+                    if (index >= 0 && seen[index]) {
+                        index = -1;
+                    }
+                    p = value(p, index);
+                    p = skipWhitespace(p);
+                    int c = peek(p);
+                    if (c == ',') {
+                        p = skipWhitespace(p + 1);
+                    } else if (c == '}') {
+                        p++;
+                        break;
+                    } else {
+                        throw new Malformed(at(p) + "应为 , 或 }");
+                    }
+                }
+            }
+            if (skipWhitespace(p) < stop) {
+                throw new Malformed("对象之后还有其它内容");
+            }
+            for (int i = 0; i < names.length; i++) {
+                if (!seen[i]) {
+                    test(rules[i], null);
+                }
+            }
+        }
+
+        /**
+         * 解析一个值，index 不小于0时验证对应字段的规则
+         */
+        private int value(int p, int index) {
+            int c = peek(p);
+            int end;
+            if (c == '"') {
+                chars.clear();
+                end = string(p, index >= 0 ? chars : null);
+            } else if (c == '{' || c == '[') {
+                end = nested(p);
+                if (index >= 0) {
+                    chars.clear();
+                    chars.append(buf, p, end);
+                }
+            } else {
+                end = p;
+                while (end < stop && isTokenChar(buf.get(end))) {
+                    end++;
+                }
+                if (end == p) {
+                    throw new Malformed(at(p) + "应为值");
+                }
+                if (index >= 0) {
+                    chars.clear();
+                    chars.append(buf, p, end);
+                    if (chars.contentEquals("null")) {
+                        seen[index] = true;
+                        test(rules[index], null);
+                        return end;
+                    }
+                }
+            }
+            if (index >= 0) {
+                seen[index] = true;
+                test(rules[index], chars);
+            }
+            return end;
+        }
+
+        /**
+         * 解析字符串，target 为 null 时只跳过
+         *
+         * @return 结束引号之后的位置
+         */
+        private int string(int p, FieldChars target) {
+            int run = ++p;
+            while (p < stop) {
+                byte b = buf.get(p);
+                if (b == '"') {
+                    if (target != null) {
+                        target.append(buf, run, p);
+                    }
+                    return p + 1;
+                }
+                if (b == '\\') {
+                    if (target != null) {
+                        target.append(buf, run, p);
+                    }
+                    p = escape(p + 1, target);
+                    run = p;
+                    continue;
+                }
+                if (b >= 0 && b < 0x20) {
+                    throw new Malformed("字符串中有控制字符");
+                }
+                p++;
+            }
+            throw new Malformed("字符串没有闭合");
+        }
+
+        private int escape(int p, FieldChars target) {
+            char c;
+            switch (peek(p)) {
+                case '"':
+                    c = '"';
+                    break;
+                case '\\':
+                    c = '\\';
+                    break;
+                case '/':
+                    c = '/';
+                    break;
+                case 'b':
+                    c = '\b';
+                    break;
+                case 'f':
+                    c = '\f';
+                    break;
+                case 'n':
+                    c = '\n';
+                    break;
+                case 'r':
+                    c = '\r';
+                    break;
+                case 't':
+                    c = '\t';
+                    break;
+                case 'u':
+                    if (p + 5 > stop) {
+                        throw new Malformed("\\u 转义不完整");
+                    }
+                    int code = 0;
+                    for (int i = p + 1; i < p + 5; i++) {
+                        int digit = Character.digit(buf.get(i), 16);
+                        if (digit < 0) {
+                            throw new Malformed("\\u 转义不是十六进制");
+                        }
+                        code = (code << 4) | digit;
+                    }
+                    if (target != null) {
+                        target.append((char) code);
+                    }
+                    return p + 5;
+                default:
+                    throw new Malformed("不支持的转义字符");
+            }
+            if (target != null) {
+                target.append(c);
+            }
+            return p + 1;
+        }
+
+        /**
+         * 跳过嵌套的对象或数组
+         *
+         * @return 结束括号之后的位置
+         */
+        private int nested(int p) {
+            int depth = 0;
+            while (p < stop) {
+                byte b = buf.get(p);
+                if (b == '"') {
+                    p = string(p, null);
+                    continue;
+                }
+                if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    if (--depth == 0) {
+                        return p + 1;
+                    }
+                }
+                p++;
+            }
+            throw new Malformed("对象或数组没有闭合");
+        }
+
+        private int indexOf(FieldChars name) {
+            for (int i = 0; i < names.length; i++) {
+                if (name.contentEquals(names[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int expect(int p, char c) {
+            if (peek(p) != c) {
+                throw new Malformed(at(p) + "应为 " + c);
+            }
+            return p + 1;
+        }
+
+        /**
+         * 错误信息中的位置，从行首开始计算
+         */
+        private String at(int p) {
+            return "第" + (p - start + 1) + "个字节";
+        }
+
+        private int peek(int p) {
+            return p < stop ? buf.get(p) : -1;
+        }
+
+        private int skipWhitespace(int p) {
+            while (p < stop) {
+                byte b = buf.get(p);
+                if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                    break;
+                }
+                p++;
+            }
+            return p;
+        }
+    }
+
+    private static boolean isTokenChar(byte b) {
+        return (b >= '0' && b <= '9') || (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z')
+                || b == '-' || b == '+' || b == '.';
+    }
+
+    /**
+     * JSON Lines 验证器的构造类，非线程安全
+     */
+    public static final class Builder {
+
+        private final List<FileRule> rules = new ArrayList<>();
+        private int windowSize = DEFAULT_WINDOW_SIZE;
+
+        Builder() {
+        }
+
+        /**
+         * 每次映射的字节数，默认 64M
+         */
+        public Builder windowSize(int windowSize) {
+            this.windowSize = checkWindowSize(windowSize);
+            return this;
+        }
+
+        /**
+         * @param name    第一层的字段名
+         * @param check   验证的枚举方法
+         * @param express 表达式 非必填 和枚举方法相关
+         * @param msg     提示信息 没有默认取枚举方法的提示信息
+         * @return Builder
+         */
+        public Builder rule(String name, Check check, String express, String msg) {
+            Objects.requireNonNull(name, "name");
+            Objects.requireNonNull(check, "check");
+            rules.add(new FileRule(-1, name, check.compile(express), msg));
+            return this;
+        }
+
+        public Builder rule(String name, Check check, String express) {
+            return rule(name, check, express, null);
+        }
+
+        public Builder rule(String name, Check check) {
+            return rule(name, check, null, null);
+        }
+
+        public JsonLinesValidator build() {
+            if (rules.isEmpty()) {
+                throw new ParamsCheckException("rules can not be empty, please call method 'rule' first");
+            }
+            return new JsonLinesValidator(this);
+        }
+    }
+}
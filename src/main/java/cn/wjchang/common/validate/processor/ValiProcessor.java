@@ -0,0 +1,345 @@
+package cn.wjchang.common.validate.processor;
+
+import cn.wjchang.common.validate.annotation.Vali;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 编译时根据 {@link Vali} 注解生成验证类，运行时不扫描类、不使用反射
+ * 类 Order 生成同一个包下的 Order_Validator（嵌套类为 Outer_Inner_Validator），提供：
+ * <pre>
+ * public static boolean test(Order bean)          // 遇到第一个不通过的规则就返回
+ * public static ValidateBuilder check(Order bean) // 验证全部规则，返回已经执行过doCheck的ValidateBuilder
+ * </pre>
+ * 规则和 BeanValidator 一致：包括父类，字段优先调用 public getter，表达式在类加载时编译一次；
+ * 只继承了 @Vali 成员的子类也会生成验证类
+ * <p>
+ * 没有自动注册，需要显式启用，例如 javac -processor cn.wjchang.common.validate.processor.ValiProcessor，
+ * 或者 maven-compiler-plugin 的 annotationProcessors 配置
+ */
+public class ValiProcessor extends AbstractProcessor {
+
+    private static final String SUFFIX = "_Validator";
+
+    private final Set<String> generated = new HashSet<>();
+
+    /**
+     * 子类可能只继承了 @Vali 成员，自身没有注解，所以处理所有的类
+     */
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        List<TypeElement> types = new ArrayList<>();
+        collect(ElementFilter.typesIn(roundEnv.getRootElements()), types);
+        for (TypeElement type : types) {
+            if (type.getKind().isClass() && !generated.contains(type.getQualifiedName().toString())) {
+                generate(type);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 包括嵌套类
+     */
+    private static void collect(Iterable<TypeElement> types, List<TypeElement> all) {
+        for (TypeElement type : types) {
+            all.add(type);
+            collect(ElementFilter.typesIn(type.getEnclosedElements()), all);
+        }
+    }
+
+    private void generate(TypeElement type) {
+        // 自身有 @Vali 的类报错；只继承了 @Vali 成员的类给出警告，不生成验证类，运行时仍然可以使用 BeanValidator
+        Diagnostic.Kind kind = declaresVali(type) ? Diagnostic.Kind.ERROR : Diagnostic.Kind.WARNING;
+        List<Rule> rules = new ArrayList<>();
+        for (TypeElement c : hierarchy(type)) {
+            // 和 BeanValidator 的顺序一致：每个类先字段后方法
+            List<Element> members = new ArrayList<Element>(ElementFilter.fieldsIn(c.getEnclosedElements()));
+            members.addAll(ElementFilter.methodsIn(c.getEnclosedElements()));
+            for (Element member : members) {
+                Vali[] valis = member.getAnnotationsByType(Vali.class);
+                if (valis.length == 0 || (member.getKind() == ElementKind.FIELD
+                        && member.getModifiers().contains(Modifier.STATIC))) {
+                    continue;
+                }
+                String accessor = member.getKind() == ElementKind.FIELD
+                        ? accessor(type, (VariableElement) member, kind)
+                        : accessor(type, (ExecutableElement) member, kind);
+                if (accessor == null) {
+                    return;
+                }
+                TypeMirror valueType = member.getKind() == ElementKind.FIELD
+                        ? member.asType() : ((ExecutableElement) member).getReturnType();
+                // long、double 使用不装箱的 testLong、testDouble，其它基本类型装箱后按对象验证，结果和运行时一致
+                String method = valueType.getKind() == TypeKind.LONG ? "testLong"
+                        : valueType.getKind() == TypeKind.DOUBLE ? "testDouble" : "test";
+                for (Vali vali : valis) {
+                    rules.add(new Rule(vali, accessor, method));
+                }
+            }
+        }
+        if (rules.isEmpty()) {
+            return;
+        }
+        if (!isAccessible(type)) {
+            report(kind, type, "@Vali 所在的类及其外部类不能是 private");
+            return;
+        }
+        generated.add(type.getQualifiedName().toString());
+        write(type, rules);
+    }
+
+    private static boolean declaresVali(TypeElement type) {
+        for (Element member : type.getEnclosedElements()) {
+            if (member.getAnnotationsByType(Vali.class).length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write(TypeElement type, List<Rule> rules) {
+        String pkg = packageOf(type).getQualifiedName().toString();
+        String name = binaryName(type) + SUFFIX;
+        String beanType = beanType(type);
+        StringBuilder s = new StringBuilder();
+        if (!pkg.isEmpty()) {
+            s.append("package ").append(pkg).append(";\n\n");
+        }
+        s.append("import cn.wjchang.common.validate.ValidateBuilder;\n");
+        s.append("import cn.wjchang.common.validate.check.Check;\n");
+        s.append("import cn.wjchang.common.validate.check.CompiledCheck;\n\n");
+        s.append("/**\n * 由 ").append(ValiProcessor.class.getName()).append(" 根据 ")
+                .append(type.getQualifiedName()).append(" 的 @Vali 注解生成，请勿修改\n */\n");
+        s.append("public final class ").append(name).append(" {\n\n");
+        for (int i = 0; i < rules.size(); i++) {
+            Rule rule = rules.get(i);
+            s.append("    private static final CompiledCheck C").append(i).append(" = Check.")
+                    .append(rule.vali.value().name()).append(".compile(")
+                    .append(literal(rule.vali.express())).append(");\n");
+            s.append("    private static final String M").append(i).append(" = ")
+                    .append(literal(rule.vali.msg())).append(";\n");
+        }
+        s.append("\n    private ").append(name).append("() {\n    }\n\n");
+
+        s.append("    public static boolean test(").append(beanType).append(" bean) {\n");
+        for (int i = 0; i < rules.size(); i++) {
+            s.append("        if (!C").append(i).append(".").append(rules.get(i).method).append("(").append(rules.get(i).accessor).append(")) {\n");
+            s.append("            return false;\n        }\n");
+        }
+        s.append("        return true;\n    }\n\n");
+
+        s.append("    public static ValidateBuilder check(").append(beanType).append(" bean) {\n");
+        s.append("        ValidateBuilder builder = ValidateBuilder.build();\n");
+        for (int i = 0; i < rules.size(); i++) {
+            s.append("        builder.vali(C").append(i).append(", ").append(rules.get(i).accessor)
+                    .append(", M").append(i).append(");\n");
+        }
+        s.append("        return builder.doCheck();\n    }\n}\n");
+
+        String qualified = pkg.isEmpty() ? name : pkg + "." + name;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualified, type).openWriter()) {
+            writer.write(s.toString());
+        } catch (IOException e) {
+            report(Diagnostic.Kind.ERROR, type, "生成 " + qualified + " 失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 和 BeanValidator 一致：在声明字段的类中先找 public getX()，再找 public isX()，返回类型擦除后和字段相同；
+     * 没有时直接读取字段
+     */
+    private String accessor(TypeElement type, VariableElement field, Diagnostic.Kind kind) {
+        String fieldName = field.getSimpleName().toString();
+        String suffix = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+        TypeElement owner = (TypeElement) field.getEnclosingElement();
+        Types types = processingEnv.getTypeUtils();
+        List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(owner));
+        for (String getter : new String[]{"get" + suffix, "is" + suffix}) {
+            for (ExecutableElement method : methods) {
+                if (method.getSimpleName().contentEquals(getter)
+                        && method.getParameters().isEmpty()
+                        && method.getModifiers().contains(Modifier.PUBLIC)
+                        && !method.getModifiers().contains(Modifier.STATIC)
+                        && types.isSameType(types.erasure(method.getReturnType()), types.erasure(field.asType()))) {
+                    return "bean." + getter + "()";
+                }
+            }
+        }
+        if (isAccessible(type, field)) {
+            // 父类的字段可能被同名字段隐藏，转为声明的类再读取
+            return owner.equals(type) ? "bean." + fieldName : "((" + beanType(owner) + ") bean)." + fieldName;
+        }
+        report(kind, field, "@Vali 字段 " + fieldName + " 没有 public getter，请提供 getter 或者改为非 private");
+        return null;
+    }
+
+    private String accessor(TypeElement type, ExecutableElement method, Diagnostic.Kind kind) {
+        if (!method.getParameters().isEmpty() || method.getReturnType().getKind() == TypeKind.VOID
+                || method.getModifiers().contains(Modifier.STATIC)) {
+            report(kind, method, "@Vali 方法必须是没有参数的实例 getter");
+            return null;
+        }
+        if (!isAccessible(type, method)) {
+            report(kind, method, "@Vali 方法 " + method.getSimpleName() + " 不能是 private");
+            return null;
+        }
+        return "bean." + method.getSimpleName() + "()";
+    }
+
+    /**
+     * 生成的类和 type 在同一个包中，public 或者同一个包中的非 private 成员可以访问
+     */
+    private boolean isAccessible(TypeElement type, Element member) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return !modifiers.contains(Modifier.PRIVATE) && packageOf(member).equals(packageOf(type));
+    }
+
+    private static boolean isAccessible(TypeElement type) {
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 从最上层的父类到 type 本身，不包括 Object
+     */
+    private static List<TypeElement> hierarchy(TypeElement type) {
+        List<TypeElement> hierarchy = new ArrayList<>();
+        for (TypeElement c = type; c != null; ) {
+            if (c.getQualifiedName().contentEquals(Object.class.getName())) {
+                break;
+            }
+            hierarchy.add(0, c);
+            TypeMirror superclass = c.getSuperclass();
+            c = superclass.getKind() == TypeKind.DECLARED
+                    ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+        return hierarchy;
+    }
+
+    private PackageElement packageOf(Element element) {
+        return processingEnv.getElementUtils().getPackageOf(element);
+    }
+
+    /**
+     * 嵌套类用下划线连接外部类的名称
+     */
+    private static String binaryName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        for (Element e = type.getEnclosingElement(); e instanceof TypeElement; e = e.getEnclosingElement()) {
+            name.insert(0, '_').insert(0, e.getSimpleName());
+        }
+        return name.toString();
+    }
+
+    /**
+     * 泛型类使用通配符
+     */
+    private static String beanType(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getQualifiedName());
+        int parameters = type.getTypeParameters().size();
+        if (parameters > 0) {
+            name.append('<');
+            for (int i = 0; i < parameters; i++) {
+                name.append(i == 0 ? "?" : ", ?");
+            }
+            name.append('>');
+        }
+        return name.toString();
+    }
+
+    /**
+     * 空字符串生成 null；非 ASCII 字符转为 unicode 转义，生成的源码和编码无关
+     */
+    private static String literal(String value) {
+        if (value.isEmpty()) {
+            return "null";
+        }
+        StringBuilder s = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    s.append("\\\"");
+                    break;
+                case '\\':
+                    s.append("\\\\");
+                    break;
+                case '\n':
+                    s.append("\\n");
+                    break;
+                case '\r':
+                    s.append("\\r");
+                    break;
+                case '\t':
+                    s.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        s.append(String.format("\\%03o", (int) c));
+                    } else if (c >= 0x80) {
+                        s.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        s.append(c);
+                    }
+            }
+        }
+        return s.append('"').toString();
+    }
+
+    private void report(Diagnostic.Kind kind, Element element, String msg) {
+        processingEnv.getMessager().printMessage(kind, msg, element);
+    }
+
+    private static final class Rule {
+
+        final Vali vali;
+        final String accessor;
+        final String method;
+
+        Rule(Vali vali, String accessor, String method) {
+            this.vali = vali;
+            this.accessor = accessor;
+            this.method = method;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package cn.wjchang.common.validate.rule;
+
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 可以热更新的规则文件
+ * 当前的 RuleSet 保存在 volatile 字段中，get() 不加锁；reload 先完整解析和编译新文件，成功后一次替换，
+ * 正在使用旧 RuleSet 的请求不受影响；解析失败时保留旧的 RuleSet
+ * 可以由调用方调用 reload()，也可以调用 watch() 在后台线程监听文件的修改
+ * <p>
+ * 更新规则文件请先写入同一目录下的临时文件，再原子重命名为规则文件（mv、Files.move 的 ATOMIC_MOVE），
+ * 这样读到的一定是完整的文件；直接覆盖写入时，监听线程会等文件的大小和修改时间在 SETTLE_MILLIS 内不再变化后才加载，
+ * 写入中途停顿过久仍可能读到不完整的文件，此时解析失败，保留旧的规则
+ *
+ * <pre>
+ * private static final ReloadableRuleSet ORDER = ReloadableRuleSet.load(Paths.get("rules/order.rules")).watch();
+ *
+ * ORDER.get().result(params);
+ * </pre>
+ */
+public final class ReloadableRuleSet implements Closeable {
+
+    /**
+     * 监听到修改后等待文件稳定的时间，期间再次修改重新计时
+     */
+    public static final long SETTLE_MILLIS = 200;
+
+    private final Path path;
+    private volatile RuleSet current;
+
+    private final AtomicLong reloadCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private volatile Exception lastError;
+
+    private WatchService watcher;
+    private Thread thread;
+
+    private ReloadableRuleSet(Path path, RuleSet current) {
+        this.path = path.toAbsolutePath();
+        this.current = current;
+    }
+
+    /**
+     * 读取规则文件，第一次加载失败时直接抛出异常
+     */
+    public static ReloadableRuleSet load(Path path) throws IOException {
+        return new ReloadableRuleSet(path, RuleSet.load(path));
+    }
+
+    /**
+     * 当前的规则，不加锁
+     */
+    public RuleSet get() {
+        return current;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * 重新读取规则文件，成功时替换当前的规则；多个线程同时调用时依次执行
+     *
+     * @return 新的 RuleSet
+     * @throws IOException          读取文件失败，当前的规则不变
+     * @throws ParamsCheckException 规则错误，当前的规则不变
+     */
+    public synchronized RuleSet reload() throws IOException {
+        try {
+            RuleSet rules = RuleSet.load(path);
+            current = rules;
+            reloadCount.incrementAndGet();
+            return rules;
+        } catch (IOException | RuntimeException e) {
+            failedCount.incrementAndGet();
+            lastError = e;
+            throw e;
+        }
+    }
+
+    /**
+     * 成功重新加载的次数，不包括第一次加载
+     */
+    public long getReloadCount() {
+        return reloadCount.get();
+    }
+
+    /**
+     * 重新加载失败的次数
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * 最近一次重新加载失败的原因，没有失败时返回 null
+     */
+    public Exception getLastError() {
+        return lastError;
+    }
+
+    /**
+     * 启动守护线程监听规则文件所在的目录，文件被修改或替换时重新加载；重复调用不会启动多个线程
+     *
+     * @return this
+     * @throws IOException 不能监听目录
+     */
+    public synchronized ReloadableRuleSet watch() throws IOException {
+        if (thread != null) {
+            return this;
+        }
+        WatchService service = FileSystems.getDefault().newWatchService();
+        try {
+            path.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | RuntimeException e) {
+            // 目录不存在或者不能监听，关闭 WatchService，避免泄漏
+            try {
+                service.close();
+            } catch (IOException closeError) {
+                e.addSuppressed(closeError);
+            }
+            throw e;
+        }
+        watcher = service;
+        thread = new Thread(() -> watchLoop(service), "rule-set-watcher-" + path.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+        return this;
+    }
+
+    private void watchLoop(WatchService service) {
+        try {
+            while (true) {
+                if (!changed(service.take())) {
+                    continue;
+                }
+                awaitStable(service);
+                try {
+                    reload();
+                } catch (IOException | RuntimeException e) {
+                    // 已经记录在 lastError 中，保留旧的规则，等待下一次修改
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // close
+        }
+    }
+
+    /**
+     * 目录的事件中是否有规则文件的修改
+     */
+    private boolean changed(WatchKey key) {
+        Path name = path.getFileName();
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * 合并连续的修改事件：直到 SETTLE_MILLIS 内没有新的修改，并且文件的大小和修改时间不变
+     */
+    private void awaitStable(WatchService service) throws InterruptedException {
+        long settle = TimeUnit.MILLISECONDS.toNanos(SETTLE_MILLIS);
+        String last = fingerprint();
+        long deadline = System.nanoTime() + settle;
+        while (true) {
+            long wait = deadline - System.nanoTime();
+            if (wait <= 0) {
+                String now = fingerprint();
+                if (now.equals(last)) {
+                    return;
+                }
+                last = now;
+                deadline = System.nanoTime() + settle;
+                continue;
+            }
+            WatchKey key = service.poll(wait, TimeUnit.NANOSECONDS);
+            if (key != null && changed(key)) {
+                last = fingerprint();
+                deadline = System.nanoTime() + settle;
+            }
+        }
+    }
+
+    private String fingerprint() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return attributes.size() + "@" + attributes.lastModifiedTime();
+        } catch (IOException e) {
+            // 文件正在被替换，稍后再比较
+            return "";
+        }
+    }
+
+    /**
+     * 停止监听，当前的规则仍然可以使用
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+            thread = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ReloadableRuleSet(" + path + ", " + current + ")";
+    }
+}
@@ -0,0 +1,248 @@
+package cn.wjchang.common.validate.rule;
+
+import cn.wjchang.common.validate.ValidateBuilder;
+import cn.wjchang.common.validate.ValidateResult;
+import cn.wjchang.common.validate.ValidationPlan;
+import cn.wjchang.common.validate.check.Check;
+import cn.wjchang.common.validate.check.CheckRegistry;
+import cn.wjchang.common.validate.check.CompiledCheck;
+import cn.wjchang.common.validate.check.CustomCheck;
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 文本格式的验证规则集合
+ * 解析时编译为 ValidationPlan，之后按字段名取值验证，不再解析表达式；不可变，线程安全
+ * <p>
+ * 每行一条规则：字段名 验证方法 [表达式] [提示信息]，以空白分隔；
+ * 表达式和提示信息包含空白时用双引号括起来（\" 和 \\ 转义），"" 表示没有；
+ * 验证方法为 {@link Check} 的名称，或者 {@link CheckRegistry} 中注册的自定义验证方法的名称；
+ * 空行和 # 开头的行被忽略；同一字段可以有多条规则
+ *
+ * <pre>
+ * # 订单
+ * orderNo   NotEmpty  ""            订单号不能为空
+ * quantity  IN        1,100         "数量必须在1到100之间"
+ * remark    Pattern   "^[^&lt;&gt;]*$"   备注包含非法字符
+ * sku       sku       SKU-          SKU格式错误
+ *
+ * RuleSet rules = RuleSet.load(Paths.get("order.rules"));
+ * rules.result(params).isPassed();
+ * </pre>
+ */
+public final class RuleSet {
+
+    private final String[] fields;
+    private final ValidationPlan plan;
+
+    private RuleSet(List<String> fields, ValidationPlan plan) {
+        this.fields = fields.toArray(new String[0]);
+        this.plan = plan;
+    }
+
+    /**
+     * 解析并编译规则
+     *
+     * @param text 规则文本
+     * @return RuleSet
+     * @throws ParamsCheckException 格式错误、验证方法不存在、表达式非法或者没有规则，信息中包含行号
+     */
+    public static RuleSet parse(String text) {
+        Objects.requireNonNull(text, "text");
+        List<String> fields = new ArrayList<>();
+        ValidationPlan.Builder builder = ValidationPlan.builder();
+        String[] lines = text.split("\r?\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            try {
+                List<String> tokens = tokenize(line);
+                if (tokens.size() < 2 || tokens.size() > 4) {
+                    throw new ParamsCheckException("expected: field check [express] [msg]");
+                }
+                String express = tokens.size() > 2 ? emptyToNull(tokens.get(2)) : null;
+                String msg = tokens.size() > 3 ? emptyToNull(tokens.get(3)) : null;
+                rule(builder, tokens.get(1), express, msg);
+                fields.add(tokens.get(0));
+            } catch (RuntimeException e) {
+                throw new ParamsCheckException("line " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        if (fields.isEmpty()) {
+            throw new ParamsCheckException("rules can not be empty");
+        }
+        return new RuleSet(fields, builder.compile());
+    }
+
+    /**
+     * 读取 UTF-8 编码的规则文件
+     */
+    public static RuleSet load(Path path) throws IOException {
+        return parse(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+
+    private static void rule(ValidationPlan.Builder builder, String name, String express, String msg) {
+        Check check = checkOf(name);
+        if (check != null) {
+            if (check == Check.Pattern && express != null) {
+                // Check.compile 对非法的正则回退到运行时处理，规则文件在加载时就报错
+                java.util.regex.Pattern.compile(express);
+            }
+            builder.rule(check, express, msg);
+            return;
+        }
+        CustomCheck custom = CheckRegistry.get(name);
+        if (custom == null) {
+            throw new ParamsCheckException("unknown check: " + name);
+        }
+        builder.rule(custom, express, msg);
+    }
+
+    private static Check checkOf(String name) {
+        try {
+            return Check.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String emptyToNull(String token) {
+        return token.isEmpty() ? null : token;
+    }
+
+    /**
+     * 按空白切分，双引号中的空白不切分
+     */
+    static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>(4);
+        StringBuilder sb = new StringBuilder();
+        int i = 0;
+        int length = line.length();
+        while (i < length) {
+            char c = line.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            sb.setLength(0);
+            if (c == '"') {
+                i++;
+                boolean closed = false;
+                while (i < length) {
+                    c = line.charAt(i++);
+                    if (c == '"') {
+                        closed = true;
+                        break;
+                    }
+                    if (c == '\\' && i < length && (line.charAt(i) == '"' || line.charAt(i) == '\\')) {
+                        c = line.charAt(i++);
+                    }
+                    sb.append(c);
+                }
+                if (!closed) {
+                    throw new ParamsCheckException("unclosed quote");
+                }
+                if (i < length && !Character.isWhitespace(line.charAt(i))) {
+                    throw new ParamsCheckException("expected whitespace after quote at column " + (i + 1));
+                }
+            } else {
+                while (i < length && !Character.isWhitespace(line.charAt(i))) {
+                    sb.append(line.charAt(i++));
+                }
+            }
+            tokens.add(sb.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * 规则的条数
+     */
+    public int size() {
+        return fields.length;
+    }
+
+    /**
+     * 下标对应的字段名，和 ValidateResult.Failure.getIndex() 对应
+     */
+    public String getField(int index) {
+        return fields[index];
+    }
+
+    /**
+     * 每条规则的字段名，按文本中的顺序
+     */
+    public List<String> getFields() {
+        return Collections.unmodifiableList(Arrays.asList(fields));
+    }
+
+    public List<CompiledCheck> getChecks() {
+        return plan.getChecks();
+    }
+
+    /**
+     * 编译后的验证计划，参数值的顺序和 getFields 一一对应
+     */
+    public ValidationPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * 只判断是否通过，开销低的规则先验证
+     *
+     * @param values 字段名到值，缺少的字段按 null 验证
+     */
+    public boolean test(Map<String, ?> values) {
+        return plan.test(values(values::get));
+    }
+
+    public boolean test(Function<String, ?> values) {
+        return plan.test(values(values));
+    }
+
+    /**
+     * 验证全部规则，返回已经执行过doCheck的ValidateBuilder
+     */
+    public ValidateBuilder check(Map<String, ?> values) {
+        return plan.check(values(values::get));
+    }
+
+    /**
+     * 验证全部规则，返回结构化的结果，Failure.getIndex() 可以用 getField 换成字段名
+     */
+    public ValidateResult result(Map<String, ?> values) {
+        return plan.result(values(values::get));
+    }
+
+    public ValidateResult result(Function<String, ?> values) {
+        return plan.result(values(values));
+    }
+
+    private Object[] values(Function<String, ?> source) {
+        Objects.requireNonNull(source, "values");
+        Object[] values = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            // 同一字段的多条规则相邻时只取一次
+            values[i] = i > 0 && fields[i].equals(fields[i - 1]) ? values[i - 1] : source.apply(fields[i]);
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "RuleSet(" + fields.length + " rules)";
+    }
+}
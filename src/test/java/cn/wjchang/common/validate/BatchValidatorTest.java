@@ -0,0 +1,233 @@
+package cn.wjchang.common.validate;
+
+import cn.wjchang.common.validate.check.Check;
+import cn.wjchang.common.validate.check.CompiledCheck;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * BatchValidator 返回的不通过下标必须和逐个调用 Check.check 的结果一致
+ */
+public class BatchValidatorTest {
+
+    private static final Object[][] CHECKS = {
+            {Check.GT, "100"}, {Check.IN, "1,100"}, {Check.EQ, "3.5"}, {Check.Mobile, null},
+            {Check.Length, "2,5"}, {Check.NotEmpty, null}, {Check.Number, null}, {Check.Enum, "1,2,abc"}
+    };
+
+    private final Random random = new Random(8);
+
+    @Test
+    public void objectsMatchCheck() {
+        Object[] values = objects(1_000);
+        for (Object[] c : CHECKS) {
+            Check check = (Check) c[0];
+            String express = (String) c[1];
+            List<Object> list = Arrays.asList(values);
+            BitSet expected = expected(check, express, list);
+            String name = check + " " + express;
+            assertEquals(name, expected, BatchValidator.failures(check, express, values));
+            assertEquals(name, expected, BatchValidator.failures(check, express, list));
+            assertEquals(name, expected, BatchValidator.failures(check, express, new LinkedList<>(list)));
+            assertEquals(name, expected, BatchValidator.failures(check.compile(express), new ArrayList<>(list)));
+        }
+        // 不是 List 的集合按迭代顺序编号
+        LinkedHashSet<Object> set = new LinkedHashSet<>(Arrays.asList("13800138000", "x", "13900139000", null));
+        assertEquals(BitSet.valueOf(new long[]{0b1010}), BatchValidator.failures(Check.Mobile, null, set));
+    }
+
+    @Test
+    public void charsMatchCheck() {
+        CharSequence[] values = new CharSequence[700];
+        for (int i = 0; i < values.length; i++) {
+            Object value = randomObject();
+            values[i] = value == null ? null : random.nextBoolean() ? value.toString()
+                    : new StringBuilder(value.toString());
+        }
+        // testChars 按 String 类型验证，和 check(value.toString()) 比较
+        List<Object> strings = new ArrayList<>();
+        for (CharSequence value : values) {
+            strings.add(value == null ? null : value.toString());
+        }
+        for (Object[] c : CHECKS) {
+            Check check = (Check) c[0];
+            String express = (String) c[1];
+            assertEquals(check + " " + express, expected(check, express, strings),
+                    BatchValidator.failures(check, express, values));
+        }
+    }
+
+    @Test
+    public void primitivesMatchCheck() {
+        long[] longs = new long[500];
+        int[] ints = new int[longs.length];
+        double[] doubles = new double[longs.length];
+        for (int i = 0; i < longs.length; i++) {
+            longs[i] = random.nextInt(10) == 0 ? random.nextLong() : random.nextInt(300) - 50;
+            ints[i] = (int) longs[i];
+            doubles[i] = random.nextInt(4) == 0 ? 3.5 : random.nextInt(10) == 0 ? Double.NaN
+                    : (random.nextInt(4000) - 1000) / 8.0;
+        }
+        for (Object[] c : CHECKS) {
+            Check check = (Check) c[0];
+            String express = (String) c[1];
+            List<Object> boxedLongs = new ArrayList<>();
+            List<Object> boxedInts = new ArrayList<>();
+            List<Object> boxedDoubles = new ArrayList<>();
+            for (int i = 0; i < longs.length; i++) {
+                boxedLongs.add(longs[i]);
+                boxedInts.add(ints[i]);
+                boxedDoubles.add(doubles[i]);
+            }
+            String name = check + " " + express;
+            assertEquals(name, expected(check, express, boxedLongs), BatchValidator.failures(check, express, longs));
+            assertEquals(name, expected(check, express, boxedInts), BatchValidator.failures(check, express, ints));
+            assertEquals(name, expected(check, express, boxedDoubles),
+                    BatchValidator.failures(check, express, doubles));
+        }
+    }
+
+    @Test
+    public void rangesKeepArrayIndexes() {
+        Object[] values = objects(300);
+        CompiledCheck compiled = Check.IN.compile("1,100");
+        BitSet all = BatchValidator.failures(compiled, values);
+        int[][] ranges = {{0, 0}, {0, 1}, {63, 65}, {100, 300}, {1, 299}, {300, 300}};
+        for (int[] range : ranges) {
+            BitSet failed = BatchValidator.failures(compiled, values, range[0], range[1]);
+            assertEquals(Arrays.toString(range), shifted(all, range[0], range[1]), failed);
+        }
+        for (int[] range : new int[][]{{-1, 1}, {2, 1}, {0, 301}}) {
+            try {
+                BatchValidator.failures(compiled, values, range[0], range[1]);
+                fail(Arrays.toString(range));
+            } catch (IndexOutOfBoundsException expected) {
+                // 区间非法
+            }
+        }
+    }
+
+    @Test
+    public void emptyBatch() {
+        CompiledCheck compiled = Check.NotEmpty.compile(null);
+        assertTrue(BatchValidator.failures(compiled, new Object[0]).isEmpty());
+        assertTrue(BatchValidator.failures(compiled, new CharSequence[0]).isEmpty());
+        assertTrue(BatchValidator.failures(compiled, new long[0]).isEmpty());
+        assertTrue(BatchValidator.failures(compiled, new int[0]).isEmpty());
+        assertTrue(BatchValidator.failures(compiled, new double[0]).isEmpty());
+        assertTrue(BatchValidator.failures(compiled, Collections.emptyList()).isEmpty());
+        assertTrue(BatchValidator.failures(compiled, Collections.emptySet()).isEmpty());
+        assertTrue(BatchValidator.parallelFailures(compiled, new Object[0]).isEmpty());
+        assertTrue(BatchValidator.parallelFailures(compiled, new LinkedList<>()).isEmpty());
+        // 全部不通过
+        assertEquals(130, BatchValidator.failures(compiled, new Object[130]).cardinality());
+    }
+
+    @Test
+    public void parallelMatchesSequential() {
+        int segment = BatchValidator.SEGMENT_SIZE;
+        // 段数为奇数、末段不满64条、恰好一段等情况，拆分点对齐到64
+        int[] sizes = {segment, segment + 1, 2 * segment + 63, 3 * segment + 37, 100_003};
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int size : sizes) {
+                Object[] values = objects(size);
+                CharSequence[] chars = new CharSequence[size];
+                long[] longs = new long[size];
+                int[] ints = new int[size];
+                double[] doubles = new double[size];
+                for (int i = 0; i < size; i++) {
+                    chars[i] = values[i] == null ? null : values[i].toString();
+                    longs[i] = random.nextInt(120) - 10;
+                    ints[i] = (int) longs[i];
+                    doubles[i] = (random.nextInt(1000) - 100) / 4.0;
+                }
+                List<Object> list = Arrays.asList(values);
+                for (ForkJoinPool p : new ForkJoinPool[]{pool, ForkJoinPool.commonPool()}) {
+                    String name = size + " " + p.getParallelism();
+                    CompiledCheck in = Check.IN.compile("1,100");
+                    CompiledCheck mobile = Check.Mobile.compile(null);
+                    BitSet expected = expected(Check.IN, "1,100", list);
+                    assertEquals(name, expected, BatchValidator.parallelFailures(in, values, p));
+                    assertEquals(name, expected, BatchValidator.parallelFailures(in, list, p));
+                    assertEquals(name, expected, BatchValidator.parallelFailures(in, new LinkedList<>(list), p));
+                    assertEquals(name, BatchValidator.failures(mobile, chars),
+                            BatchValidator.parallelFailures(mobile, chars, p));
+                    assertEquals(name, BatchValidator.failures(in, longs),
+                            BatchValidator.parallelFailures(in, longs, p));
+                    assertEquals(name, BatchValidator.failures(in, ints), BatchValidator.parallelFailures(in, ints, p));
+                    assertEquals(name, BatchValidator.failures(in, doubles),
+                            BatchValidator.parallelFailures(in, doubles, p));
+                }
+                assertEquals(BatchValidator.failures(Check.IN, "1,100", values),
+                        BatchValidator.parallelFailures(Check.IN.compile("1,100"), values));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * [from, to) 之外的位清零
+     */
+    private static BitSet shifted(BitSet all, int from, int to) {
+        BitSet bits = (BitSet) all.clone();
+        bits.clear(0, from);
+        bits.clear(to, Math.max(to, bits.length()));
+        return bits;
+    }
+
+    static BitSet expected(Check check, String express, List<?> values) {
+        BitSet expected = new BitSet();
+        for (int i = 0; i < values.size(); i++) {
+            if (!check.check(values.get(i), express)) {
+                expected.set(i);
+            }
+        }
+        return expected;
+    }
+
+    Object[] objects(int size) {
+        Object[] values = new Object[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = randomObject();
+        }
+        return values;
+    }
+
+    private Object randomObject() {
+        switch (random.nextInt(9)) {
+            case 0:
+                return null;
+            case 1:
+                return random.nextInt(300) - 50;
+            case 2:
+                return (long) random.nextInt(300);
+            case 3:
+                return random.nextBoolean() ? 3.5 : random.nextInt(200) / 2.0;
+            case 4:
+                return String.valueOf(random.nextInt(300) - 50);
+            case 5:
+                return (random.nextBoolean() ? "138" : "12") + (10_000_000 + random.nextInt(89_999_999));
+            case 6:
+                return random.nextBoolean() ? "" : "abc";
+            case 7:
+                return "abcdefg".substring(random.nextInt(7));
+            default:
+                return Arrays.asList(1, 2);
+        }
+    }
+}
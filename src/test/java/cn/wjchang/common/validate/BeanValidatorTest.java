@@ -0,0 +1,284 @@
+package cn.wjchang.common.validate;
+
+import cn.wjchang.common.validate.annotation.Vali;
+import cn.wjchang.common.validate.check.Check;
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * BeanValidator：字段和 getter 的读取、重复的 @Vali、父类的规则，以及子类加载器加载的类回退到 MethodHandle
+ */
+public class BeanValidatorTest {
+
+    @Test
+    public void readsFieldsAndGetters() {
+        BeanValidator validator = BeanValidator.of(Order.class);
+        assertSame(validator, BeanValidator.of(Order.class));
+        assertEquals(Arrays.asList("orderNo", "remark", "paid", "quantity", "total"), validator.getNames());
+
+        Order order = new Order();
+        assertTrue(validator.test(order));
+        ValidateBuilder passed = validator.check(order);
+        assertTrue(passed.isPassed());
+        // orderNo、paid 有 public getter，读取 getter 的返回值；remark、total 直接读取字段
+        assertEquals(2, order.getterCalls.get());
+        assertEquals("SO1", passed.getChains().get(0).getValue());
+        assertEquals(10L, passed.getChains().get(4).getValue());
+
+        order.orderNo = "   ";
+        order.remark = "";
+        order.paid = false;
+        order.quantity = 0;
+        ValidateBuilder builder = BeanValidator.validate(order);
+        assertArrayEquals(new int[]{0, 1, 2, 3}, builder.getFailedIndexes());
+        assertEquals("   ", builder.getResult().getFailures().get(0).getValue());
+        assertFalse(validator.test(order));
+        assertEquals(5, validator.getChecks().size());
+    }
+
+    @Test
+    public void repeatedValiInOrder() {
+        BeanValidator validator = BeanValidator.of(Sku.class);
+        assertEquals(Arrays.asList("code", "code", "code"), validator.getNames());
+        assertEquals(Check.NotEmpty, validator.getChecks().get(0).getCheck());
+        assertEquals(Check.Length, validator.getChecks().get(1).getCheck());
+        assertEquals("^SKU-\\d+$", validator.getChecks().get(2).getExpress());
+
+        Sku sku = new Sku();
+        sku.code = "SKU-12";
+        assertTrue(validator.test(sku));
+        sku.code = "ABC-1234567";
+        ValidateResult result = validator.check(sku).getResult();
+        assertArrayEquals(new int[]{1, 2}, result.getFailedIndexes());
+        assertEquals("length", result.getFailures().get(0).getMsg());
+        assertEquals(Check.Pattern.msg, result.getFailures().get(1).getMsg());
+    }
+
+    @Test
+    public void inheritsRulesFromSuperclass() {
+        BeanValidator validator = BeanValidator.of(Refund.class);
+        // 父类在前，同一个类中字段在前、方法在后
+        assertEquals(Arrays.asList("orderNo", "remark", "paid", "quantity", "total", "reason", "amountValid"),
+                validator.getNames());
+        Refund refund = new Refund();
+        assertTrue(validator.test(refund));
+        refund.quantity = 500;
+        refund.reason = null;
+        assertArrayEquals(new int[]{3, 5}, BeanValidator.validate(refund).getFailedIndexes());
+        // 按实际类型查找
+        assertEquals(7, BeanValidator.validate((Order) refund).getChains().size());
+        assertFalse(BeanValidator.of(Order.class).test(refund));
+    }
+
+    @Test
+    public void rejectsInvalidUsage() {
+        try {
+            BeanValidator.of(BadMethod.class);
+            fail();
+        } catch (ParamsCheckException expected) {
+            // @Vali 方法有参数
+        }
+        try {
+            BeanValidator.of(Order.class).test(new Sku());
+            fail();
+        } catch (ParamsCheckException expected) {
+            // 类型不符
+        }
+        assertEquals(0, BeanValidator.of(String.class).size());
+        try {
+            BeanValidator.validate("no rules");
+            fail();
+        } catch (ParamsCheckException expected) {
+            // 没有规则
+        }
+    }
+
+    @Test
+    public void childLoaderClassesUseMethodHandles() throws Exception {
+        ChildLoader loader = new ChildLoader();
+        Class<?> type = loader.loadClass(Loaded.class.getName());
+        assertNotSame(Loaded.class, type);
+        assertSame(loader, type.getClassLoader());
+
+        Object bean = type.getConstructor().newInstance();
+        BeanValidator validator = BeanValidator.of(type);
+        assertEquals(Arrays.asList("name", "count", "tag", "label"), validator.getNames());
+        assertTrue(validator.test(bean));
+        type.getMethod("setName", String.class).invoke(bean, "");
+        type.getField("count").set(bean, -1);
+        type.getMethod("clearTag").invoke(bean);
+        assertArrayEquals(new int[]{0, 1, 2, 3}, validator.check(bean).getFailedIndexes());
+
+        // 验证器不长期持有子类加载器
+        WeakReference<ClassLoader> ref = new WeakReference<>(loader);
+        loader = null;
+        type = null;
+        bean = null;
+        validator = null;
+        for (int i = 0; i < 20 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(ref.get());
+    }
+
+    public static class Order {
+
+        final AtomicInteger getterCalls = new AtomicInteger();
+
+        @Vali(value = Check.NotEmpty, msg = "orderNo")
+        String orderNo = " SO1 ";
+
+        /**
+         * 没有 getter，直接读取字段
+         */
+        @Vali(Check.NotEmpty)
+        private String remark = "r";
+
+        @Vali(value = Check.Enum, express = "true")
+        private boolean paid = true;
+
+        @Vali(value = Check.IN, express = "1,100")
+        Integer quantity = 1;
+
+        /**
+         * getter 的返回值类型和字段不同，直接读取字段
+         */
+        @Vali(value = Check.GT, express = "0")
+        long total = 10;
+
+        public String getOrderNo() {
+            getterCalls.incrementAndGet();
+            return orderNo.trim().isEmpty() ? orderNo : orderNo.trim();
+        }
+
+        public boolean isPaid() {
+            return paid;
+        }
+
+        public String getTotal() {
+            return "-1";
+        }
+    }
+
+    public static class Refund extends Order {
+
+        @Vali(Check.NotEmpty)
+        String reason = "damaged";
+
+        @Vali(value = Check.Enum, express = "true")
+        public boolean amountValid() {
+            return quantity != null && quantity > 0;
+        }
+    }
+
+    public static class Sku {
+
+        @Vali(Check.NotEmpty)
+        @Vali(value = Check.Length, express = "1,8", msg = "length")
+        @Vali(value = Check.Pattern, express = "^SKU-\\d+$")
+        String code;
+    }
+
+    public static class BadMethod {
+
+        @Vali(Check.NotNull)
+        public String value(int index) {
+            return null;
+        }
+    }
+
+    /**
+     * 由 ChildLoader 重新加载，对 BeanValidator 的类加载器不可见
+     */
+    public static class Loaded {
+
+        @Vali(Check.NotEmpty)
+        private String name = "n";
+
+        @Vali(value = Check.GTE, express = "0")
+        public int count;
+
+        @Vali(Check.NotNull)
+        private Tag tag = new Tag();
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Tag getTag() {
+            return tag;
+        }
+
+        public void clearTag() {
+            tag = null;
+        }
+
+        @Vali(Check.NotEmpty)
+        public String label() {
+            return tag == null ? null : tag.toString();
+        }
+    }
+
+    public static class Tag {
+
+        @Override
+        public String toString() {
+            return "tag";
+        }
+    }
+
+    /**
+     * 自己定义 Loaded 和 Tag，其它类委托给父加载器
+     */
+    private static final class ChildLoader extends ClassLoader {
+
+        ChildLoader() {
+            super(BeanValidatorTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(Loaded.class.getName()) && !name.equals(Tag.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded != null) {
+                    return loaded;
+                }
+                try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[4096];
+                    for (int n; (n = in.read(buffer)) > 0; ) {
+                        out.write(buffer, 0, n);
+                    }
+                    byte[] bytes = out.toByteArray();
+                    return defineClass(name, bytes, 0, bytes.length);
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+}
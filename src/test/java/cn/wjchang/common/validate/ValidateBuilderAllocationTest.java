@@ -0,0 +1,117 @@
+package cn.wjchang.common.validate;
+
+import cn.wjchang.common.validate.check.Check;
+import cn.wjchang.common.validate.check.CompiledCheck;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * reusable()、local() 复用的 ValidateBuilder 使用预编译的方法验证通过时不分配内存：
+ * 预热后用 ThreadMXBean.getThreadAllocatedBytes 统计当前线程分配的字节数
+ * Email 等使用 java.util.regex 的验证方法每次创建 Matcher，不在这里统计
+ */
+public class ValidateBuilderAllocationTest {
+
+    private static final int WARMUP = 50_000;
+    private static final int ROUNDS = 10_000;
+
+    private static final Object[][] FIELDS = {
+            {Check.NotEmpty, "SO20240501000123", null},
+            {Check.Length, "SO20240501000123", "10,32"},
+            {Check.IN, 3, "1,100"},
+            {Check.GT, new BigDecimal("199.90"), "0"},
+            {Check.Mobile, "13800138000", null},
+            {Check.Enum, "PAID", "NEW,PAID,SHIPPED,CLOSED"},
+            {Check.DateTime, "2024-05-01 10:00:00", null},
+            {Check.UUID, "f47ac10b-58cc-4372-a567-0e02b2c3d479", null},
+            {Check.Pattern, "SKU-00123", "^SKU-\\d{5}$"},
+            {Check.NotNull, Arrays.asList("a", "b"), null},
+    };
+
+    private final CompiledCheck[] compiled = new CompiledCheck[FIELDS.length];
+    private final Object[] values = new Object[FIELDS.length];
+
+    private com.sun.management.ThreadMXBean threads;
+
+    @Before
+    public void setUp() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        for (int i = 0; i < FIELDS.length; i++) {
+            compiled[i] = ((Check) FIELDS[i][0]).compile((String) FIELDS[i][2]);
+            values[i] = FIELDS[i][1];
+        }
+    }
+
+    @Test
+    public void localChainDoesNotAllocate() {
+        assertEquals(0, allocated(() -> {
+            ValidateBuilder builder = ValidateBuilder.local();
+            try {
+                return chain(builder);
+            } finally {
+                builder.release();
+            }
+        }));
+    }
+
+    @Test
+    public void localFailFastChainDoesNotAllocate() {
+        assertEquals(0, allocated(() -> chain(ValidateBuilder.local().failFast())));
+    }
+
+    @Test
+    public void reusableChainDoesNotAllocate() {
+        ValidateBuilder builder = ValidateBuilder.reusable();
+        assertEquals(0, allocated(() -> {
+            builder.clear();
+            return chain(builder);
+        }));
+    }
+
+    private boolean chain(ValidateBuilder builder) {
+        for (int i = 0; i < compiled.length; i++) {
+            builder.vali(compiled[i], values[i], null);
+        }
+        return builder.doCheck().isPassed() && builder.getFailedCounts() == 0 && builder.getSuccessCounts() > 0;
+    }
+
+    /**
+     * 预热后重复执行 ROUNDS 次分配的字节数，减去两次读取之间的固定开销；JIT 编译可能在测量中途完成，取5次中的最小值
+     */
+    private long allocated(Chain chain) {
+        for (int i = 0; i < WARMUP; i++) {
+            assertTrue(chain.run());
+        }
+        long thread = Thread.currentThread().getId();
+        long min = Long.MAX_VALUE;
+        for (int attempt = 0; attempt < 5 && min > 0; attempt++) {
+            long base = threads.getThreadAllocatedBytes(thread);
+            long overhead = threads.getThreadAllocatedBytes(thread) - base;
+            boolean passed = true;
+            long start = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < ROUNDS; i++) {
+                passed &= chain.run();
+            }
+            long bytes = threads.getThreadAllocatedBytes(thread) - start - overhead;
+            assertTrue(passed);
+            min = Math.min(min, bytes);
+        }
+        return min;
+    }
+
+    private interface Chain {
+
+        boolean run();
+    }
+}
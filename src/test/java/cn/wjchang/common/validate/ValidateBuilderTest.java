@@ -0,0 +1,213 @@
+package cn.wjchang.common.validate;
+
+import cn.wjchang.common.validate.check.Check;
+import cn.wjchang.common.validate.check.CheckCost;
+import cn.wjchang.common.validate.check.CustomCheck;
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * ValidateBuilder 的 ALL、FAIL_FAST、LAZY 模式和 costOrdered：验证了哪些规则、按什么顺序、收集到的失败
+ * 规则用记录调用顺序的自定义验证方法，值以 "ok" 开头时通过
+ */
+public class ValidateBuilderTest {
+
+    private final List<String> calls = new ArrayList<>();
+
+    private final CustomCheck cheap = logging("order-cheap", CheckCost.CHEAP);
+    private final CustomCheck regex = logging("order-regex", CheckCost.REGEX);
+    private final CustomCheck io = logging("order-io", CheckCost.IO);
+
+    @Test
+    public void allEvaluatesEveryRule() {
+        ValidateBuilder builder = four(ValidateBuilder.build()).doCheck();
+        assertEquals(Arrays.asList("ok0", "bad1", "ok2", "bad3"), calls);
+        assertFalse(builder.isPassed());
+        assertEquals(2, builder.getFailedCounts());
+        assertEquals(2, builder.getSuccessCounts());
+        assertArrayEquals(new int[]{1, 3}, builder.getFailedIndexes());
+        assertEquals(Arrays.asList(true, false, true, false), results(builder));
+        assertEquals("m1:bad1 order-cheap,m3:bad3 order-cheap", builder.getFailedMsgs());
+
+        ValidateResult result = builder.getResult();
+        assertEquals(4, result.size());
+        assertEquals(2, result.getFailures().size());
+        assertEquals(1, result.getFailures().get(0).getIndex());
+        assertEquals("bad3", result.getFailures().get(1).getValue());
+        assertEquals(99_070, result.getFailures().get(1).getCode());
+        // 取结果不会再次验证
+        assertEquals(4, calls.size());
+    }
+
+    @Test
+    public void failFastStopsAtFirstFailure() {
+        ValidateBuilder builder = four(ValidateBuilder.build().failFast()).doCheck();
+        assertEquals(Arrays.asList("ok0", "bad1"), calls);
+        assertFalse(builder.isPassed());
+        assertEquals(1, builder.getFailedCounts());
+        assertEquals(1, builder.getSuccessCounts());
+        assertArrayEquals(new int[]{1}, builder.getFailedIndexes());
+        assertEquals(Arrays.asList(true, false, null, null), results(builder));
+        assertEquals("m1:bad1 order-cheap", builder.getFailedMsgs());
+        assertEquals(1, builder.getResult().getFailedCount());
+        assertEquals(2, calls.size());
+    }
+
+    @Test
+    public void lazyEvaluatesOnDemand() {
+        ValidateBuilder builder = four(ValidateBuilder.build().lazy()).doCheck();
+        assertTrue(calls.isEmpty());
+        // isPassed 只验证到第一个不通过的规则
+        assertFalse(builder.isPassed());
+        assertEquals(Arrays.asList("ok0", "bad1"), calls);
+        assertFalse(builder.isPassed());
+        assertEquals(2, calls.size());
+        // 需要全部结果时验证剩余的规则，只验证一次
+        assertEquals(2, builder.getFailedCounts());
+        assertEquals(Arrays.asList("ok0", "bad1", "ok2", "bad3"), calls);
+        assertEquals("m1:bad1 order-cheap,m3:bad3 order-cheap", builder.getFailedMsgs());
+        assertArrayEquals(new int[]{1, 3}, builder.getFailedIndexes());
+        assertEquals(4, calls.size());
+
+        // 全部通过时 isPassed 验证全部规则
+        calls.clear();
+        ValidateBuilder passing = ValidateBuilder.build().lazy()
+                .vali(cheap, "ok0").vali(cheap, "ok1").doCheck();
+        assertTrue(calls.isEmpty());
+        assertTrue(passing.isPassed());
+        assertEquals(Arrays.asList("ok0", "ok1"), calls);
+        assertNull(passing.getFailedMsgs());
+        assertEquals(2, passing.getSuccessCounts());
+    }
+
+    @Test
+    public void costOrderedEvaluatesCheapFirst() {
+        ValidateBuilder builder = mixed(ValidateBuilder.build().costOrdered()).doCheck();
+        assertEquals(Arrays.asList("bad-cheap1", "ok-cheap3", "ok-regex2", "bad-io0"), calls);
+        // 下标和消息仍然按添加顺序
+        assertArrayEquals(new int[]{0, 1}, builder.getFailedIndexes());
+        assertEquals("io0:bad-io0 order-io,cheap1:bad-cheap1 order-cheap", builder.getFailedMsgs());
+        assertEquals(2, builder.getSuccessCounts());
+
+        calls.clear();
+        ValidateBuilder failFast = mixed(ValidateBuilder.build().failFast().costOrdered()).doCheck();
+        assertEquals(Arrays.asList("bad-cheap1"), calls);
+        assertArrayEquals(new int[]{1}, failFast.getFailedIndexes());
+        assertEquals(Arrays.asList(null, false, null, null), results(failFast));
+
+        calls.clear();
+        ValidateBuilder lazy = mixed(ValidateBuilder.build().lazy().costOrdered()).doCheck();
+        assertFalse(lazy.isPassed());
+        assertEquals(Arrays.asList("bad-cheap1"), calls);
+        // 剩余的规则仍然按开销类别验证，已经验证的不再验证
+        assertEquals(2, lazy.getFailedCounts());
+        assertEquals(Arrays.asList("bad-cheap1", "ok-cheap3", "ok-regex2", "bad-io0"), calls);
+
+        // 验证后添加的规则插入未验证的部分
+        calls.clear();
+        ValidateBuilder appended = ValidateBuilder.build().lazy().costOrdered()
+                .vali(io, "ok-io0").vali(cheap, "bad-cheap1").doCheck();
+        assertFalse(appended.isPassed());
+        appended.vali(regex, "ok-regex2").vali(cheap, "ok-cheap3");
+        assertArrayEquals(new int[]{1}, appended.getFailedIndexes());
+        assertEquals(Arrays.asList("bad-cheap1", "ok-cheap3", "ok-regex2", "ok-io0"), calls);
+    }
+
+    @Test
+    public void doCheckAgainResetsResults() {
+        List<String> values = new ArrayList<>(Arrays.asList("ok0", "bad1"));
+        ValidateBuilder builder = ValidateBuilder.build().failFast();
+        for (String value : values) {
+            builder.vali(cheap, value, "m");
+        }
+        assertFalse(builder.doCheck().isPassed());
+        assertFalse(builder.doCheck().isPassed());
+        assertEquals(1, builder.getFailedCounts());
+        assertEquals(Arrays.asList("ok0", "bad1", "ok0", "bad1"), calls);
+
+        builder.clear();
+        try {
+            builder.isPassed();
+            fail();
+        } catch (ParamsCheckException expected) {
+            // 没有规则
+        }
+        assertEquals(0, builder.getFailedCounts());
+        assertNull(builder.getFailedMsgs());
+        assertTrue(builder.vali(Check.NotNull, "x").doCheck().isPassed());
+    }
+
+    @Test
+    public void failuresBeyondOneWord() {
+        for (ValidateBuilder.Mode mode : ValidateBuilder.Mode.values()) {
+            ValidateBuilder builder = ValidateBuilder.build().mode(mode);
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < 150; i++) {
+                boolean failed = i == 0 || i == 63 || i == 64 || i == 127 || i == 128 || i == 149;
+                builder.vali(Check.NotEmpty, failed ? "" : "v", "m" + i);
+                if (failed) {
+                    expected.add(i);
+                }
+            }
+            builder.doCheck();
+            List<Integer> actual = new ArrayList<>();
+            for (int index : builder.getFailedIndexes()) {
+                actual.add(index);
+            }
+            if (mode == ValidateBuilder.Mode.FAIL_FAST) {
+                expected = expected.subList(0, 1);
+            }
+            assertEquals(mode.name(), expected, actual);
+            assertEquals(mode.name(), expected.size(), builder.getResult().getFailedCount());
+        }
+    }
+
+    /**
+     * 依次添加 ok0、bad1、ok2、bad3，提示信息为 m0..m3
+     */
+    private ValidateBuilder four(ValidateBuilder builder) {
+        String[] values = {"ok0", "bad1", "ok2", "bad3"};
+        for (int i = 0; i < values.length; i++) {
+            builder.vali(cheap, values[i], "m" + i);
+        }
+        return builder;
+    }
+
+    /**
+     * 按添加顺序为 IO（不通过）、CHEAP（不通过）、REGEX、CHEAP
+     */
+    private ValidateBuilder mixed(ValidateBuilder builder) {
+        return builder.vali(io, "bad-io0", "io0")
+                .vali(cheap, "bad-cheap1", "cheap1")
+                .vali(regex, "ok-regex2", "regex2")
+                .vali(cheap, "ok-cheap3", "cheap3");
+    }
+
+    private static List<Boolean> results(ValidateBuilder builder) {
+        List<Boolean> results = new ArrayList<>();
+        for (ValidateBuilder.ValidateChain chain : builder.getChains()) {
+            results.add(chain.getResult());
+        }
+        return results;
+    }
+
+    private CustomCheck logging(String name, CheckCost cost) {
+        return CustomCheck.builder(name).code(99_070 + cost.ordinal() * 2).cost(cost)
+                .function((value, express) -> {
+                    calls.add(String.valueOf(value));
+                    return value != null && value.toString().startsWith("ok");
+                })
+                .build();
+    }
+}
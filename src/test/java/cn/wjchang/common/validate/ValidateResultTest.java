@@ -0,0 +1,170 @@
+package cn.wjchang.common.validate;
+
+import cn.wjchang.common.validate.check.Check;
+import cn.wjchang.common.validate.check.CheckRegistry;
+import cn.wjchang.common.validate.check.CustomCheck;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * ValidateResult：错误码固定不变，不通过的下标按添加顺序，提示信息在需要时才拼接
+ */
+public class ValidateResultTest {
+
+    /**
+     * 错误码是对外的约定，新增验证方法只能追加，不能修改已有的值
+     */
+    private static final Object[][] CODES = {
+            {Check.Null, 1001}, {Check.NotNull, 1002}, {Check.Empty, 1003}, {Check.NotEmpty, 1004},
+            {Check.True, 1101}, {Check.False, 1102},
+            {Check.Date, 1201}, {Check.DateTime, 1202}, {Check.TimeMillSeconds, 1203}, {Check.Past, 1204},
+            {Check.Future, 1205}, {Check.Today, 1206},
+            {Check.Number, 1301}, {Check.Chinese, 1302}, {Check.General, 1303}, {Check.GeneralWithChinese, 1304},
+            {Check.IN, 1401}, {Check.NotIn, 1402}, {Check.Length, 1403}, {Check.Enum, 1404},
+            {Check.GT, 1501}, {Check.LT, 1502}, {Check.GTE, 1503}, {Check.LTE, 1504}, {Check.NEQ, 1505},
+            {Check.EQ, 1506},
+            {Check.Pattern, 1601}, {Check.Currency, 1602}, {Check.CreditCode, 1603}, {Check.CitizenId, 1604},
+            {Check.Email, 1605}, {Check.Mobile, 1606}, {Check.Url, 1607}, {Check.ISBN, 1608},
+            {Check.BankNumber, 1609}, {Check.ChinesePostCode, 1610}, {Check.PlateNumber, 1611},
+            {Check.UUID, 1612}, {Check.Ipv4, 1613}, {Check.Ipv6, 1614}, {Check.Mac, 1615},
+            {Check.Custom, 1701}
+    };
+
+    @Test
+    public void codesAreStable() {
+        Set<Check> pinned = new HashSet<>();
+        for (Object[] c : CODES) {
+            Check check = (Check) c[0];
+            assertEquals(check.name(), c[1], check.code);
+            assertSame(check, Check.ofCode(check.code));
+            pinned.add(check);
+        }
+        // 新增的验证方法需要加到上表中
+        assertEquals(Check.values().length, pinned.size());
+        assertNull(Check.ofCode(0));
+        assertNull(Check.ofCode(99_999));
+    }
+
+    @Test
+    public void failuresInAddedOrder() {
+        CustomCheck sku = CustomCheck.builder("result-sku").code(99_015)
+                .function((value, express) -> value != null && value.toString().startsWith(express)).build();
+        CheckRegistry.register(sku);
+        try {
+            ValidateBuilder builder = ValidateBuilder.build();
+            for (int i = 0; i < 70; i++) {
+                builder.vali(Check.NotEmpty, i % 9 == 0 ? "" : "v");
+            }
+            builder.vali(Check.Custom, "ABC", "result-sku:SKU-", "sku")
+                    .vali(sku, "X", "SKU-", null);
+            ValidateResult result = builder.failFast().doCheck().getResult();
+            assertArrayEquals(new int[]{0}, result.getFailedIndexes());
+            assertTrue(result.isFailed(0));
+            assertFalse(result.isFailed(9));
+
+            result = builder.mode(ValidateBuilder.Mode.ALL).doCheck().getResult();
+            assertEquals(72, result.size());
+            assertFalse(result.isPassed());
+            int[] indexes = {0, 9, 18, 27, 36, 45, 54, 63, 70, 71};
+            assertArrayEquals(indexes, result.getFailedIndexes());
+            assertArrayEquals(builder.getFailedIndexes(), result.getFailedIndexes());
+            assertEquals(indexes.length, result.getFailedCount());
+            BitSet bits = new BitSet();
+            for (int i = 0; i < 72; i++) {
+                assertEquals(String.valueOf(i), builder.getChains().get(i).getResult() == Boolean.FALSE,
+                        result.isFailed(i));
+                if (result.isFailed(i)) {
+                    bits.set(i);
+                }
+            }
+            assertEquals(bits, result.toBitSet());
+            assertFalse(result.isFailed(-1));
+            assertFalse(result.isFailed(72));
+            assertFalse(result.isFailed(1_000));
+
+            // Check.Custom 和 CustomCheck 取 CustomCheck 的错误码
+            int[] codes = result.getFailedCodes();
+            assertEquals(1004, codes[0]);
+            assertEquals(99_015, codes[8]);
+            assertEquals(99_015, codes[9]);
+            ValidateResult.Failure custom = result.getFailures().get(8);
+            assertEquals(70, custom.getIndex());
+            assertSame(Check.Custom, custom.getCheck());
+            assertEquals("ABC", custom.getValue());
+            assertEquals("result-sku:SKU-", custom.getExpress());
+            assertEquals("sku", custom.getMsg());
+            assertEquals("sku:ABC result-sku:SKU-", custom.getMessage());
+            assertEquals(Check.NotEmpty.msg, result.getFailures().get(0).getMsg());
+            assertEquals(builder.getFailedMsgs(), result.getFailedMsgs());
+
+            // 和 builder 无关，clear、复用后不变
+            builder.clear().vali(Check.NotNull, "x").doCheck();
+            assertEquals(72, result.size());
+            assertEquals(10, result.getFailedCount());
+            assertEquals("sku:ABC result-sku:SKU-", result.getFailures().get(8).getMessage());
+            try {
+                result.getFailures().clear();
+                fail();
+            } catch (UnsupportedOperationException expected) {
+                // 只读
+            }
+        } finally {
+            CheckRegistry.unregister("result-sku");
+        }
+    }
+
+    @Test
+    public void passedResult() {
+        ValidateResult result = ValidateBuilder.build().vali(Check.NotNull, 1).vali(Check.NotEmpty, "a")
+                .doCheck().getResult();
+        assertTrue(result.isPassed());
+        assertEquals(2, result.size());
+        assertEquals(0, result.getFailedCount());
+        assertEquals(0, result.getFailedIndexes().length);
+        assertEquals(0, result.getFailedCodes().length);
+        assertTrue(result.getFailures().isEmpty());
+        assertTrue(result.toBitSet().isEmpty());
+        assertFalse(result.isFailed(0));
+        assertNull(result.getFailedMsgs());
+        assertEquals("ValidateResult(size=2, failed=[])", result.toString());
+    }
+
+    @Test
+    public void messagesAreBuiltLazily() {
+        AtomicInteger toStrings = new AtomicInteger();
+        Object value = new Object() {
+            @Override
+            public String toString() {
+                toStrings.incrementAndGet();
+                return "v";
+            }
+        };
+        ValidateResult result = ValidateBuilder.build().vali(Check.Null, value, "m1")
+                .vali(Check.Number, value, null, "m2").doCheck().getResult();
+        assertEquals(2, result.getFailedCount());
+        int checked = toStrings.get();
+        // 取下标、错误码、值时不拼接提示信息
+        result.getFailedIndexes();
+        result.getFailedCodes();
+        assertSame(value, result.getFailures().get(0).getValue());
+        assertEquals("ValidateResult(size=2, failed=[0, 1])", result.toString());
+        assertEquals(checked, toStrings.get());
+
+        assertEquals("m1:v ", result.getFailures().get(0).getMessage());
+        assertEquals(checked + 1, toStrings.get());
+        assertEquals("m1:v ,m2:v ", result.getFailedMsgs());
+        assertEquals(checked + 3, toStrings.get());
+    }
+}
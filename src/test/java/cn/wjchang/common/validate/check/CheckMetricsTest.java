@@ -0,0 +1,179 @@
+package cn.wjchang.common.validate.check;
+
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * CheckMetrics：调用次数和不通过次数、采样频率的取整、直方图的桶和分位数、MBean 的注册
+ */
+public class CheckMetricsTest {
+
+    @Before
+    public void setUp() {
+        CheckMetrics.reset();
+    }
+
+    @After
+    public void tearDown() {
+        CheckMetrics.setEnabled(false);
+        CheckMetrics.setSampleRate(64);
+        CheckMetrics.unregisterMBean();
+        CheckMetrics.reset();
+    }
+
+    @Test
+    public void countsOnlyWhenEnabled() {
+        assertFalse(CheckMetrics.isEnabled());
+        Check.Email.check("ab@b.com", null);
+        Check.GT.compile("1").testLong(2);
+        assertEquals(0, CheckMetrics.snapshot(Check.Email).getInvocations());
+        assertEquals(0, CheckMetrics.snapshot(Check.GT).getInvocations());
+
+        CheckMetrics.setEnabled(true);
+        CheckMetrics.setSampleRate(1);
+        for (String value : new String[]{"ab@b.com", "cd@d.cn", "x", "", "ef@f.org"}) {
+            Check.Email.check(value, null);
+        }
+        CompiledCheck gt = Check.GT.compile("10");
+        assertTrue(gt.test(11));
+        assertFalse(gt.testLong(10));
+        assertTrue(gt.testDouble(10.5));
+        assertFalse(gt.testChars("9"));
+        assertTrue(Check.GT.check(12, "10"));
+
+        CheckStats email = CheckMetrics.snapshot(Check.Email);
+        assertEquals(5, email.getInvocations());
+        assertEquals(2, email.getFailures());
+        assertEquals(0.4, email.failureRate(), 1e-9);
+        // 每次都采样
+        assertEquals(5, email.getSampledCount());
+        CheckStats stats = CheckMetrics.snapshot(Check.GT);
+        assertEquals(5, stats.getInvocations());
+        assertEquals(2, stats.getFailures());
+
+        Map<Check, CheckStats> all = CheckMetrics.snapshot();
+        assertEquals(Check.values().length, all.size());
+        assertEquals(0, all.get(Check.Mobile).getInvocations());
+        assertEquals(0.0, all.get(Check.Mobile).failureRate(), 0.0);
+
+        // 关闭后保留已有的数据，reset 后清空
+        CheckMetrics.setEnabled(false);
+        Check.Email.check("ab@b.com", null);
+        assertEquals(5, CheckMetrics.snapshot(Check.Email).getInvocations());
+        CheckMetrics.reset();
+        CheckStats cleared = CheckMetrics.snapshot(Check.Email);
+        assertEquals(0, cleared.getInvocations());
+        assertEquals(0, cleared.getFailures());
+        assertEquals(0, cleared.getSampledCount());
+    }
+
+    @Test
+    public void sampleRateRoundsUpToPowerOfTwo() {
+        assertEquals(64, CheckMetrics.getSampleRate());
+        int[][] rates = {{1, 1}, {2, 2}, {3, 4}, {5, 8}, {64, 64}, {65, 128}, {1000, 1024}, {1 << 30, 1 << 30}};
+        for (int[] rate : rates) {
+            CheckMetrics.setSampleRate(rate[0]);
+            assertEquals(String.valueOf(rate[0]), rate[1], CheckMetrics.getSampleRate());
+        }
+        for (int invalid : new int[]{0, -1, (1 << 30) + 1, Integer.MAX_VALUE}) {
+            try {
+                CheckMetrics.setSampleRate(invalid);
+                fail(String.valueOf(invalid));
+            } catch (ParamsCheckException expected) {
+                // 超出范围
+            }
+        }
+        assertEquals(1 << 30, CheckMetrics.getSampleRate());
+
+        // 采样的次数约为调用次数 / sampleRate
+        CheckMetrics.setEnabled(true);
+        CheckMetrics.setSampleRate(8);
+        CompiledCheck notNull = Check.NotNull.compile(null);
+        for (int i = 0; i < 80_000; i++) {
+            notNull.test(i);
+        }
+        long sampled = CheckMetrics.snapshot(Check.NotNull).getSampledCount();
+        assertTrue(String.valueOf(sampled), sampled > 8_000 && sampled < 12_000);
+    }
+
+    @Test
+    public void histogramBuckets() {
+        long[][] buckets = {{0, 0}, {-5, 0}, {1, 1}, {2, 2}, {3, 2}, {4, 3}, {1023, 10}, {1024, 11},
+                {(1L << 38) - 1, 38}, {1L << 38, 39}, {Long.MAX_VALUE, 39}};
+        for (long[] bucket : buckets) {
+            assertEquals(String.valueOf(bucket[0]), bucket[1], CheckMetrics.bucketOf(bucket[0]));
+        }
+
+        long[] counts = new long[CheckMetrics.BUCKETS];
+        counts[0] = 10;
+        counts[4] = 80;
+        counts[10] = 9;
+        counts[20] = 1;
+        CheckStats stats = new CheckStats(Check.Email, 200, 5, counts, 20_000);
+        assertEquals(100, stats.getSampledCount());
+        assertEquals(200.0, stats.meanNanos(), 1e-9);
+        assertEquals(0, stats.percentileNanos(0.0));
+        assertEquals(0, stats.percentileNanos(0.1));
+        assertEquals(16, stats.percentileNanos(0.11));
+        assertEquals(16, stats.percentileNanos(0.9));
+        assertEquals(1024, stats.percentileNanos(0.99));
+        assertEquals(1 << 20, stats.percentileNanos(1.0));
+        assertEquals(1 << 20, stats.percentileNanos(2.0));
+        // getBuckets 返回副本
+        stats.getBuckets()[4] = 0;
+        assertArrayEquals(counts, stats.getBuckets());
+
+        CheckStats empty = new CheckStats(Check.Email, 0, 0, new long[CheckMetrics.BUCKETS], 0);
+        assertEquals(0, empty.percentileNanos(0.99));
+        assertEquals(0.0, empty.meanNanos(), 0.0);
+
+        // 记录的耗时落在 [start, now] 对应的桶之间
+        CheckMetrics.end(Check.Url, System.nanoTime() - 5_000, true);
+        long[] recorded = CheckMetrics.snapshot(Check.Url).getBuckets();
+        assertEquals(1, recorded[13] + recorded[14] + recorded[15] + recorded[16]);
+    }
+
+    @Test
+    public void registersMBean() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(CheckMetrics.OBJECT_NAME);
+        assertFalse(server.isRegistered(name));
+        CheckMetrics.registerMBean();
+        CheckMetrics.registerMBean();
+        assertTrue(server.isRegistered(name));
+
+        CheckMetricsMXBean bean = JMX.newMXBeanProxy(server, name, CheckMetricsMXBean.class);
+        bean.setEnabled(true);
+        bean.setSampleRate(1);
+        assertTrue(CheckMetrics.isEnabled());
+        assertEquals(1, CheckMetrics.getSampleRate());
+        Check.Mobile.check("13800138000", null);
+        Check.Mobile.check("1", null);
+        // 只列出调用过的验证方法
+        assertEquals(1, bean.getInvocations().size());
+        assertEquals(Long.valueOf(2), bean.getInvocations().get("Mobile"));
+        assertEquals(Long.valueOf(1), bean.getFailures().get("Mobile"));
+        assertTrue(bean.getMeanNanos().containsKey("Mobile"));
+        assertTrue(bean.getP99Nanos().get("Mobile") >= 0);
+        bean.reset();
+        assertTrue(bean.getInvocations().isEmpty());
+
+        CheckMetrics.unregisterMBean();
+        CheckMetrics.unregisterMBean();
+        assertFalse(server.isRegistered(name));
+    }
+}
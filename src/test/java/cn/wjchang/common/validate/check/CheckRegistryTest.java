@@ -0,0 +1,187 @@
+package cn.wjchang.common.validate.check;
+
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * CheckRegistry 的注册、查找、表达式拆分和 Check.Custom 的分派；
+ * ServiceLoader 加载的实现类见 src/test/resources/META-INF/services
+ */
+public class CheckRegistryTest {
+
+    private static final String NAME = "registry-test";
+
+    @After
+    public void tearDown() {
+        CheckRegistry.unregister(NAME);
+        CheckRegistry.unregister(NAME + "-other");
+    }
+
+    @Test
+    public void badProvidersAreSkipped() {
+        CustomCheck spi = CheckRegistry.get("registry-spi");
+        assertTrue(spi != null && spi.getCode() == 99_020);
+        assertTrue(CheckRegistry.getAll().contains(spi));
+        assertTrue(Check.Custom.check("spi", "registry-spi:s"));
+
+        List<String> errors = CheckRegistry.getProviderErrors();
+        assertEquals(errors.toString(), 3, errors.size());
+        assertTrue(errors.get(0), errors.get(0).startsWith(FailingProvider.class.getName() + ": ")
+                && errors.get(0).contains("broken provider"));
+        assertTrue(errors.get(1), errors.get(1).contains("cn.wjchang.common.validate.check.MissingCheckProvider"));
+        assertTrue(errors.get(2), errors.get(2).startsWith(DuplicateProvider.class.getName() + ": ")
+                && errors.get(2).contains("code 99020"));
+        assertNull(CheckRegistry.get("registry-duplicate"));
+        try {
+            errors.clear();
+            fail();
+        } catch (UnsupportedOperationException expected) {
+            // 只读
+        }
+    }
+
+    @Test
+    public void registerAndUnregister() {
+        CustomCheck check = prefix(NAME, 99_021);
+        CheckRegistry.register(check);
+        assertSame(check, CheckRegistry.get(NAME));
+        for (CustomCheck duplicate : new CustomCheck[]{prefix(NAME, 99_023), prefix(NAME + "-other", 99_021)}) {
+            try {
+                CheckRegistry.register(duplicate);
+                fail(duplicate.toString());
+            } catch (ParamsCheckException expected) {
+                // 名称或错误码重复
+            }
+        }
+        assertNull(CheckRegistry.get(NAME + "-other"));
+        assertSame(check, CheckRegistry.get(NAME));
+
+        assertSame(check, CheckRegistry.unregister(NAME));
+        assertNull(CheckRegistry.unregister(NAME));
+        assertNull(CheckRegistry.get(NAME));
+        assertFalse(CheckRegistry.getAll().contains(check));
+        // 取消注册后名称和错误码可以重新使用
+        CheckRegistry.register(prefix(NAME + "-other", 99_021));
+        assertEquals(99_021, CheckRegistry.get(NAME + "-other").getCode());
+    }
+
+    @Test
+    public void lookupAndArgument() {
+        CustomCheck check = prefix(NAME, 99_021);
+        CheckRegistry.register(check);
+        assertSame(check, CheckRegistry.lookup(NAME));
+        assertSame(check, CheckRegistry.lookup(NAME + ":"));
+        assertSame(check, CheckRegistry.lookup(NAME + ":a:b"));
+        assertNull(CheckRegistry.lookup(null));
+        assertNull(CheckRegistry.lookup(""));
+        assertNull(CheckRegistry.lookup(":" + NAME));
+        assertNull(CheckRegistry.lookup(NAME + "x:a"));
+        assertNull(CheckRegistry.get(null));
+        assertNull(CheckRegistry.get(NAME + ":a"));
+
+        assertNull(CheckRegistry.argument(null));
+        assertNull(CheckRegistry.argument(NAME));
+        assertEquals("", CheckRegistry.argument(NAME + ":"));
+        assertEquals("a", CheckRegistry.argument(NAME + ":a"));
+        // 只按第一个冒号拆分
+        assertEquals("a:b", CheckRegistry.argument(NAME + ":a:b"));
+
+        try {
+            CheckRegistry.require("missing:a");
+            fail();
+        } catch (ParamsCheckException e) {
+            assertEquals("custom check is not registered: missing:a", e.getMessage());
+        }
+    }
+
+    @Test
+    public void customDispatch() {
+        CheckRegistry.register(prefix(NAME, 99_021));
+        assertTrue(Check.Custom.check("SKU-1", NAME + ":SKU-"));
+        assertFalse(Check.Custom.check("ABC-1", NAME + ":SKU-"));
+        assertTrue(Check.Custom.checkChars(new StringBuilder("SKU-1"), NAME + ":SKU-"));
+        // 没有冒号时传给自定义验证方法的表达式为 null
+        assertFalse(Check.Custom.check("SKU-1", NAME));
+        assertTrue(Check.Custom.check(null, NAME));
+
+        CompiledCheck compiled = Check.Custom.compile(NAME + ":12");
+        assertEquals(NAME + ":12", compiled.getExpress());
+        assertSame(Check.Custom, compiled.getCheck());
+        assertTrue(compiled.testLong(123));
+        assertTrue(compiled.testDouble(12.5));
+        assertFalse(compiled.testChars("21"));
+
+        // 编译时没有注册的表达式，每次验证时查找
+        CompiledCheck late = Check.Custom.compile(NAME + "-other:x");
+        try {
+            late.test("x");
+            fail();
+        } catch (ParamsCheckException expected) {
+            // 没有注册
+        }
+        CheckRegistry.register(prefix(NAME + "-other", 99_023));
+        assertTrue(late.test("xy"));
+        assertFalse(late.testLong(1));
+        assertTrue(late.testChars("xz"));
+
+        // 编译时已经注册的表达式绑定 CustomCheck，取消注册不受影响
+        CheckRegistry.unregister(NAME);
+        assertTrue(compiled.test("12"));
+        try {
+            Check.Custom.check("SKU-1", NAME + ":SKU-");
+            fail();
+        } catch (ParamsCheckException expected) {
+            // 已经取消注册
+        }
+    }
+
+    /**
+     * 值的字符串以表达式为前缀，表达式为 null 时只有 null 值通过
+     */
+    private static CustomCheck prefix(String name, int code) {
+        return CustomCheck.builder(name).code(code)
+                .function((value, express) -> express == null ? value == null
+                        : value != null && value.toString().startsWith(express))
+                .build();
+    }
+
+    public static class SpiProvider implements CheckProvider {
+
+        @Override
+        public Collection<CustomCheck> getChecks() {
+            return Collections.singletonList(prefix("registry-spi", 99_020));
+        }
+    }
+
+    public static class FailingProvider implements CheckProvider {
+
+        @Override
+        public Collection<CustomCheck> getChecks() {
+            throw new IllegalStateException("broken provider");
+        }
+    }
+
+    /**
+     * 和 SpiProvider 使用相同的错误码，在 SpiProvider 之后加载，注册失败
+     */
+    public static class DuplicateProvider implements CheckProvider {
+
+        @Override
+        public Collection<CustomCheck> getChecks() {
+            return Arrays.asList(prefix("registry-duplicate", 99_020));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package cn.wjchang.common.validate.check;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * int、float、char 等参数直接调用 check、test 时按各自的包装类型验证，结果和引入不装箱入口之前相同
+ */
+public class CheckTest {
+
+    @Test
+    public void floatKeepsBoxedResult() {
+        assertTrue(Check.EQ.check(1.1f, "1.1"));
+        assertFalse(Check.NEQ.check(1.1f, "1.1"));
+        assertTrue(Check.GTE.check(1.1f, "1.1"));
+        assertFalse(Check.GT.check(0.1f, "0.1"));
+        assertFalse(Check.LT.check(0.1f, "0.1"));
+        assertTrue(Check.LTE.check(0.1f, "0.1"));
+        assertTrue(Check.IN.check(1.1f, "1.1,2"));
+        assertTrue(Check.Enum.check(1.1f, "1.1,2.2"));
+        assertTrue(Check.EQ.compile("1.1").test(1.1f));
+        assertFalse(Check.GT.compile("0.1").test(0.1f));
+    }
+
+    @Test
+    public void charKeepsBoxedResult() {
+        assertFalse(Check.EQ.check('a', "97"));
+        assertFalse(Check.GT.check('a', null));
+        assertFalse(Check.GT.check('a', "1"));
+        assertFalse(Check.IN.check('a', "1"));
+        assertFalse(Check.IN.check('a', "1,200"));
+        assertFalse(Check.Number.check('a', null));
+        assertFalse(Check.Currency.check('a', null));
+        assertTrue(Check.Number.check('5', null));
+        assertTrue(Check.Enum.check('a', "a,b"));
+        assertFalse(Check.EQ.compile("97").test('a'));
+        assertFalse(Check.Number.compile(null).test('a'));
+    }
+
+    @Test
+    public void primitiveEntryPointsMatchBoxed() {
+        assertEquals(Check.EQ.check(5L, "5"), Check.EQ.checkLong(5L, "5"));
+        assertEquals(Check.GT.check(0.1, "0.1"), Check.GT.checkDouble(0.1, "0.1"));
+        assertEquals(Check.Mobile.check("13800138000", null), Check.Mobile.checkChars("13800138000", null));
+        assertEquals(Check.IN.check(5L, "1,10"), Check.IN.compile("1,10").testLong(5L));
+        assertEquals(Check.IN.check(5.5, "1,10"), Check.IN.compile("1,10").testDouble(5.5));
+        assertEquals(Check.Ipv4.check("1.1.1.1", null), Check.Ipv4.compile(null).testChars("1.1.1.1"));
+    }
+}
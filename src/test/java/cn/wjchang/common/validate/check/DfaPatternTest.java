@@ -0,0 +1,152 @@
+package cn.wjchang.common.validate.check;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * DfaPattern 和 java.util.regex 的差异测试：随机生成正则和输入，matches 的结果必须完全相同；
+ * 不支持的语法返回 null，Check.Pattern 回退到 java.util.regex
+ */
+public class DfaPatternTest {
+
+    private static final String[] ATOMS = {"a", "b", "c", ".", "\\d", "\\w", "\\s", "\\D", "[abc]", "[^a]", "[a-c]",
+            "[a-]", "[-b]", "\\.", "\\-", "[\\d_]", "x", "\\t", "é", "[^\\s]", "\\x41", "\\u00e9", "|", "$", "^", "]",
+            "}"};
+
+    private static final String[] QUANTIFIERS = {"*", "+", "?", "{2}", "{1,3}", "{0,}", "*?", "+?", "??", "{2,}?",
+            "*+", "{0}"};
+
+    private static final String RAW = "ab.()[]{}|*+?^$\\-,1d2:<>n";
+
+    private static final String INPUT_CHARS = "abcx1_ .-\té\nA";
+
+    private final Random random = new Random(18);
+
+    @Test
+    public void matchesJavaRegex() {
+        List<String> mismatches = new ArrayList<>();
+        int supported = 0;
+        int positives = 0;
+        for (int p = 0; p < 20_000; p++) {
+            String regex = p % 3 == 0 ? raw() : (random.nextInt(5) == 0 ? "^" : "") + generate(0)
+                    + (random.nextInt(5) == 0 ? "$" : "");
+            Pattern pattern;
+            try {
+                pattern = Pattern.compile(regex);
+            } catch (PatternSyntaxException e) {
+                try {
+                    DfaPattern.compile(regex);
+                    mismatches.add("/" + regex + "/ accepted by DfaPattern");
+                } catch (PatternSyntaxException expected) {
+                    // 两者都拒绝
+                }
+                continue;
+            }
+            DfaPattern dfa = DfaPattern.compile(regex);
+            if (dfa == null) {
+                continue;
+            }
+            supported++;
+            for (int i = 0; i < 40; i++) {
+                String input = input();
+                boolean expected = pattern.matcher(input).matches();
+                if (expected) {
+                    positives++;
+                }
+                if (expected != dfa.matches(input) && mismatches.size() < 10) {
+                    mismatches.add("/" + regex + "/ [" + input + "] java=" + expected);
+                }
+            }
+        }
+        assertEquals(new ArrayList<String>(), mismatches);
+        assertTrue("supported " + supported, supported > 5_000);
+        assertTrue("positives " + positives, positives > 10_000);
+    }
+
+    @Test
+    public void unsupportedSyntaxFallsBackToJavaRegex() {
+        String[][] cases = {
+                {"(?=a)a", "a"}, {"(?!b)a", "a"}, {"a(?<=a)b", "ab"}, {"a(?<!a)b", "ab"},
+                {"(a)\\1", "aa"}, {"(?<n>a)\\k<n>", "aa"},
+                {"a*+b", "aab"}, {"a++", "aa"}, {"a?+a", "a"}, {"(?>a|ab)c", "abc"},
+                {"(?i)abc", "ABC"}, {"(?s)a.b", "a\nb"}, {"(?m)a$", "a"},
+                {"a\\bb", "ab"}, {"\\Ba", "a"}, {"\\p{L}+", "中文"}, {"\\Qa.b\\E", "a.b"}, {"[a-z&&[^b]]", "b"}, {"a\\z", "a"}
+        };
+        for (String[] c : cases) {
+            assertNull(c[0], DfaPattern.compile(c[0]));
+            assertEquals(c[0], Pattern.compile(c[0]).matcher(c[1]).matches(), Check.Pattern.check(c[1], c[0]));
+            assertEquals(c[0], Pattern.compile(c[0]).matcher(c[1] + "!").matches(),
+                    Check.Pattern.compile(c[0]).test(c[1] + "!"));
+        }
+    }
+
+    @Test
+    public void supportedSyntaxUsesDfa() {
+        for (String regex : new String[]{"a{2}", "[a-z]+@x", "^\\d{6}$", "(?:ab|cd)*", "\\w+\\.\\w+"}) {
+            assertNotNull(regex, DfaPattern.compile(regex));
+        }
+    }
+
+    @Test
+    public void invalidRegexThrows() {
+        for (String regex : new String[]{"(", "[a", "a{2", "*a", "a)"}) {
+            try {
+                DfaPattern.compile(regex);
+                fail(regex);
+            } catch (PatternSyntaxException expected) {
+                // 和 Pattern.compile 一样抛出
+            }
+        }
+    }
+
+    private String generate(int depth) {
+        StringBuilder sb = new StringBuilder();
+        int n = 1 + random.nextInt(4);
+        for (int i = 0; i < n; i++) {
+            int k = random.nextInt(10);
+            if (k < 6 || depth > 2) {
+                sb.append(ATOMS[random.nextInt(ATOMS.length - (depth > 0 ? 5 : 3))]);
+            } else if (k < 8) {
+                sb.append("(").append(random.nextBoolean() ? "?:" : "").append(generate(depth + 1))
+                        .append(random.nextBoolean() ? "|" + generate(depth + 1) : "").append(")");
+            } else {
+                sb.append(generate(depth + 1)).append("|").append(generate(depth + 1));
+            }
+            if (random.nextInt(12) < 6) {
+                sb.append(QUANTIFIERS[random.nextInt(QUANTIFIERS.length)]);
+            }
+        }
+        return sb.toString();
+    }
+
+    private String raw() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1 + random.nextInt(8); i > 0; i--) {
+            sb.append(RAW.charAt(random.nextInt(RAW.length())));
+        }
+        return sb.toString();
+    }
+
+    private String input() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = random.nextInt(8); i > 0; i--) {
+            sb.append(INPUT_CHARS.charAt(random.nextInt(INPUT_CHARS.length())));
+        }
+        if (random.nextInt(30) == 0) {
+            // 代理对
+            sb.append("\uD83D\uDE00");
+        }
+        return sb.toString();
+    }
+}
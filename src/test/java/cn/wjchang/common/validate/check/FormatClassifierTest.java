@@ -0,0 +1,122 @@
+package cn.wjchang.common.validate.check;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FormatClassifier 的差异测试：classify(v) 必须等于 FORMATS 中 check(v) 通过的集合，
+ * 包括含有代理对、回退到逐个验证的输入
+ */
+public class FormatClassifierTest {
+
+    private static final String[] SAMPLES = {
+            "buyer@example.com", "a@b.cn", "a.b-c@x-y.example.org", "a|b@x.io", "-a@b.com", "a..b@c.com",
+            "A1@B2.COM", "a@b.c", "a@b-.com", "13800138000", "+8613800138000", "12800138000", "1380013800",
+            "11010519491231002X", "110105194912310021", "11010519491231002x", "110105491231002",
+            "f47ac10b-58cc-4372-a567-0e02b2c3d479", "F47AC10B-58CC-4372-A567-0E02B2C3D479",
+            "f47ac10b58cc4372a5670e02b2c3d479", "f47ac10b-58cc-4372-a567-0e02b2c3d47", "192.168.1.1", "0.0.0.0",
+            "255.255.255.255", "256.1.1.1", "01.1.1.1", "1.1.1", "::1", "::", "2001:db8::1",
+            "2001:0db8:85a3:0000:0000:8a2e:0370:7334", "fe80::1%eth0", "::ffff:192.168.1.1", "1::2::3",
+            "00:1A:2B:3C:4D:5E", "00-1a-2b-3c-4d-5e", "0:1:2:3:4:5", "0x001122334455 ether", "00:1A:2B:3C:4D",
+            "http://a.com", "https://[::1]/x", "ftp://a:b@c.d", "HTTP://A.COM:8080/p?q#f", "http://a b",
+            "mailto:a@b.com", "http://[v1.x]", "a:b", ":", "", " ", "abc", "12345"
+    };
+
+    private static final String ALPHABET = ":-.@/0123456789abcdefxzAEFX |[]%#?_+ \u00e9\u4e2d";
+
+    private final Random random = new Random(19);
+
+    @Test
+    public void matchesIndividualChecks() {
+        List<String> inputs = new ArrayList<>(Arrays.asList(SAMPLES));
+        for (int i = 0; i < 50_000; i++) {
+            inputs.add(mutate(SAMPLES[random.nextInt(SAMPLES.length)]));
+        }
+        List<String> mismatches = new ArrayList<>();
+        int matched = 0;
+        int surrogates = 0;
+        for (String input : inputs) {
+            EnumSet<Check> expected = expected(input);
+            EnumSet<Check> actual = FormatClassifier.classify(input);
+            if (!expected.isEmpty()) {
+                matched++;
+            }
+            if (hasSurrogate(input)) {
+                surrogates++;
+            }
+            if (!expected.equals(actual) && mismatches.size() < 10) {
+                mismatches.add("[" + input + "] expected=" + expected + " actual=" + actual);
+            }
+        }
+        assertEquals(new ArrayList<String>(), mismatches);
+        assertTrue("matched " + matched, matched > 5_000);
+        assertTrue("surrogates " + surrogates, surrogates > 1_000);
+        assertTrue(FormatClassifier.stateCount() > 0);
+    }
+
+    @Test
+    public void surrogatesFallBackToChecks() {
+        String[] inputs = {"\uD83D\uDE00", "http://a.com/\uD83D\uDE00", "\uD83D\uDE00@a.com",
+                "13800138000\uD83D\uDE00", "\uD800", "a\uDC00b", "https://\uD83D\uDE00.com"};
+        for (String input : inputs) {
+            assertEquals(input, expected(input), FormatClassifier.classify(input));
+        }
+    }
+
+    @Test
+    public void nullAndEmpty() {
+        assertTrue(FormatClassifier.classify(null).isEmpty());
+        assertTrue(FormatClassifier.classify("").isEmpty());
+        assertEquals(EnumSet.of(Check.Ipv4), FormatClassifier.classify("192.168.1.1"));
+        // 返回新创建的集合，可以修改
+        EnumSet<Check> result = FormatClassifier.classify(new StringBuilder("13800138000"));
+        assertEquals(EnumSet.of(Check.Mobile), result);
+        result.add(Check.Email);
+        assertEquals(EnumSet.of(Check.Mobile), FormatClassifier.classify("13800138000"));
+    }
+
+    private static EnumSet<Check> expected(String input) {
+        EnumSet<Check> expected = EnumSet.noneOf(Check.class);
+        for (Check check : FormatClassifier.FORMATS) {
+            if (check.check(input, null)) {
+                expected.add(check);
+            }
+        }
+        return expected;
+    }
+
+    private String mutate(String sample) {
+        StringBuilder sb = new StringBuilder(sample);
+        for (int m = random.nextInt(4); m > 0; m--) {
+            int k = random.nextInt(10);
+            int at = sb.length() == 0 ? 0 : random.nextInt(sb.length());
+            if (k == 0) {
+                sb.insert(at, "\uD83D\uDE00");
+            } else if (k < 4 && sb.length() > 0) {
+                sb.deleteCharAt(at);
+            } else if (k < 7) {
+                sb.insert(at, ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            } else if (sb.length() > 0) {
+                sb.setCharAt(at, ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean hasSurrogate(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (Character.isSurrogate(s.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,228 @@
+package cn.wjchang.common.validate.check;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FormatScanner 和 RegexPattern 的差异测试：随机生成接近边界的字符串，两者的结果必须完全相同
+ */
+public class FormatScannerTest {
+
+    private static final int ROUNDS = 100_000;
+
+    private static final String LINE_TERMINATORS = "\n\r\u0085\u2028\u2029";
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void uuidMatchesRegex() {
+        Predicate<String> regex = s -> RegexPattern.UUID.matcher(s).matches()
+                || RegexPattern.UUID_SIMPLE.matcher(s).matches();
+        List<String> inputs = new ArrayList<>(Arrays.asList("", "-", UUID.randomUUID() + "\n"));
+        for (int i = 0; i < ROUNDS; i++) {
+            String u = UUID.randomUUID().toString();
+            switch (random.nextInt(6)) {
+                case 1:
+                    u = u.replace("-", "");
+                    break;
+                case 2:
+                    u = u.toUpperCase();
+                    break;
+                case 3:
+                    u = random("0az-Z9g\n", 40);
+                    break;
+                case 4:
+                    char[] c = u.toCharArray();
+                    c[random.nextInt(c.length)] = "-zZ0\n".charAt(random.nextInt(5));
+                    u = new String(c);
+                    break;
+                case 5:
+                    u = u + (random.nextBoolean() ? "\n" : "a");
+                    break;
+                default:
+            }
+            inputs.add(u);
+        }
+        assertSame("uuid", regex, FormatScanner::isUuid, inputs);
+    }
+
+    @Test
+    public void ipv4MatchesRegex() {
+        List<String> inputs = new ArrayList<>(Arrays.asList("", "0.0.0.0", "255.255.255.255", "256.1.1.1",
+                "01.1.1.1", "1.1.1", "1.1.1.1.", "1.1.1.1\n"));
+        for (int i = 0; i < ROUNDS; i++) {
+            String s = random.nextInt(5) == 0 ? random("0123456789.", 18) : ipv4();
+            if (random.nextInt(10) == 0) {
+                s = s + random(".9a\n ", 2);
+            }
+            inputs.add(s);
+        }
+        assertSame("ipv4", matches(RegexPattern.IPV4), FormatScanner::isIpv4, inputs);
+    }
+
+    @Test
+    public void ipv6MatchesRegex() {
+        List<String> inputs = new ArrayList<>(Arrays.asList("", "::", "::1", "1::", "fe80::1%eth0",
+                "::ffff:192.168.1.1", "1:2:3:4:5:6:7:8", "1:2:3:4:5:6:7:8:9", "1::2::3"));
+        for (int i = 0; i < ROUNDS; i++) {
+            inputs.add(ipv6());
+        }
+        assertSame("ipv6", matches(RegexPattern.IPV6), FormatScanner::isIpv6, inputs);
+    }
+
+    @Test
+    public void macMatchesRegex() {
+        List<String> inputs = new ArrayList<>(Arrays.asList("", "00:1A:2b:3C:4d:5E", "0-1-2-3-4-5",
+                "0x001122334455 ether", "0X001122334455xETHER", "00:11:22:33:44"));
+        for (int i = 0; i < ROUNDS; i++) {
+            String mac;
+            switch (random.nextInt(4)) {
+                case 0:
+                    StringBuilder sb = new StringBuilder();
+                    int groups = 5 + random.nextInt(3);
+                    for (int g = 0; g < groups; g++) {
+                        if (g > 0) {
+                            sb.append(":-x".charAt(random.nextInt(3)));
+                        }
+                        sb.append(hex(random.nextInt(4)));
+                    }
+                    mac = sb.toString();
+                    break;
+                case 1:
+                    mac = "0" + "xX".charAt(random.nextInt(2)) + random("0123456789", 13)
+                            + random(" a" + LINE_TERMINATORS, 3) + "EtHeR".substring(0, random.nextInt(6));
+                    break;
+                case 2:
+                    mac = "0x" + random("0123456789", 12) + random("ab ", 3)
+                            + (random.nextBoolean() ? "ether" : "ETHER") + random("R", 1);
+                    if (random.nextBoolean()) {
+                        mac = mac.toUpperCase();
+                    }
+                    break;
+                default:
+                    mac = random("0aF:-xEtHR" + LINE_TERMINATORS, 22);
+            }
+            inputs.add(mac);
+        }
+        assertSame("mac", matches(RegexPattern.MAC_ADDRESS), FormatScanner::isMac, inputs);
+    }
+
+    @Test
+    public void mobileMatchesRegex() {
+        List<String> inputs = new ArrayList<>(Arrays.asList("", "13800138000", "+8613800138000",
+                "8613800138000", "013800138000", "12800138000", "1380013800", "138001380000"));
+        String[] prefixes = {"", "0", "86", "+86", "8", "+8", "00"};
+        for (int i = 0; i < ROUNDS; i++) {
+            String s = prefixes[random.nextInt(prefixes.length)] + random("0123456789", 12);
+            if (random.nextInt(4) == 0) {
+                s = prefixes[random.nextInt(4)] + "1" + random.nextInt(10) + random("0123456789a", 10);
+            }
+            inputs.add(s);
+        }
+        assertSame("mobile", matches(RegexPattern.MOBILE), FormatScanner::isMobile, inputs);
+    }
+
+    private static Predicate<String> matches(Pattern pattern) {
+        return s -> pattern.matcher(s).matches();
+    }
+
+    /**
+     * 列出前 10 个不一致的输入；同时要求生成的输入中有足够多的合法值，否则测试没有意义
+     */
+    private static void assertSame(String name, Predicate<String> regex, Predicate<CharSequence> scanner,
+                                   List<String> inputs) {
+        List<String> mismatches = new ArrayList<>();
+        int positives = 0;
+        for (String s : inputs) {
+            boolean expected = regex.test(s);
+            if (expected) {
+                positives++;
+            }
+            if (expected != scanner.test(s) && mismatches.size() < 10) {
+                mismatches.add("[" + s + "] regex=" + expected);
+            }
+        }
+        assertEquals(name + " mismatches", new ArrayList<String>(), mismatches);
+        assertTrue(name + " positives " + positives, positives > inputs.size() / 500);
+    }
+
+    private String random(String alphabet, int maxLength) {
+        int n = random.nextInt(maxLength + 1);
+        StringBuilder sb = new StringBuilder(n);
+        for (int i = 0; i < n; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+
+    private String hex(int n) {
+        return random.ints(n, 0, 22).mapToObj(i -> String.valueOf("0123456789abcdefABCDEF".charAt(i)))
+                .reduce("", String::concat);
+    }
+
+    private String octet() {
+        switch (random.nextInt(4)) {
+            case 0:
+                return String.valueOf(random.nextInt(400));
+            case 1:
+                return String.format("%02d", random.nextInt(100));
+            case 2:
+                return String.valueOf(random.nextInt(256));
+            default:
+                return String.format("%03d", random.nextInt(1000));
+        }
+    }
+
+    private String ipv4() {
+        return octet() + "." + octet() + "." + octet() + "." + octet();
+    }
+
+    private String ipv6() {
+        int groups = random.nextInt(10);
+        List<String> parts = new ArrayList<>();
+        for (int i = 0; i < groups; i++) {
+            parts.add(hex(1 + random.nextInt(random.nextInt(10) == 0 ? 6 : 4)));
+        }
+        String s = String.join(":", parts);
+        int split = random.nextInt(groups + 1);
+        String compressed = String.join(":", parts.subList(0, split)) + "::"
+                + String.join(":", parts.subList(split, groups));
+        switch (random.nextInt(8)) {
+            case 0:
+                int at = random.nextInt(s.length() + 1);
+                return s.substring(0, at) + "::" + s.substring(at);
+            case 1:
+                return compressed;
+            case 2:
+                return (random.nextBoolean() ? "::" : "::ffff:" + (random.nextBoolean() ? zeros() + ":" : "")) + ipv4();
+            case 3:
+                return String.join(":", parts.subList(0, Math.min(groups, random.nextInt(6)))) + "::" + ipv4();
+            case 4:
+                return "fe80:" + random(":0a1fF", 10) + "%" + random("eth0%_", 5);
+            case 5:
+                return random.nextBoolean() ? compressed + ":" + ipv4() : compressed;
+            case 6:
+                return random("0:1.f%e8", 16);
+            default:
+                return s;
+        }
+    }
+
+    private String zeros() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = random.nextInt(6); i > 0; i--) {
+            sb.append('0');
+        }
+        return sb.toString();
+    }
+}
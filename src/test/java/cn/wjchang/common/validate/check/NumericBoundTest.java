@@ -0,0 +1,183 @@
+package cn.wjchang.common.validate.check;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 数值比较的差异测试：整数类参数和精确值（BigDecimal）比较的结果一致，
+ * CheckUtil、CompiledCheck、不装箱的 long/double 参数三条路径的结果一致
+ */
+public class NumericBoundTest {
+
+    private static final Check[] COMPARES = {Check.GT, Check.GTE, Check.LT, Check.LTE, Check.EQ, Check.NEQ};
+
+    private static final Check[] NUMERIC = {Check.GT, Check.GTE, Check.LT, Check.LTE, Check.EQ, Check.NEQ,
+            Check.IN, Check.NotIn};
+
+    private static final String[] EXPRESSES = {"5", "-5", "0", "5.5", "-5.5", "5.0", "3000000000", "-3000000000",
+            "9223372036854775807", "9223372036854775808", "-9223372036854775809", "1e3", "1E+2", "0.1", "40000",
+            "127", "128", "abc", "", null, "NaN", "Infinity", "-Infinity", "1.5f", " 5 ", "١٢",
+            "99999999999999999999999", "1e400", "-0", "0.0"};
+
+    private static final String[] RANGES = {"1,10", "-5,5", "5,5", "1.5,9.5", "0,3000000000", "a,b", "5", "1,",
+            ",5", "1,10,20", "", null, "-Infinity,Infinity", "NaN,5"};
+
+    private final List<Object> values = values();
+
+    @Test
+    public void pinnedResults() {
+        Object[][] cases = {
+                {Check.GT, 5, "5.5", false}, {Check.LT, 5, "5.5", true}, {Check.EQ, 5L, "5.0", true},
+                {Check.GT, 3000000000L, "2147483647", true}, {Check.EQ, 0.1, "0.1", true},
+                {Check.EQ, 0.1f, "0.1", true}, {Check.GT, 0.1f, "0.1", false}, {Check.EQ, 1.1f, "1.1", true},
+                {Check.LTE, 1.1f, "1.1", true}, {Check.NEQ, Double.NaN, "NaN", false},
+                {Check.EQ, Double.NaN, "NaN", true}, {Check.EQ, -0.0, "0", false},
+                {Check.GT, new BigDecimal("5.50"), "5.5", false}, {Check.EQ, new BigDecimal("5.50"), "5.5", true},
+                {Check.GT, 5, "abc", NumberFormatException.class}, {Check.GT, 5, null, NumberFormatException.class},
+                {Check.GT, 5, "", NumberFormatException.class}, {Check.GT, 'a', "1", false},
+                {Check.EQ, 'a', "97", false}, {Check.GT, 5.0, "1.5f", true},
+                {Check.LT, Long.MAX_VALUE, "9223372036854775808", true},
+                {Check.IN, 5, "1,10", true}, {Check.IN, 5.5, "1.5,9.5", true}, {Check.IN, 11, "1,10", false},
+                {Check.NotIn, 11, "1,10", true}, {Check.IN, 5, "1,10,20", true}, {Check.IN, 'a', "1,200", false},
+                {Check.IN, 5, "5", NumberFormatException.class}
+        };
+        for (Object[] c : cases) {
+            Check check = (Check) c[0];
+            assertEquals(check + " " + c[1] + " '" + c[2] + "'", c[3],
+                    outcome(() -> check.check(c[1], (String) c[2])));
+        }
+    }
+
+    @Test
+    public void integralMatchesExactReference() {
+        for (Check check : COMPARES) {
+            for (String express : EXPRESSES) {
+                BigDecimal bound = decimal(express);
+                for (Object value : values) {
+                    if (bound == null || !integral(value)) {
+                        continue;
+                    }
+                    int c = new BigDecimal(value.toString()).compareTo(bound);
+                    assertEquals(check + " " + desc(value) + " '" + express + "'", holds(check, c),
+                            outcome(() -> check.check(value, express)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void compiledMatchesCheckUtil() {
+        for (Check check : NUMERIC) {
+            for (String express : check == Check.IN || check == Check.NotIn ? RANGES : EXPRESSES) {
+                Object compiled = outcome(() -> check.compile(express));
+                for (Object value : values) {
+                    Object expected = outcome(() -> check.check(value, express));
+                    Object actual = compiled instanceof CompiledCheck
+                            ? outcome(() -> ((CompiledCheck) compiled).test(value)) : compiled;
+                    assertEquals(check + " " + desc(value) + " '" + express + "'", expected, actual);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void primitiveMatchesBoxed() {
+        long[] longs = {5L, -5L, 0L, Long.MAX_VALUE, Long.MIN_VALUE, 3000000000L};
+        double[] doubles = {5.0, 5.5, 0.1, Double.NaN, -0.0, Double.POSITIVE_INFINITY};
+        for (Check check : NUMERIC) {
+            for (String express : check == Check.IN || check == Check.NotIn ? RANGES : EXPRESSES) {
+                CompiledCheck compiled = express == null ? null : check.compile(express);
+                for (long v : longs) {
+                    Object boxed = outcome(() -> check.check(v, express));
+                    assertEquals(check + " long " + v + " '" + express + "'", boxed,
+                            outcome(() -> check.checkLong(v, express)));
+                    if (compiled != null) {
+                        assertEquals(check + " compiled long " + v + " '" + express + "'", boxed,
+                                outcome(() -> compiled.testLong(v)));
+                    }
+                }
+                for (double v : doubles) {
+                    Object boxed = outcome(() -> check.check(v, express));
+                    assertEquals(check + " double " + v + " '" + express + "'", boxed,
+                            outcome(() -> check.checkDouble(v, express)));
+                    if (compiled != null) {
+                        assertEquals(check + " compiled double " + v + " '" + express + "'", boxed,
+                                outcome(() -> compiled.testDouble(v)));
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<Object> values() {
+        List<Object> values = new ArrayList<>(Arrays.asList(5, -5, 0, 6, 4, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                5L, 6L, Long.MAX_VALUE, Long.MIN_VALUE, (short) 5, (short) 127, (byte) 5, (byte) -128, 5.0f, 5.5f,
+                0.1f, Float.NaN, 5.0, 5.5, 0.1, Double.NaN, -0.0, Double.POSITIVE_INFINITY, new BigDecimal("5"),
+                new BigDecimal("5.50"), new BigDecimal("0.1"), new BigInteger("5"),
+                new BigInteger("99999999999999999999999"), new BigInteger("-99999999999999999999999"),
+                new AtomicInteger(5), new AtomicLong(3000000000L), "abcde", "5", "", Arrays.asList(1, 2, 3, 4, 5),
+                Collections.emptyList(), 'a', true, null));
+        Random random = new Random(25);
+        for (int i = 0; i < 300; i++) {
+            values.add(random.nextInt(20) - 10);
+            values.add((long) random.nextInt(20) - 10);
+            values.add(new BigDecimal(random.nextInt(200) - 100).movePointLeft(1));
+        }
+        return values;
+    }
+
+    private static boolean integral(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || value instanceof BigInteger || value instanceof AtomicInteger || value instanceof AtomicLong
+                || value instanceof BigDecimal;
+    }
+
+    private static BigDecimal decimal(String express) {
+        try {
+            return new BigDecimal(express);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean holds(Check check, int c) {
+        switch (check) {
+            case GT:
+                return c > 0;
+            case GTE:
+                return c >= 0;
+            case LT:
+                return c < 0;
+            case LTE:
+                return c <= 0;
+            case EQ:
+                return c == 0;
+            default:
+                return c != 0;
+        }
+    }
+
+    private static Object outcome(Supplier<Object> check) {
+        try {
+            return check.get();
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+    private static String desc(Object value) {
+        return value == null ? "null" : value.getClass().getSimpleName() + ":" + value;
+    }
+}
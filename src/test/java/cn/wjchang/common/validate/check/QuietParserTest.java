@@ -0,0 +1,185 @@
+package cn.wjchang.common.validate.check;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * QuietParser 和 JDK 解析的差异测试：结果必须和 LocalDate.parse、LocalDateTime.parse、Long.parseLong、
+ * Double.valueOf、new BigDecimal 捕获异常后的结果完全相同
+ */
+public class QuietParserTest {
+
+    private static final String[] DATE_PATTERNS = {
+            "yyyy-MM-dd", "yyyyMMdd", "yyyy/MM/dd", "dd.MM.yyyy", "yyyy-M-d", "uuuu-MM-dd", "yyyy-DDD",
+            "yyyy-MM-dd EEE", "EEE, yyyy-MM-dd"
+    };
+
+    private static final String[] DATE_TIME_PATTERNS = {
+            "yyyy-MM-dd HH:mm:ss", "yyyyMMddHHmmss", "yyyy/MM/dd HH:mm:ss", "yyyy-MM-dd hh:mm:ss a",
+            "yyyy-MM-dd kk:mm", "yyyy-MM-dd HH:mm:ss.SSS", "yyyy-MM-dd'T'HH:mm"
+    };
+
+    private static final String[] EDGE_DATES = {
+            "2023-02-29", "2024-02-30", "2023-04-31", "2023-13-01", "2023-00-10", "2023-01-32",
+            "2023-01-01 24:00:00", "2023-01-01 24:00:01", "2023-01-01 23:60:00", "2023-01-01 23:59:60", "",
+            "abc", "20230101", "2023-1-1", "+20231-01-01", "0000-01-01", "-0001-01-01", "2023-01-01 12:00:00 PM",
+            "2023-01-01 00:00:00 AM", "2023-01-01 13:00:00 PM", "2023-01-01 24:00", "2023-01-01 00:00", "2024-060",
+            "2023-366", "2024-366", "2024-367", "0000-02-29", "0001-02-29", "2023-12-31 24:00:00",
+            "2023-02-29 24:00:00", "2023-04-31 10:00:00", "2023-04-31 24:00:00", "12023-01-01", "+12023-01-01",
+            "9999-12-31 23:59:59", "2023-01-01T00:00:00", "2023-01-01 0:00:00"
+    };
+
+    private final Random random = new Random(24);
+
+    @Test
+    public void datesMatchJdk() {
+        List<String> mismatches = new ArrayList<>();
+        for (boolean strict : new boolean[]{false, true}) {
+            for (String pattern : concat(DATE_PATTERNS, DATE_TIME_PATTERNS)) {
+                DateTimeFormatter formatter = FormatterCache.ofPattern(pattern, strict);
+                for (String text : dateInputs(pattern)) {
+                    Object expected = jdkDate(text, formatter);
+                    Object actual = QuietParser.parseDate(text, formatter);
+                    if ((!Objects.equals(expected, actual)
+                            || QuietParser.isDate(text, formatter) != (expected != null)) && mismatches.size() < 10) {
+                        mismatches.add(pattern + " strict=" + strict + " date [" + text + "] jdk=" + expected);
+                    }
+                    expected = jdkDateTime(text, formatter);
+                    actual = QuietParser.parseDateTime(text, formatter);
+                    if ((!Objects.equals(expected, actual)
+                            || QuietParser.isDateTime(text, formatter) != (expected != null)) && mismatches.size() < 10) {
+                        mismatches.add(pattern + " strict=" + strict + " dateTime [" + text + "] jdk=" + expected);
+                    }
+                }
+            }
+        }
+        assertEquals(new ArrayList<String>(), mismatches);
+    }
+
+    @Test
+    public void numbersMatchJdk() {
+        List<String> inputs = new ArrayList<>(Arrays.asList("1", "-1", "+1", "", "-", "+", "1.5", ".5", "5.", ".",
+                "1e3", "1E+3", "1e", "1e+", "1.5f", "1.5D", "1f", " 1 ", "NaN", "-Infinity", "Infinity ", "NaNx",
+                "0x1p3", "0x1.8p1", "0x.8p1", "0x1", "0xp1", "0x1p", "0X1P-2f", "9223372036854775807",
+                "9223372036854775808", "-9223372036854775808", "2147483648", "-2147483648", "١٢",
+                "1٢", "1e٢", "1_000", "1,2", "1e99999", "1e2147483648", "1e-2147483649", "00", "-0",
+                "1..2", "1e1.5", "abc", "1d ", "\t2\n", "++1", "+-1"));
+        String alphabet = "0123456789.eE+-fdxXpPaN ١";
+        for (int i = 0; i < 200_000; i++) {
+            inputs.add(random(alphabet, 8));
+        }
+        List<String> mismatches = new ArrayList<>();
+        for (String s : inputs) {
+            boolean isLong = succeeds(() -> Long.parseLong(s));
+            boolean isInt = succeeds(() -> Integer.parseInt(s));
+            boolean isDouble = succeeds(() -> Double.valueOf(s));
+            boolean isFloat = succeeds(() -> Float.valueOf(s));
+            BigDecimal decimal;
+            try {
+                decimal = new BigDecimal(s);
+            } catch (NumberFormatException e) {
+                decimal = null;
+            }
+            if ((isLong != QuietParser.isLong(s, 0, s.length()) || isInt != QuietParser.isInt(s, 0, s.length())
+                    || isDouble != QuietParser.isDouble(s) || isFloat != isDouble
+                    || !Objects.equals(decimal, QuietParser.parseDecimal(s))) && mismatches.size() < 10) {
+                mismatches.add("[" + s + "] long=" + isLong + " int=" + isInt + " double=" + isDouble
+                        + " decimal=" + decimal);
+            }
+        }
+        assertEquals(new ArrayList<String>(), mismatches);
+    }
+
+    @Test
+    public void compiledLengthMatchesCheckUtil() {
+        String[] expresses = {"5", "1,5", "0,5", "5,", ",5", "1,,2", "1,2,3", "1,2,,", "a", "1,a", "-1,3",
+                "2147483648", "1,2147483648", ""};
+        for (String express : expresses) {
+            CompiledCheck compiled = Check.Length.compile(express);
+            for (String value : new String[]{"", "abc", "abcdef"}) {
+                assertEquals(express + " " + value, outcome(() -> CheckUtil.inLength(value, express)),
+                        outcome(() -> compiled.test(value)));
+            }
+        }
+    }
+
+    /**
+     * 按格式生成日期后随机修改 0 到 2 个字符，再加上边界值
+     */
+    private List<String> dateInputs(String pattern) {
+        List<String> inputs = new ArrayList<>(Arrays.asList(EDGE_DATES));
+        DateTimeFormatter printer = DateTimeFormatter.ofPattern(pattern.replace('y', 'u'), Locale.getDefault());
+        LocalDateTime base = LocalDateTime.of(2024, 2, 29, 23, 59, 59, 123_000_000);
+        String alphabet = "0123456789-/: .T+AMPMonTueWed";
+        for (int i = 0; i < 3000; i++) {
+            char[] c = printer.format(base.plusSeconds(random.nextInt(1 << 30) - (1 << 29))
+                    .plusDays(random.nextInt(3))).toCharArray();
+            for (int m = random.nextInt(3); m > 0 && c.length > 0; m--) {
+                c[random.nextInt(c.length)] = random.nextBoolean() ? (char) ('0' + random.nextInt(10))
+                        : alphabet.charAt(random.nextInt(alphabet.length()));
+            }
+            inputs.add(new String(c));
+        }
+        return inputs;
+    }
+
+    private static LocalDate jdkDate(String text, DateTimeFormatter formatter) {
+        try {
+            return LocalDate.parse(text, formatter);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static LocalDateTime jdkDateTime(String text, DateTimeFormatter formatter) {
+        try {
+            return LocalDateTime.parse(text, formatter);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean succeeds(Runnable parse) {
+        try {
+            parse.run();
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static Object outcome(java.util.function.Supplier<Object> check) {
+        try {
+            return check.get();
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+    private static String[] concat(String[] a, String[] b) {
+        String[] all = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, all, a.length, b.length);
+        return all;
+    }
+
+    private String random(String alphabet, int maxLength) {
+        int n = random.nextInt(maxLength + 1);
+        StringBuilder sb = new StringBuilder(n);
+        for (int i = 0; i < n; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
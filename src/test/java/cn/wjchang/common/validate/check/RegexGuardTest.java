@@ -0,0 +1,112 @@
+package cn.wjchang.common.validate.check;
+
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * RegexGuard：(a+)+$ 遇到 "aaaa…!" 时大量回溯（JDK 9 以上约为平方，20000 个字符需要数秒），
+ * 超出步数或时间预算时中止，按不通过处理
+ */
+public class RegexGuardTest {
+
+    private static final String EVIL = "(a+)+$";
+
+    private static final String INPUT = repeat("a", 20_000) + "!";
+
+    @After
+    public void tearDown() {
+        RegexGuard.setMaxSteps(0);
+        RegexGuard.setTimeout(0, TimeUnit.MILLISECONDS);
+        DfaPattern.setEnabled(true);
+        Thread.interrupted();
+    }
+
+    @Test
+    public void abortsByMaxSteps() {
+        Pattern pattern = Pattern.compile(EVIL);
+        long aborted = RegexGuard.getAbortedCount();
+        assertFalse(RegexGuard.matches(pattern, INPUT, 100_000, 0));
+        assertEquals(aborted + 1, RegexGuard.getAbortedCount());
+        // 预算足够时返回真实的结果
+        assertTrue(RegexGuard.matches(pattern, "aaaa", 100_000, 0));
+        assertFalse(RegexGuard.matches(pattern, "aa!", 100_000, 0));
+        assertEquals(aborted + 1, RegexGuard.getAbortedCount());
+    }
+
+    @Test
+    public void abortsByTimeout() {
+        Pattern pattern = Pattern.compile(EVIL);
+        long aborted = RegexGuard.getAbortedCount();
+        long start = System.nanoTime();
+        assertFalse(RegexGuard.matches(pattern, INPUT, 0, TimeUnit.MILLISECONDS.toNanos(50)));
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(millis + "ms", millis < 2_000);
+        assertEquals(aborted + 1, RegexGuard.getAbortedCount());
+    }
+
+    @Test
+    public void abortsWhenInterrupted() {
+        Pattern pattern = Pattern.compile(EVIL);
+        long aborted = RegexGuard.getAbortedCount();
+        Thread.currentThread().interrupt();
+        assertFalse(RegexGuard.matches(pattern, INPUT, 0, TimeUnit.MINUTES.toNanos(1)));
+        // 不清除中断状态
+        assertTrue(Thread.interrupted());
+        assertEquals(aborted + 1, RegexGuard.getAbortedCount());
+    }
+
+    @Test
+    public void globalBudgetAppliesToPatternCheck() {
+        assertFalse(RegexGuard.isEnabled());
+        assertTrue(RegexGuard.matches(Pattern.compile(EVIL), "aaa"));
+        RegexGuard.setMaxSteps(100_000);
+        RegexGuard.setTimeout(1, TimeUnit.SECONDS);
+        assertTrue(RegexGuard.isEnabled());
+        assertEquals(100_000, RegexGuard.getMaxSteps());
+        assertEquals(1_000, RegexGuard.getTimeout(TimeUnit.MILLISECONDS));
+
+        // DFA 不回溯，不受预算影响
+        long aborted = RegexGuard.getAbortedCount();
+        assertFalse(Check.Pattern.check(INPUT, EVIL));
+        assertTrue(Check.Pattern.check("aaa", EVIL));
+        assertEquals(aborted, RegexGuard.getAbortedCount());
+
+        DfaPattern.setEnabled(false);
+        CompiledCheck compiled = Check.Pattern.compile(EVIL);
+        assertFalse(Check.Pattern.check(INPUT, EVIL));
+        assertFalse(compiled.test(INPUT));
+        assertTrue(compiled.test("aaa"));
+        assertEquals(aborted + 2, RegexGuard.getAbortedCount());
+    }
+
+    @Test
+    public void rejectsNegativeBudget() {
+        for (Runnable invalid : new Runnable[]{() -> RegexGuard.setMaxSteps(-1),
+                () -> RegexGuard.setTimeout(-1, TimeUnit.SECONDS)}) {
+            try {
+                invalid.run();
+                fail();
+            } catch (ParamsCheckException expected) {
+                // 不能为负数
+            }
+        }
+        assertFalse(RegexGuard.isEnabled());
+    }
+
+    static String repeat(String s, int times) {
+        StringBuilder sb = new StringBuilder(s.length() * times);
+        for (int i = 0; i < times; i++) {
+            sb.append(s);
+        }
+        return sb.toString();
+    }
+}
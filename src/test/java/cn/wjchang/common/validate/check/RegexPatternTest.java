@@ -0,0 +1,102 @@
+package cn.wjchang.common.validate.check;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 改写后的 RegexPattern.EMAIL 和改写前的嵌套量词版本接受、拒绝相同的输入，匹配步数和输入长度成线性
+ */
+public class RegexPatternTest {
+
+    /**
+     * 改写前的 EMAIL，([a-z0-9A-Z]+[-|\.]?)+ 在构造的输入上大量回溯
+     */
+    private static final Pattern OLD_EMAIL = Pattern.compile(
+            "^([a-z0-9A-Z]+[-|\\.]?)+[a-z0-9A-Z]@([a-z0-9A-Z]+(-[a-z0-9A-Z]+)?\\.)+[a-zA-Z]{2,}$");
+
+    private static final String[] SAMPLES = {
+            "buyer@example.com", "a@b.cn", "ab@b.cn", "a.b-c@x-y.example.org", "a|b@x.io", "a--b@c.com",
+            "a.-b@c.com", "-a@b.com", "a-@b.com", "a..b@c.com", "A1@B2.COM", "a@b.c", "a@b-.com", "a@-b.com",
+            "a@b--c.com", "a@b-c-d.com", "a@b.c1", "a@b..com", "a@@b.com", "a@b.com.", "@b.com", "a@", "a",
+            "1@2.ab", "a_b@c.com", "a@b_c.com", "a@b.co m", "a b@c.com", ""
+    };
+
+    private static final String ALPHABET = "aZ9-|.@_ ";
+
+    private final Random random = new Random(17);
+
+    @Test
+    public void sameResultsAsOldPattern() {
+        List<String> inputs = new ArrayList<>();
+        for (String sample : SAMPLES) {
+            inputs.add(sample);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            inputs.add(i % 2 == 0 ? mutate(SAMPLES[random.nextInt(SAMPLES.length)]) : randomInput());
+        }
+        List<String> mismatches = new ArrayList<>();
+        int accepted = 0;
+        for (String input : inputs) {
+            boolean expected = OLD_EMAIL.matcher(input).matches();
+            if (expected) {
+                accepted++;
+            }
+            if (expected != RegexPattern.EMAIL.matcher(input).matches() && mismatches.size() < 10) {
+                mismatches.add("[" + input + "] expected=" + expected);
+            }
+        }
+        assertEquals(new ArrayList<String>(), mismatches);
+        assertTrue("accepted " + accepted, accepted > 2_000);
+    }
+
+    @Test
+    public void matchesInLinearSteps() {
+        String[] inputs = {RegexGuardTest.repeat("a-", 5_000) + "!", RegexGuardTest.repeat("a", 10_000) + "!",
+                RegexGuardTest.repeat("a", 10_000) + "@",
+                RegexGuardTest.repeat("ab.", 3_000) + "@" + RegexGuardTest.repeat("b-c.", 2_000) + "!",
+                RegexGuardTest.repeat("a.", 3_000) + "a@b.com"};
+        long aborted = RegexGuard.getAbortedCount();
+        for (String input : inputs) {
+            boolean expected = input.endsWith(".com");
+            assertEquals(expected, RegexGuard.matches(RegexPattern.EMAIL, input, 10L * input.length(), 0));
+        }
+        assertEquals(aborted, RegexGuard.getAbortedCount());
+        // 改写前的版本约需要 n² 步，在同样的预算内中止；输入太长时递归会栈溢出
+        String shorter = RegexGuardTest.repeat("a", 1_000) + "!";
+        assertFalse(RegexGuard.matches(OLD_EMAIL, shorter, 10L * shorter.length(), 0));
+        assertEquals(aborted + 1, RegexGuard.getAbortedCount());
+    }
+
+    private String randomInput() {
+        StringBuilder sb = new StringBuilder();
+        for (int n = 1 + random.nextInt(16); n > 0; n--) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    private String mutate(String sample) {
+        StringBuilder sb = new StringBuilder(sample);
+        for (int m = 1 + random.nextInt(3); m > 0; m--) {
+            int k = random.nextInt(3);
+            int at = sb.length() == 0 ? 0 : random.nextInt(sb.length());
+            char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            if (k == 0 && sb.length() > 0) {
+                sb.deleteCharAt(at);
+            } else if (k == 1) {
+                sb.insert(at, c);
+            } else if (sb.length() > 0) {
+                sb.setCharAt(at, c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,180 @@
+package cn.wjchang.common.validate.check;
+
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * ResultCache：按（表达式，值）缓存 String 值的结果，Check.check 和 CompiledCheck.test 共用；
+ * 用计数的自定义验证方法统计实际验证的次数
+ */
+public class ResultCacheTest {
+
+    private static final String NAME = "cache-test";
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        register(true);
+    }
+
+    @After
+    public void tearDown() {
+        for (Check check : Check.values()) {
+            ResultCache.disable(check);
+        }
+        ResultCache.setMaxValueLength(ResultCache.DEFAULT_MAX_VALUE_LENGTH);
+        CheckRegistry.unregister(NAME);
+    }
+
+    @Test
+    public void timeSensitiveChecksRequireTtl() {
+        for (Check check : new Check[]{Check.Past, Check.Future, Check.Today}) {
+            try {
+                ResultCache.enable(check);
+                fail(check.name());
+            } catch (ParamsCheckException expected) {
+                // 结果和当前时间有关
+            }
+            assertFalse(ResultCache.isEnabled(check));
+            ResultCache.enable(check, 100, 1, TimeUnit.MINUTES);
+            assertTrue(ResultCache.isEnabled(check));
+        }
+        for (Runnable invalid : new Runnable[]{() -> ResultCache.enable(Check.Url, 0),
+                () -> ResultCache.enable(Check.Url, 10, -1, TimeUnit.SECONDS),
+                () -> ResultCache.setMaxValueLength(-1)}) {
+            try {
+                invalid.run();
+                fail();
+            } catch (ParamsCheckException expected) {
+                // 参数非法
+            }
+        }
+        assertFalse(ResultCache.isEnabled(Check.Url));
+    }
+
+    @Test
+    public void cachesStringResults() {
+        assertNull(ResultCache.stats(Check.Custom));
+        ResultCache.enable(Check.Custom);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(Check.Custom.check("SKU-1", NAME + ":SKU-"));
+            assertFalse(Check.Custom.check("ABC-1", NAME + ":SKU-"));
+        }
+        assertEquals(2, calls.get());
+        CacheStats stats = ResultCache.stats(Check.Custom);
+        assertEquals(4, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+        assertEquals(2, stats.getSize());
+
+        ResultCache.clear();
+        assertTrue(Check.Custom.check("SKU-1", NAME + ":SKU-"));
+        assertEquals(3, calls.get());
+
+        ResultCache.disable(Check.Custom);
+        assertTrue(Check.Custom.check("SKU-1", NAME + ":SKU-"));
+        assertTrue(Check.Custom.check("SKU-1", NAME + ":SKU-"));
+        assertEquals(5, calls.get());
+    }
+
+    @Test
+    public void entriesExpireAfterTtl() throws InterruptedException {
+        ResultCache.enable(Check.Custom, 100, 50, TimeUnit.MILLISECONDS);
+        assertTrue(Check.Custom.check("SKU-1", NAME + ":SKU-"));
+        assertTrue(Check.Custom.check("SKU-1", NAME + ":SKU-"));
+        assertEquals(1, calls.get());
+        Thread.sleep(80);
+        assertTrue(Check.Custom.check("SKU-1", NAME + ":SKU-"));
+        assertEquals(2, calls.get());
+        assertTrue(Check.Custom.check("SKU-1", NAME + ":SKU-"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void nonStringAndLongValuesBypassCache() {
+        ResultCache.enable(Check.Custom);
+        ResultCache.setMaxValueLength(8);
+        for (int i = 0; i < 2; i++) {
+            assertTrue(Check.Custom.check(new StringBuilder("SKU-1"), NAME + ":SKU-"));
+            assertFalse(Check.Custom.check(12345, NAME + ":SKU-"));
+            assertTrue(Check.Custom.check("SKU-12345", NAME + ":SKU-"));
+        }
+        assertEquals(6, calls.get());
+        assertEquals(0, ResultCache.stats(Check.Custom).getSize());
+        assertTrue(Check.Custom.check("SKU-1234", NAME + ":SKU-"));
+        assertTrue(Check.Custom.check("SKU-1234", NAME + ":SKU-"));
+        assertEquals(7, calls.get());
+    }
+
+    @Test
+    public void keysIncludeExpression() {
+        ResultCache.enable(Check.Custom);
+        assertTrue(Check.Custom.check("SKU-1", NAME + ":SKU-"));
+        assertFalse(Check.Custom.check("SKU-1", NAME + ":ABC-"));
+        assertTrue(Check.Custom.check("SKU-1", NAME + ":SKU-"));
+        assertFalse(Check.Custom.check("SKU-1", NAME + ":ABC-"));
+        assertEquals(2, calls.get());
+
+        // 内置的验证方法同样按表达式区分
+        ResultCache.enable(Check.Length);
+        assertTrue(Check.Length.check("3", "1,3"));
+        assertFalse(Check.Length.check("3", "2,3"));
+        assertEquals(2, ResultCache.stats(Check.Length).getSize());
+    }
+
+    @Test
+    public void checkAndCompiledShareHits() {
+        ResultCache.enable(Check.Custom);
+        CompiledCheck compiled = Check.Custom.compile(NAME + ":SKU-");
+        assertTrue(Check.Custom.check("SKU-1", NAME + ":SKU-"));
+        assertTrue(compiled.test("SKU-1"));
+        assertTrue(compiled.testChars("SKU-1"));
+        assertTrue(Check.Custom.checkChars("SKU-1", NAME + ":SKU-"));
+        assertFalse(compiled.test("ABC-1"));
+        assertFalse(Check.Custom.check("ABC-1", NAME + ":SKU-"));
+        assertEquals(2, calls.get());
+        assertEquals(4, ResultCache.stats(Check.Custom).getHitCount());
+
+        CompiledCheck custom = CheckRegistry.get(NAME).compile("SKU-");
+        assertTrue(custom.test("SKU-1"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void registryChangesClearCustomResults() {
+        ResultCache.enable(Check.Custom);
+        ResultCache.enable(Check.Length);
+        assertTrue(Check.Custom.check("SKU-1", NAME + ":SKU-"));
+        assertTrue(Check.Length.check("abc", "1,3"));
+
+        CheckRegistry.unregister(NAME);
+        assertEquals(0, ResultCache.stats(Check.Custom).getSize());
+        assertEquals(1, ResultCache.stats(Check.Length).getSize());
+
+        register(false);
+        assertFalse(Check.Custom.check("SKU-1", NAME + ":SKU-"));
+        assertEquals(2, calls.get());
+    }
+
+    /**
+     * 以 express 为前缀；prefix 为 false 时结果取反，模拟重新注册了不同的实现
+     */
+    private void register(boolean prefix) {
+        CheckFunction function = (value, express) -> {
+            calls.incrementAndGet();
+            return value != null && value.toString().startsWith(express) == prefix;
+        };
+        CheckRegistry.register(CustomCheck.builder(NAME).code(99_022).function(function).build());
+    }
+}
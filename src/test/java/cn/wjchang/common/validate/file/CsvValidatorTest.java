@@ -0,0 +1,89 @@
+package cn.wjchang.common.validate.file;
+
+import cn.wjchang.common.validate.check.Check;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class CsvValidatorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<String> failures = new ArrayList<>();
+    private final List<String> malformed = new ArrayList<>();
+
+    private final FailureHandler handler = new FailureHandler() {
+        @Override
+        public void onFailure(long line, FileRule rule, CharSequence value) {
+            failures.add(line + ":" + value);
+        }
+
+        @Override
+        public void onMalformed(long line, String reason) {
+            malformed.add(line + ":" + reason);
+        }
+    };
+
+    @Test
+    public void quoteInsideUnquotedFieldIsLiteral() throws IOException {
+        CsvValidator validator = FileValidator.csv().header(true).rule(1, Check.GT, "0").build();
+        long failed = validator.validate(write("id,amount,note\n1,7,ok\n2,5,5\" screen\n3,-1,x\n4,-2,y\n"), handler);
+        assertEquals(2, failed);
+        assertEquals(Arrays.asList("4:-1", "5:-2"), failures);
+        assertEquals(new ArrayList<String>(), malformed);
+    }
+
+    @Test
+    public void quotedFieldsKeepSeparatorsLineBreaksAndEscapes() throws IOException {
+        CsvValidator validator = FileValidator.csv().rule(0, Check.Length, "3,3").rule(1, Check.GT, "0").build();
+        long failed = validator.validate(write("\"a,b\",1\n\"x\ny\",2\n\"\"\"\",3\n\"a\"\"b\",-1\nabc,-2\n"), handler);
+        assertEquals(3, failed);
+        // "x\ny" 占两行，之后的行号顺延；"""" 的值为一个双引号，长度为 1
+        assertEquals(Arrays.asList("4:\"", "5:-1", "6:-2"), failures);
+        assertEquals(new ArrayList<String>(), malformed);
+    }
+
+    @Test
+    public void unclosedQuoteIsMalformed() throws IOException {
+        CsvValidator validator = FileValidator.csv().rule(1, Check.GT, "0").build();
+        validator.validate(write("1,-1\n2,\"5\n"), handler);
+        assertEquals(Arrays.asList("1:-1"), failures);
+        assertEquals(1, malformed.size());
+    }
+
+    @Test
+    public void textAfterClosingQuoteIsMalformed() throws IOException {
+        CsvValidator validator = FileValidator.csv().rule(1, Check.GT, "0").build();
+        validator.validate(write("1,\"5\"x\n2,-1\n"), handler);
+        assertEquals(Arrays.asList("2:-1"), failures);
+        assertEquals(1, malformed.size());
+        assertEquals('1', malformed.get(0).charAt(0));
+    }
+
+    @Test
+    public void nonNumericValueFailsNumericRule() throws IOException {
+        CsvValidator validator = FileValidator.csv().rule(0, Check.GT, "0").rule(1, Check.IN, "1,100").build();
+        long failed = validator.validate(write("12,5\nabc,5\n1O,5\n,5\n-3,5\n1.5e2,abcde\n12345678901234567890,50.5\n"),
+                handler);
+        // 不是数值时不按字符串长度比较："abc" 不满足 GT 0，"abcde" 不在 1 到 100 之间
+        assertEquals(Arrays.asList("2:abc", "3:1O", "4:", "5:-3", "6:abcde"), failures);
+        assertEquals(5, failed);
+    }
+
+    private Path write(String content) throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+}
@@ -0,0 +1,218 @@
+package cn.wjchang.common.validate.processor;
+
+import cn.wjchang.common.validate.BeanValidator;
+import cn.wjchang.common.validate.ValidateBuilder;
+import cn.wjchang.common.validate.ValidateResult;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNotNull;
+
+/**
+ * 用 javax.tools 编译带 @Vali 的源码并运行 ValiProcessor，生成的验证类和 BeanValidator 的结果必须一致
+ */
+public class ValiProcessorTest {
+
+    @ClassRule
+    public static final TemporaryFolder FOLDER = new TemporaryFolder();
+
+    private static final String BASE = "package sample;\n"
+            + "import cn.wjchang.common.validate.annotation.Vali;\n"
+            + "import cn.wjchang.common.validate.check.Check;\n"
+            + "public class Base {\n"
+            + "    @Vali(value = Check.NotEmpty, msg = \"name\")\n"
+            + "    private String name;\n"
+            + "    @Vali(value = Check.IN, express = \"1,100\", msg = \"age\")\n"
+            + "    int age;\n"
+            // 包内可见的 getter 不是 public，运行时直接读取字段
+            + "    @Vali(value = Check.NotEmpty, msg = \"code\")\n"
+            + "    String code;\n"
+            + "    @Vali(value = Check.GT, express = \"0\", msg = \"amount\")\n"
+            + "    @Vali(value = Check.LT, express = \"1000\", msg = \"amount max\")\n"
+            + "    private long amount;\n"
+            + "    @Vali(value = Check.GTE, express = \"0.5\")\n"
+            + "    protected double rate;\n"
+            + "    @Vali(value = Check.NotNull, msg = \"active\")\n"
+            + "    private Boolean active;\n"
+            + "    @Vali(value = Check.NotEmpty, msg = \"static\")\n"
+            + "    static String ignored;\n"
+            + "    public String getName() { return name; }\n"
+            + "    String getCode() { return \"getter\"; }\n"
+            + "    public long getAmount() { return amount; }\n"
+            + "    public Boolean isActive() { return active; }\n"
+            + "    @Vali(value = Check.Length, express = \"1,5\", msg = \"title\")\n"
+            + "    public String getTitle() { return name == null ? null : name + \"!\"; }\n"
+            + "}\n";
+
+    private static final String SUB = "package sample;\n"
+            + "public class Sub extends Base {\n"
+            + "}\n";
+
+    private static final String TAGGED = "package sample;\n"
+            + "import cn.wjchang.common.validate.annotation.Vali;\n"
+            + "import cn.wjchang.common.validate.check.Check;\n"
+            + "public class Tagged extends Base {\n"
+            + "    @Vali(value = Check.NotEmpty, msg = \"tags\")\n"
+            + "    java.util.List<String> tags;\n"
+            + "    @Override\n"
+            + "    public String getName() { return super.getName() == null ? null : super.getName().trim(); }\n"
+            + "}\n";
+
+    private static final String OUTER = "package sample;\n"
+            + "public class Outer {\n"
+            + "    public static class Inner extends Base {\n"
+            + "    }\n"
+            + "    private static class Hidden extends Base {\n"
+            + "    }\n"
+            + "}\n";
+
+    // 其它包中读取不到 age、code、rate，只给出警告，不生成验证类
+    private static final String FAR = "package other;\n"
+            + "public class Far extends sample.Base {\n"
+            + "}\n";
+
+    private static final String[] CLASSES = {"sample.Base", "sample.Sub", "sample.Tagged", "sample.Outer$Inner"};
+
+    private static File gen;
+    private static ClassLoader loader;
+    private static List<Diagnostic<? extends JavaFileObject>> diagnostics;
+
+    @BeforeClass
+    public static void compile() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assumeNotNull(compiler);
+        File src = FOLDER.newFolder("src");
+        File out = FOLDER.newFolder("out");
+        gen = FOLDER.newFolder("gen");
+        List<File> files = new ArrayList<>();
+        String[][] sources = {{"sample/Base", BASE}, {"sample/Sub", SUB}, {"sample/Tagged", TAGGED},
+                {"sample/Outer", OUTER}, {"other/Far", FAR}};
+        for (String[] source : sources) {
+            File file = new File(src, source[0] + ".java");
+            assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+            Files.write(file.toPath(), source[1].getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(collector, null,
+                StandardCharsets.UTF_8)) {
+            List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"),
+                    "-processor", ValiProcessor.class.getName(), "-d", out.getPath(), "-s", gen.getPath());
+            boolean success = compiler.getTask(null, fileManager, collector, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(files)).call();
+            diagnostics = collector.getDiagnostics();
+            assertTrue(diagnostics.toString(), success);
+        }
+        loader = new URLClassLoader(new URL[]{out.toURI().toURL()}, ValiProcessorTest.class.getClassLoader());
+    }
+
+    @Test
+    public void generatesForInheritedOnlySubclasses() {
+        for (String name : new String[]{"Base", "Sub", "Tagged", "Outer_Inner"}) {
+            assertTrue(name, new File(gen, "sample/" + name + "_Validator.java").isFile());
+        }
+        assertFalse(new File(gen, "sample/Outer_Hidden_Validator.java").exists());
+        assertFalse(new File(gen, "other/Far_Validator.java").exists());
+        List<String> warnings = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+            assertFalse(diagnostic.toString(), diagnostic.getKind() == Diagnostic.Kind.ERROR);
+            if (diagnostic.getKind() == Diagnostic.Kind.WARNING) {
+                warnings.add(diagnostic.getMessage(null));
+            }
+        }
+        assertEquals(warnings.toString(), 2, warnings.size());
+    }
+
+    @Test
+    public void usesPublicGettersOnly() throws Exception {
+        String source = new String(Files.readAllBytes(new File(gen, "sample/Base_Validator.java").toPath()),
+                StandardCharsets.UTF_8);
+        assertTrue(source, source.contains("bean.code"));
+        assertFalse(source, source.contains("getCode"));
+        assertTrue(source, source.contains("bean.getName()"));
+        assertTrue(source, source.contains("bean.isActive()"));
+        assertTrue(source, source.contains("testLong(bean.getAmount())"));
+        assertTrue(source, source.contains("testDouble(bean.rate)"));
+        assertFalse(source, source.contains("ignored"));
+    }
+
+    @Test
+    public void matchesBeanValidator() throws Exception {
+        Random random = new Random(12);
+        String[] strings = {null, "", " ", "a", "abcd", " abcd ", "abcdef"};
+        int failed = 0;
+        for (String className : CLASSES) {
+            Class<?> type = loader.loadClass(className);
+            Class<?> validator = loader.loadClass(type.getName().replace('$', '_') + "_Validator");
+            Method test = validator.getMethod("test", type);
+            Method check = validator.getMethod("check", type);
+            BeanValidator beanValidator = BeanValidator.of(type);
+            for (int i = 0; i < 500; i++) {
+                Object bean = type.getConstructor().newInstance();
+                set(bean, "name", strings[random.nextInt(strings.length)]);
+                set(bean, "age", random.nextInt(120) - 10);
+                set(bean, "code", strings[random.nextInt(3)]);
+                set(bean, "amount", (long) random.nextInt(1200) - 100);
+                set(bean, "rate", random.nextInt(20) / 10.0);
+                set(bean, "active", random.nextInt(4) == 0 ? null : Boolean.TRUE);
+                if (className.endsWith("Tagged")) {
+                    set(bean, "tags", random.nextBoolean() ? Collections.emptyList() : Collections.singletonList("a"));
+                }
+                boolean expected = beanValidator.test(bean);
+                assertEquals(className + " " + i, expected, test.invoke(null, bean));
+                assertEquals(className + " " + i, failures(beanValidator.check(bean)),
+                        failures((ValidateBuilder) check.invoke(null, bean)));
+                if (!expected) {
+                    failed++;
+                }
+            }
+        }
+        assertTrue(failed > 100);
+    }
+
+    private static List<String> failures(ValidateBuilder builder) {
+        List<String> failures = new ArrayList<>();
+        for (ValidateResult.Failure failure : builder.getResult().getFailures()) {
+            failures.add(failure.getIndex() + " " + failure.getMessage() + " " + failure.getValue());
+        }
+        return failures;
+    }
+
+    private static void set(Object bean, String name, Object value) throws ReflectiveOperationException {
+        for (Class<?> c = bean.getClass(); c != null; c = c.getSuperclass()) {
+            try {
+                Field field = c.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(bean, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                // 在父类中
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+}
@@ -0,0 +1,184 @@
+package cn.wjchang.common.validate.rule;
+
+import cn.wjchang.common.validate.check.Check;
+import cn.wjchang.common.validate.exception.ParamsCheckException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * RuleSet 的解析和 ReloadableRuleSet 的重新加载：失败时保留旧的规则，成功时整体替换
+ */
+public class RuleSetTest {
+
+    private static final String ORDER = "# order\n"
+            + "\n"
+            + "orderNo   NotEmpty  \"\"   \"order no is required\"\n"
+            + "quantity  IN        1,100\n"
+            + "remark    Pattern   \"^[^<>]*$\"  remark\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void tokenize() {
+        assertEquals(Arrays.asList("a", "b"), RuleSet.tokenize("a b"));
+        assertEquals(Arrays.asList("a", "b", "c"), RuleSet.tokenize(" \ta\t\tb  c "));
+        assertEquals(Arrays.asList("a", "b c", "d"), RuleSet.tokenize("a \"b c\" d"));
+        assertEquals(Arrays.asList("a", "", "b"), RuleSet.tokenize("a \"\" b"));
+        assertEquals(Arrays.asList("x\"y", "a\\b"), RuleSet.tokenize("\"x\\\"y\" \"a\\\\b\""));
+        // 其它反斜杠原样保留
+        assertEquals(Arrays.asList("\\d{3}\\n"), RuleSet.tokenize("\"\\d{3}\\n\""));
+        assertEquals(Arrays.asList("a\"b"), RuleSet.tokenize("a\"b"));
+        assertEquals(Collections.<String>emptyList(), RuleSet.tokenize("   "));
+        for (String line : new String[]{"a \"b", "a \"b\\\"", "a \"b\"c", "\"a\"\"b\""}) {
+            try {
+                RuleSet.tokenize(line);
+                fail(line);
+            } catch (ParamsCheckException expected) {
+                // 引号没有闭合，或者闭合后没有空白
+            }
+        }
+    }
+
+    @Test
+    public void parse() {
+        RuleSet rules = RuleSet.parse(ORDER.replace("\n", "\r\n"));
+        assertEquals(3, rules.size());
+        assertEquals(Arrays.asList("orderNo", "quantity", "remark"), rules.getFields());
+        assertEquals(Check.NotEmpty, rules.getChecks().get(0).getCheck());
+        assertNull(rules.getChecks().get(0).getExpress());
+        assertEquals("1,100", rules.getChecks().get(1).getExpress());
+        assertEquals("^[^<>]*$", rules.getChecks().get(2).getExpress());
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("orderNo", "SO1");
+        values.put("quantity", 5);
+        values.put("remark", "ok");
+        assertTrue(rules.test(values));
+        values.put("quantity", 101);
+        values.put("remark", "<b>");
+        values.remove("orderNo");
+        assertFalse(rules.test(values));
+        assertEquals(3, rules.result(values).getFailedCount());
+        assertEquals("order no is required", rules.result(values).getFailures().get(0).getMsg());
+        assertEquals("remark", rules.result(values).getFailures().get(2).getMsg());
+    }
+
+    @Test
+    public void errorsReportLineNumbers() {
+        String[][] cases = {
+                {"a NotEmpty\n\n# c\nb Unknown", "line 4: unknown check: Unknown"},
+                {"a NotEmpty\nb Pattern \"(\"", "line 2: "},
+                {"a", "line 1: expected: field check [express] [msg]"},
+                {"a NotEmpty \"\" msg extra", "line 1: expected: field check [express] [msg]"},
+                {"a NotEmpty\r\nb NotEmpty \"msg", "line 2: unclosed quote"},
+                {"# only comments\n\n", "rules can not be empty"},
+                {"", "rules can not be empty"}
+        };
+        for (String[] c : cases) {
+            try {
+                RuleSet.parse(c[0]);
+                fail(c[0]);
+            } catch (ParamsCheckException e) {
+                assertTrue(c[0] + " -> " + e.getMessage(), e.getMessage().startsWith(c[1]));
+            }
+        }
+    }
+
+    @Test
+    public void reloadKeepsOldRulesOnFailure() throws IOException {
+        Path path = write(folder.getRoot().toPath().resolve("order.rules"), ORDER);
+        ReloadableRuleSet reloadable = ReloadableRuleSet.load(path);
+        RuleSet first = reloadable.get();
+        assertEquals(3, first.size());
+
+        write(path, ORDER + "amount Unknown\n");
+        try {
+            reloadable.reload();
+            fail();
+        } catch (ParamsCheckException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("line 6: unknown check"));
+            assertSame(e, reloadable.getLastError());
+        }
+        assertSame(first, reloadable.get());
+        assertEquals(1, reloadable.getFailedCount());
+        assertEquals(0, reloadable.getReloadCount());
+
+        Files.delete(path);
+        try {
+            reloadable.reload();
+            fail();
+        } catch (IOException expected) {
+            // 文件不存在
+        }
+        assertSame(first, reloadable.get());
+        assertEquals(2, reloadable.getFailedCount());
+
+        write(path, ORDER + "amount GT 0\n");
+        RuleSet second = reloadable.reload();
+        assertSame(second, reloadable.get());
+        assertEquals(4, second.size());
+        assertEquals(1, reloadable.getReloadCount());
+        // 已经取得的旧规则不受影响
+        assertEquals(3, first.size());
+    }
+
+    @Test
+    public void watchSwapsRulesAfterAtomicMove() throws Exception {
+        Path path = write(folder.getRoot().toPath().resolve("order.rules"), ORDER);
+        try (ReloadableRuleSet reloadable = ReloadableRuleSet.load(path).watch()) {
+            assertSame(reloadable, reloadable.watch());
+            Path tmp = write(folder.getRoot().toPath().resolve("order.rules.tmp"), ORDER + "amount GT 0\n");
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (reloadable.getReloadCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(1, reloadable.getReloadCount());
+            assertEquals(4, reloadable.get().size());
+        }
+    }
+
+    @Test
+    public void watchFailsWhenDirectoryIsGone() throws IOException {
+        Path dir = folder.newFolder("rules").toPath();
+        Path path = write(dir.resolve("order.rules"), ORDER);
+        ReloadableRuleSet reloadable = ReloadableRuleSet.load(path);
+        Files.delete(path);
+        Files.delete(dir);
+        for (int i = 0; i < 2; i++) {
+            try {
+                reloadable.watch();
+                fail();
+            } catch (IOException expected) {
+                // 不能监听目录，没有启动线程，可以再次调用
+            }
+        }
+        Files.createDirectory(dir);
+        write(path, ORDER);
+        reloadable.watch().close();
+        assertEquals(3, reloadable.get().size());
+    }
+
+    private static Path write(Path path, String text) throws IOException {
+        return Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+    }
+}